@@ -1,8 +1,11 @@
 package com.loievroman.carsharingapp.config;
 
+import com.loievroman.carsharingapp.pricing.PricingProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Configuration;
 
 @Configuration
+@EnableConfigurationProperties(PricingProperties.class)
 public class AppConfig {
 
 }
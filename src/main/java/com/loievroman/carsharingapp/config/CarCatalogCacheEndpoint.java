@@ -0,0 +1,21 @@
+package com.loievroman.carsharingapp.config;
+
+import com.loievroman.carsharingapp.dto.cache.CacheStatsDto;
+import com.loievroman.carsharingapp.service.CarCatalogCache;
+import java.util.Map;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+@Component
+@Endpoint(id = "carcache")
+@RequiredArgsConstructor
+public class CarCatalogCacheEndpoint {
+    private final CarCatalogCache carCatalogCache;
+
+    @ReadOperation
+    public Map<String, CacheStatsDto> stats() {
+        return carCatalogCache.getStats();
+    }
+}
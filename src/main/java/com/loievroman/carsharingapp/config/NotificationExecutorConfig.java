@@ -0,0 +1,129 @@
+package com.loievroman.carsharingapp.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+@Configuration
+public class NotificationExecutorConfig {
+    public static final String NOTIFICATION_EXECUTOR = "notificationExecutor";
+    private static final String METRIC_PREFIX = "notification.executor";
+
+    @Bean(NOTIFICATION_EXECUTOR)
+    public ThreadPoolTaskExecutor notificationExecutor(
+            MeterRegistry meterRegistry,
+            @Value("${notification.executor.threads}") int threads,
+            @Value("${notification.executor.queue-capacity}") int queueCapacity,
+            @Value("${notification.executor.rejection-policy}") RejectionPolicy rejectionPolicy,
+            @Value("${notification.executor.shutdown-timeout}") Duration shutdownTimeout) {
+        return buildNotificationExecutor(meterRegistry, threads, queueCapacity, rejectionPolicy,
+                shutdownTimeout);
+    }
+
+    static ThreadPoolTaskExecutor buildNotificationExecutor(MeterRegistry meterRegistry,
+                                                            int threads,
+                                                            int queueCapacity,
+                                                            RejectionPolicy rejectionPolicy,
+                                                            Duration shutdownTimeout) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor() {
+            @Override
+            protected ExecutorService initializeExecutor(ThreadFactory threadFactory,
+                                                         RejectedExecutionHandler handler) {
+                ExecutorService service = super.initializeExecutor(threadFactory, handler);
+                new ExecutorServiceMetrics(service, METRIC_PREFIX, List.of())
+                        .bindTo(meterRegistry);
+                return service;
+            }
+        };
+        executor.setThreadNamePrefix("notifications-");
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setRejectedExecutionHandler(rejectionPolicy.handler(meterRegistry.counter(
+                METRIC_PREFIX + ".rejected", "policy", rejectionPolicy.tag())));
+        executor.setTaskDecorator(latencyRecorder(meterRegistry));
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationMillis(shutdownTimeout.toMillis());
+        return executor;
+    }
+
+    private static TaskDecorator latencyRecorder(MeterRegistry meterRegistry) {
+        Timer queueWait = meterRegistry.timer(METRIC_PREFIX + ".task.wait");
+        Timer execution = meterRegistry.timer(METRIC_PREFIX + ".task.execution");
+        return task -> new TimedTask(task, queueWait, execution, System.nanoTime());
+    }
+
+    private static void reject(Runnable task) {
+        Runnable original = task instanceof TimedTask timed ? timed.task() : task;
+        if (original instanceof RejectableTask rejectable) {
+            rejectable.reject(new RejectedExecutionException(
+                    "Notification executor dropped the task"));
+        }
+    }
+
+    public interface RejectableTask extends Runnable {
+        void reject(RejectedExecutionException cause);
+    }
+
+    private record TimedTask(Runnable task,
+                             Timer queueWait,
+                             Timer execution,
+                             long submittedAt) implements Runnable {
+        @Override
+        public void run() {
+            long startedAt = System.nanoTime();
+            queueWait.record(Duration.ofNanos(startedAt - submittedAt));
+            try {
+                task.run();
+            } finally {
+                execution.record(Duration.ofNanos(System.nanoTime() - startedAt));
+            }
+        }
+    }
+
+    public enum RejectionPolicy {
+        DROP_OLDEST,
+        CALLER_RUNS;
+
+        private String tag() {
+            return name().toLowerCase().replace('_', '-');
+        }
+
+        private RejectedExecutionHandler handler(Counter rejected) {
+            if (this == CALLER_RUNS) {
+                RejectedExecutionHandler callerRuns = new ThreadPoolExecutor.CallerRunsPolicy();
+                return (task, executor) -> {
+                    rejected.increment();
+                    callerRuns.rejectedExecution(task, executor);
+                };
+            }
+            return (task, executor) -> {
+                rejected.increment();
+                if (executor.isShutdown()) {
+                    reject(task);
+                    return;
+                }
+                Runnable oldest = executor.getQueue().poll();
+                if (oldest != null) {
+                    reject(oldest);
+                }
+                if (!executor.getQueue().offer(task)) {
+                    reject(task);
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.loievroman.carsharingapp.config;
+
+import com.loievroman.carsharingapp.dto.payment.ReconciliationReportDto;
+import com.loievroman.carsharingapp.service.PaymentReconciler;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+@Component
+@Endpoint(id = "reconciliation")
+@RequiredArgsConstructor
+public class PaymentReconciliationEndpoint {
+    private final PaymentReconciler paymentReconciler;
+
+    @ReadOperation
+    public ReconciliationReportDto lastReport() {
+        return paymentReconciler.getLastReport().orElse(null);
+    }
+}
@@ -3,10 +3,10 @@ package com.loievroman.carsharingapp.config;
 import static org.springframework.security.config.Customizer.withDefaults;
 
 import com.loievroman.carsharingapp.security.JwtAuthenticationFilter;
+import com.loievroman.carsharingapp.security.PublicEndpoints;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.http.HttpMethod;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
@@ -25,6 +25,7 @@ import org.springframework.security.web.authentication.UsernamePasswordAuthentic
 public class SecurityConfig {
     private final UserDetailsService userDetailsService;
     private final JwtAuthenticationFilter jwtAuthenticationFilter;
+    private final PublicEndpoints publicEndpoints;
 
     @Bean
     public PasswordEncoder getPasswordEncoder() {
@@ -35,11 +36,8 @@ public class SecurityConfig {
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
         return http.cors(AbstractHttpConfigurer::disable).csrf(AbstractHttpConfigurer::disable)
                 .authorizeHttpRequests(
-                        auth -> auth.requestMatchers("/auth/**", "/error", "/swagger-ui/**",
-                                        "/v3/api-docs/**").permitAll()
-                                .requestMatchers(HttpMethod.GET, "/payments/success",
-                                        "/payments/cancel").permitAll()
-                                .requestMatchers(HttpMethod.GET, "/cars", "/cars/{id}").permitAll()
+                        auth -> auth.requestMatchers(publicEndpoints.getMatchers()).permitAll()
+                                .requestMatchers("/actuator/**").hasRole("MANAGER")
                                 .anyRequest().authenticated()).httpBasic(withDefaults())
                 .sessionManagement(
                         session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
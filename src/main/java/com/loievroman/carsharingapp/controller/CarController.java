@@ -1,16 +1,20 @@
 package com.loievroman.carsharingapp.controller;
 
 import com.loievroman.carsharingapp.dto.car.CarDto;
+import com.loievroman.carsharingapp.dto.car.CarQuoteDto;
 import com.loievroman.carsharingapp.dto.car.CreateCarRequestDto;
+import com.loievroman.carsharingapp.dto.page.CursorPageDto;
 import com.loievroman.carsharingapp.service.CarService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import java.time.LocalDate;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -20,6 +24,7 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
 
@@ -42,6 +47,23 @@ public class CarController {
         return carService.findById(id);
     }
 
+    @GetMapping("/{id}/quote")
+    @Operation(summary = "Quote a rental price",
+            description = "Calculates the total price for renting the car between the given "
+                    + "dates. Served from an in-memory fee table, so no booking is created.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully calculated the quote"),
+            @ApiResponse(responseCode = "400", description = "Return date is before rental date"),
+            @ApiResponse(responseCode = "404", description = "Car not found with the specified ID")
+    })
+    public CarQuoteDto quote(
+            @PathVariable Long id,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate rentalDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate returnDate
+    ) {
+        return carService.quote(id, rentalDate, returnDate);
+    }
+
     @GetMapping
     @Operation(summary = "Get all cars",
             description = "Retrieves a paginated list of all available cars."
@@ -51,6 +73,19 @@ public class CarController {
         return carService.findAll(pageable);
     }
 
+    @GetMapping(params = "cursor")
+    @Operation(summary = "Get all cars by cursor",
+            description = "Keyset-paginated variant of the car list. Pass an empty `cursor` "
+                    + "for the first page and the returned `nextCursor` for the next one. "
+                    + "Sortable by `id`, `brand`, `model` and `dailyFee`; no total is computed.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved cars"),
+            @ApiResponse(responseCode = "400", description = "Invalid cursor or sort property")
+    })
+    public CursorPageDto<CarDto> findAllByCursor(@RequestParam String cursor, Pageable pageable) {
+        return carService.findAll(cursor, pageable);
+    }
+
     @PreAuthorize("hasRole('MANAGER')")
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
@@ -1,12 +1,18 @@
 package com.loievroman.carsharingapp.controller;
 
+import com.loievroman.carsharingapp.dto.page.CursorPageDto;
+import com.loievroman.carsharingapp.dto.page.SliceDto;
+import com.loievroman.carsharingapp.dto.payment.BatchPaymentResponseDto;
+import com.loievroman.carsharingapp.dto.payment.CreateBatchPaymentRequestDto;
 import com.loievroman.carsharingapp.dto.payment.CreatePaymentRequestDto;
 import com.loievroman.carsharingapp.dto.payment.PaymentDto;
 import com.loievroman.carsharingapp.dto.payment.PaymentResponseDto;
 import com.loievroman.carsharingapp.dto.payment.PaymentStatusResponseDto;
 import com.loievroman.carsharingapp.exception.EntityNotFoundException;
-import com.loievroman.carsharingapp.model.User;
+import com.loievroman.carsharingapp.pagination.CountMode;
+import com.loievroman.carsharingapp.security.UserPrincipal;
 import com.loievroman.carsharingapp.service.PaymentService;
+import com.loievroman.carsharingapp.service.StripeWebhookService;
 import com.loievroman.carsharingapp.service.UserService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -22,6 +28,7 @@ import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
@@ -36,6 +43,7 @@ public class PaymentController {
 
     private final PaymentService paymentService;
     private final UserService userService;
+    private final StripeWebhookService stripeWebhookService;
 
     @GetMapping("/my")
     @PreAuthorize("hasRole('CUSTOMER')")
@@ -48,7 +56,7 @@ public class PaymentController {
     )
     @ApiResponse(responseCode = "200", description = "Successfully retrieved own payments")
     public Page<PaymentDto> getMyPayments(Authentication authentication, Pageable pageable) {
-        User currentUser = (User) authentication.getPrincipal();
+        UserPrincipal currentUser = (UserPrincipal) authentication.getPrincipal();
         return paymentService.findByUserId(currentUser.getId(), pageable);
     }
 
@@ -84,6 +92,65 @@ public class PaymentController {
         return paymentService.findByUserId(userId, pageable);
     }
 
+    @GetMapping(params = "cursor")
+    @PreAuthorize("hasRole('MANAGER')")
+    @Operation(
+            summary = "Get all or user-specific payments by cursor (for Managers)",
+            description = "Keyset-paginated variant of the payments list. Pass an empty `cursor` "
+                    + "for the first page and the returned `nextCursor` for the next one. "
+                    + "Sortable by `id` and `amountToPay`; no total is computed."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200",
+                    description = "Successfully retrieved payments"),
+            @ApiResponse(responseCode = "400",
+                    description = "Invalid cursor or sort property"),
+            @ApiResponse(responseCode = "404",
+                    description = "User with input id not found")
+    })
+    public CursorPageDto<PaymentDto> getAllPaymentsByCursor(
+            @RequestParam(required = false) Long userId,
+            @RequestParam String cursor,
+            Pageable pageable) {
+        if (userId == null) {
+            return paymentService.findAll(cursor, pageable);
+        }
+        if (!userService.existsById(userId)) {
+            throw new EntityNotFoundException("Cannot find payments. User with id="
+                    + userId + " not found.");
+        }
+        return paymentService.findByUserId(userId, cursor, pageable);
+    }
+
+    @GetMapping(params = {"count", "!cursor"})
+    @PreAuthorize("hasRole('MANAGER')")
+    @Operation(
+            summary = "Get all or user-specific payments with a chosen count mode (for Managers)",
+            description = "Offset-paginated variant of the payments list that lets the client "
+                    + "pick how the total is computed: `EXACT` runs a count query, "
+                    + "`APPROXIMATE` returns a cached estimate and `NONE` only reports "
+                    + "whether a next page exists."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200",
+                    description = "Successfully retrieved payments"),
+            @ApiResponse(responseCode = "404",
+                    description = "User with input id not found")
+    })
+    public SliceDto<PaymentDto> getAllPaymentsWithCountMode(
+            @RequestParam(required = false) Long userId,
+            @RequestParam CountMode count,
+            Pageable pageable) {
+        if (userId == null) {
+            return paymentService.findAll(pageable, count);
+        }
+        if (!userService.existsById(userId)) {
+            throw new EntityNotFoundException("Cannot find payments. User with id="
+                    + userId + " not found.");
+        }
+        return paymentService.findByUserId(userId, pageable, count);
+    }
+
     @PostMapping
     @PreAuthorize("hasRole('CUSTOMER')")
     @Operation(
@@ -113,20 +180,49 @@ public class PaymentController {
         return paymentService.createPaymentSession(requestDto, uriComponentsBuilder);
     }
 
+    @PostMapping("/batch")
+    @PreAuthorize("hasRole('CUSTOMER')")
+    @Operation(
+            summary = "Create one payment session for several charges",
+            description = "Creates a single Stripe payment session covering several rentals "
+                    + "and payment types of the current user, one line item per charge. "
+                    + "All included payments are settled together when the session completes."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200",
+                    description = "Payment session created or retrieved successfully"),
+            @ApiResponse(responseCode = "400",
+                    description = "Invalid request (empty or too many items, active rental fine)"),
+            @ApiResponse(responseCode = "404",
+                    description = "One of the rentals was not found for the current user"),
+            @ApiResponse(responseCode = "409",
+                    description = "A charge is already paid, not required or being paid "
+                            + "in another session"),
+            @ApiResponse(responseCode = "503",
+                    description = "Service Unavailable: Could not connect to the payment provider")
+    })
+    public BatchPaymentResponseDto createBatchPaymentSession(
+            Authentication authentication,
+            @Valid @RequestBody CreateBatchPaymentRequestDto requestDto,
+            UriComponentsBuilder uriComponentsBuilder
+    ) {
+        UserPrincipal currentUser = (UserPrincipal) authentication.getPrincipal();
+        return paymentService.createBatchPaymentSession(currentUser.getId(), requestDto,
+                uriComponentsBuilder);
+    }
+
     @GetMapping("/success")
     @Operation(
             summary = "Handle successful payment",
             description = "Public endpoint that Stripe redirects to after a successful payment. "
-                    + "It verifies the payment status with Stripe and updates the internal record."
-                    + "No authentication required."
+                    + "It reports the locally recorded payment status, which is settled by the "
+                    + "Stripe webhook. No authentication required."
     )
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Returns the status of the payment "
                     + "(e.g., SUCCESS, PENDING)"),
             @ApiResponse(responseCode = "404", description = "Payment session with the specified"
-                    + " session_id not found in the database"),
-            @ApiResponse(responseCode = "503",
-                    description = "Service Unavailable: Could not connect to the payment provider")
+                    + " session_id not found in the database")
     })
     public PaymentStatusResponseDto handleSuccessfulPayment(
             @RequestParam("session_id") String sessionId) {
@@ -145,4 +241,22 @@ public class PaymentController {
         return paymentService.handleCancelledPayment(sessionId);
     }
 
+    @PostMapping("/webhook")
+    @Operation(
+            summary = "Receive Stripe webhook events",
+            description = "Public endpoint for signed Stripe events "
+                    + "(checkout.session.completed, async_payment_succeeded and expired). "
+                    + "The event is stored and acknowledged immediately; payments are settled "
+                    + "asynchronously and duplicate deliveries are ignored."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Event accepted"),
+            @ApiResponse(responseCode = "400", description = "Invalid signature or payload")
+    })
+    public void handleStripeWebhook(
+            @RequestBody String payload,
+            @RequestHeader(name = "Stripe-Signature", required = false) String signature) {
+        stripeWebhookService.receive(payload, signature);
+    }
+
 }
@@ -1,8 +1,11 @@
 package com.loievroman.carsharingapp.controller;
 
+import com.loievroman.carsharingapp.dto.page.CursorPageDto;
+import com.loievroman.carsharingapp.dto.page.SliceDto;
 import com.loievroman.carsharingapp.dto.rental.CreateRentalRequestDto;
 import com.loievroman.carsharingapp.dto.rental.RentalDto;
-import com.loievroman.carsharingapp.model.User;
+import com.loievroman.carsharingapp.pagination.CountMode;
+import com.loievroman.carsharingapp.security.UserPrincipal;
 import com.loievroman.carsharingapp.service.RentalService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -47,9 +50,9 @@ public class RentalController {
     })
     public RentalDto createRental(
             @RequestBody @Valid CreateRentalRequestDto requestDto,
-            @AuthenticationPrincipal User currentUser
+            @AuthenticationPrincipal UserPrincipal currentUser
     ) {
-        return rentalService.createRental(requestDto, currentUser);
+        return rentalService.createRental(requestDto, currentUser.getId());
     }
 
     @GetMapping("/my")
@@ -59,7 +62,7 @@ public class RentalController {
                     + "for the currently authenticated user (works for Customers and Managers).")
     @ApiResponse(responseCode = "200", description = "Successfully retrieved own rentals")
     public Page<RentalDto> getMyRentals(
-            @AuthenticationPrincipal User currentUser,
+            @AuthenticationPrincipal UserPrincipal currentUser,
             @RequestParam(defaultValue = "true") boolean isActive,
             Pageable pageable
     ) {
@@ -83,6 +86,48 @@ public class RentalController {
         return rentalService.findAllByStatus(isActive, pageable);
     }
 
+    @GetMapping(params = "cursor")
+    @PreAuthorize("hasRole('MANAGER')")
+    @Operation(summary = "Get all or user-specific rentals by cursor (Admin)",
+            description = "Keyset-paginated variant of the rentals list. Pass an empty `cursor` "
+                    + "for the first page and the returned `nextCursor` for the next one. "
+                    + "Sortable by `id`, `rentalDate` and `returnDate`; no total is computed.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved rentals"),
+            @ApiResponse(responseCode = "400", description = "Invalid cursor or sort property")
+    })
+    public CursorPageDto<RentalDto> getAllRentalsByCursor(
+            @RequestParam(required = false) Long userId,
+            @RequestParam(defaultValue = "true") boolean isActive,
+            @RequestParam String cursor,
+            Pageable pageable
+    ) {
+        if (userId != null) {
+            return rentalService.findByUserIdAndStatus(userId, isActive, cursor, pageable);
+        }
+        return rentalService.findAllByStatus(isActive, cursor, pageable);
+    }
+
+    @GetMapping(params = {"count", "!cursor"})
+    @PreAuthorize("hasRole('MANAGER')")
+    @Operation(summary = "Get all or user-specific rentals with a chosen count mode (Admin)",
+            description = "Offset-paginated variant of the rentals list that lets the client "
+                    + "pick how the total is computed: `EXACT` runs a count query, "
+                    + "`APPROXIMATE` returns a cached estimate and `NONE` only reports "
+                    + "whether a next page exists.")
+    @ApiResponse(responseCode = "200", description = "Successfully retrieved rentals")
+    public SliceDto<RentalDto> getAllRentalsWithCountMode(
+            @RequestParam(required = false) Long userId,
+            @RequestParam(defaultValue = "true") boolean isActive,
+            @RequestParam CountMode count,
+            Pageable pageable
+    ) {
+        if (userId != null) {
+            return rentalService.findByUserIdAndStatus(userId, isActive, pageable, count);
+        }
+        return rentalService.findAllByStatus(isActive, pageable, count);
+    }
+
     @GetMapping("/my/{id}")
     @PreAuthorize("hasRole('CUSTOMER')")
     @Operation(summary = "Get my specific rental by ID",
@@ -97,7 +142,7 @@ public class RentalController {
     })
     public RentalDto getMyRentalById(
             @PathVariable Long id,
-            @AuthenticationPrincipal User currentUser
+            @AuthenticationPrincipal UserPrincipal currentUser
     ) {
         return rentalService.findMyRentalById(id, currentUser.getId());
     }
@@ -3,7 +3,7 @@ package com.loievroman.carsharingapp.controller;
 import com.loievroman.carsharingapp.dto.user.UserProfileResponseDto;
 import com.loievroman.carsharingapp.dto.user.UserProfileUpdateRequestDto;
 import com.loievroman.carsharingapp.dto.user.UserRoleUpdateRequestDto;
-import com.loievroman.carsharingapp.model.User;
+import com.loievroman.carsharingapp.security.UserPrincipal;
 import com.loievroman.carsharingapp.service.UserService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -56,8 +56,9 @@ public class UserController {
             description = "Retrieves the profile information for the currently authenticated user."
     )
     @ApiResponse(responseCode = "200", description = "Successfully retrieved profile information")
-    public UserProfileResponseDto getMyProfile(@AuthenticationPrincipal User currentUser) {
-        return userService.getMyProfile(currentUser);
+    public UserProfileResponseDto getMyProfile(
+            @AuthenticationPrincipal UserPrincipal currentUser) {
+        return userService.getMyProfile(currentUser.getId());
     }
 
     @PatchMapping("/me")
@@ -69,10 +70,10 @@ public class UserController {
             @ApiResponse(responseCode = "400", description = "Invalid data provided for update")
     })
     public UserProfileResponseDto updateMyProfile(
-            @AuthenticationPrincipal User currentUser,
+            @AuthenticationPrincipal UserPrincipal currentUser,
             @RequestBody @Valid UserProfileUpdateRequestDto requestDto
     ) {
-        return userService.updateMyProfile(currentUser, requestDto);
+        return userService.updateMyProfile(currentUser.getId(), requestDto);
     }
 
 }
@@ -0,0 +1,24 @@
+package com.loievroman.carsharingapp.dto.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+public record CacheStatsDto(long size,
+                            long hitCount,
+                            long missCount,
+                            double hitRate,
+                            long evictionCount,
+                            double averageLoadPenaltyMillis) {
+
+    public static CacheStatsDto of(Cache<?, ?> cache) {
+        CacheStats stats = cache.stats();
+        return new CacheStatsDto(
+                cache.estimatedSize(),
+                stats.hitCount(),
+                stats.missCount(),
+                stats.hitRate(),
+                stats.evictionCount(),
+                stats.averageLoadPenalty() / 1_000_000
+        );
+    }
+}
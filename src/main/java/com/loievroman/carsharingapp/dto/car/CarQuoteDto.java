@@ -0,0 +1,19 @@
+package com.loievroman.carsharingapp.dto.car;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.experimental.Accessors;
+
+@Getter
+@Setter
+@Accessors(chain = true)
+public class CarQuoteDto {
+    private Long carId;
+    private LocalDate rentalDate;
+    private LocalDate returnDate;
+    private long days;
+    private BigDecimal dailyFee;
+    private BigDecimal total;
+}
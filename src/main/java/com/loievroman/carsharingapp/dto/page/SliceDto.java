@@ -0,0 +1,44 @@
+package com.loievroman.carsharingapp.dto.page;
+
+import com.loievroman.carsharingapp.pagination.CountMode;
+import java.util.List;
+import java.util.function.LongSupplier;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
+
+@Getter
+@RequiredArgsConstructor
+public class SliceDto<T> {
+    private final List<T> content;
+    private final int number;
+    private final int size;
+    private final boolean hasNext;
+    private final Long totalElements;
+    private final boolean totalApproximate;
+
+    public static <T> SliceDto<T> of(Page<T> page) {
+        return new SliceDto<>(page.getContent(), page.getNumber(), page.getSize(),
+                page.hasNext(), page.getTotalElements(), false);
+    }
+
+    public static <T> SliceDto<T> of(Slice<T> slice,
+                                     CountMode countMode,
+                                     LongSupplier approximateTotal) {
+        long seen = slice.getPageable().isPaged()
+                ? slice.getPageable().getOffset() + slice.getNumberOfElements()
+                : slice.getNumberOfElements();
+        if (!slice.hasNext()) {
+            return new SliceDto<>(slice.getContent(), slice.getNumber(), slice.getSize(),
+                    false, seen, false);
+        }
+        if (countMode != CountMode.APPROXIMATE) {
+            return new SliceDto<>(slice.getContent(), slice.getNumber(), slice.getSize(),
+                    true, null, false);
+        }
+        long total = Math.max(approximateTotal.getAsLong(), seen + 1);
+        return new SliceDto<>(slice.getContent(), slice.getNumber(), slice.getSize(),
+                true, total, true);
+    }
+}
@@ -0,0 +1,16 @@
+package com.loievroman.carsharingapp.dto.payment;
+
+import java.math.BigDecimal;
+import java.util.List;
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class BatchPaymentResponseDto {
+    private String sessionUrl;
+    private String sessionId;
+    private String status;
+    private BigDecimal amountToPay;
+    private List<Long> paymentIds;
+}
@@ -0,0 +1,19 @@
+package com.loievroman.carsharingapp.dto.payment;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import java.util.List;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+public class CreateBatchPaymentRequestDto {
+
+    @NotEmpty
+    @Size(max = 20)
+    private List<@Valid CreatePaymentRequestDto> items;
+}
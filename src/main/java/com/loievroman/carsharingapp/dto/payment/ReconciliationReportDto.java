@@ -0,0 +1,17 @@
+package com.loievroman.carsharingapp.dto.payment;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+
+public record ReconciliationReportDto(LocalDateTime finishedAt,
+                                      Instant windowStart,
+                                      Instant windowEnd,
+                                      boolean windowCompleted,
+                                      int pages,
+                                      long scanned,
+                                      long matched,
+                                      long unknown,
+                                      long correctedToPaid,
+                                      long correctedToExpired,
+                                      long conflicts) {
+}
@@ -0,0 +1,4 @@
+package com.loievroman.carsharingapp.event;
+
+public record CarInventoryChangedEvent(Long carId, int delta) {
+}
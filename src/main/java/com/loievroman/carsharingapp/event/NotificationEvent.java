@@ -0,0 +1,5 @@
+package com.loievroman.carsharingapp.event;
+
+public sealed interface NotificationEvent
+        permits RentalCreatedEvent, RentalReturnedEvent, PaymentConfirmedEvent {
+}
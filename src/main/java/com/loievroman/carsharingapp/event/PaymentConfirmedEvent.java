@@ -0,0 +1,25 @@
+package com.loievroman.carsharingapp.event;
+
+import com.loievroman.carsharingapp.model.Payment;
+import com.loievroman.carsharingapp.model.PaymentType;
+import java.math.BigDecimal;
+
+public record PaymentConfirmedEvent(Long paymentId,
+                                    PaymentType type,
+                                    BigDecimal amountToPay,
+                                    Long rentalId,
+                                    String firstName,
+                                    String lastName,
+                                    String carBrand,
+                                    String carModel) implements NotificationEvent {
+    public static PaymentConfirmedEvent from(Payment payment) {
+        return new PaymentConfirmedEvent(payment.getId(),
+                payment.getType(),
+                payment.getAmountToPay(),
+                payment.getRental().getId(),
+                payment.getRental().getUser().getFirstName(),
+                payment.getRental().getUser().getLastName(),
+                payment.getRental().getCar().getBrand(),
+                payment.getRental().getCar().getModel());
+    }
+}
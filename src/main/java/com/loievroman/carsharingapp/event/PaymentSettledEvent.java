@@ -0,0 +1,6 @@
+package com.loievroman.carsharingapp.event;
+
+import com.loievroman.carsharingapp.model.PaymentStatus;
+
+public record PaymentSettledEvent(String sessionId, PaymentStatus status) {
+}
@@ -0,0 +1,20 @@
+package com.loievroman.carsharingapp.event;
+
+import com.loievroman.carsharingapp.model.Rental;
+import java.time.LocalDate;
+
+public record RentalCreatedEvent(Long rentalId,
+                                 String firstName,
+                                 String lastName,
+                                 String carBrand,
+                                 String carModel,
+                                 LocalDate returnDate) implements NotificationEvent {
+    public static RentalCreatedEvent from(Rental rental) {
+        return new RentalCreatedEvent(rental.getId(),
+                rental.getUser().getFirstName(),
+                rental.getUser().getLastName(),
+                rental.getCar().getBrand(),
+                rental.getCar().getModel(),
+                rental.getReturnDate());
+    }
+}
@@ -0,0 +1,22 @@
+package com.loievroman.carsharingapp.event;
+
+import com.loievroman.carsharingapp.model.Rental;
+import java.time.LocalDate;
+
+public record RentalReturnedEvent(Long rentalId,
+                                  String firstName,
+                                  String lastName,
+                                  String carBrand,
+                                  String carModel,
+                                  LocalDate returnDate,
+                                  LocalDate actualReturnDate) implements NotificationEvent {
+    public static RentalReturnedEvent from(Rental rental) {
+        return new RentalReturnedEvent(rental.getId(),
+                rental.getUser().getFirstName(),
+                rental.getUser().getLastName(),
+                rental.getCar().getBrand(),
+                rental.getCar().getModel(),
+                rental.getReturnDate(),
+                rental.getActualReturnDate());
+    }
+}
@@ -0,0 +1,6 @@
+package com.loievroman.carsharingapp.event;
+
+import java.util.Set;
+
+public record UserAccountChangedEvent(Long userId, Set<String> emails) {
+}
@@ -4,6 +4,7 @@ import java.time.LocalDateTime;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.FieldError;
@@ -89,6 +90,16 @@ public class CustomGlobalExceptionHandler {
         );
     }
 
+    @ExceptionHandler(PaymentInProgressException.class)
+    public ResponseEntity<String> handlePaymentInProgressExceptions(
+            PaymentInProgressException ex
+    ) {
+        return new ResponseEntity<>(
+                ex.getMessage(),
+                HttpStatus.CONFLICT
+        );
+    }
+
     @ExceptionHandler(NoFineRequiredException.class)
     public ResponseEntity<String> handleNoFineRequiredExceptions(
             NoFineRequiredException ex
@@ -109,6 +120,46 @@ public class CustomGlobalExceptionHandler {
         );
     }
 
+    @ExceptionHandler(InvalidCursorException.class)
+    public ResponseEntity<String> handleInvalidCursorExceptions(
+            InvalidCursorException ex
+    ) {
+        return new ResponseEntity<>(
+                ex.getMessage(),
+                HttpStatus.BAD_REQUEST
+        );
+    }
+
+    @ExceptionHandler(InvalidWebhookException.class)
+    public ResponseEntity<String> handleInvalidWebhookExceptions(
+            InvalidWebhookException ex
+    ) {
+        return new ResponseEntity<>(
+                ex.getMessage(),
+                HttpStatus.BAD_REQUEST
+        );
+    }
+
+    @ExceptionHandler(InvalidRentalPeriodException.class)
+    public ResponseEntity<String> handleInvalidRentalPeriodExceptions(
+            InvalidRentalPeriodException ex
+    ) {
+        return new ResponseEntity<>(
+                ex.getMessage(),
+                HttpStatus.BAD_REQUEST
+        );
+    }
+
+    @ExceptionHandler(PaymentGatewayUnavailableException.class)
+    public ResponseEntity<String> handlePaymentGatewayUnavailableExceptions(
+            PaymentGatewayUnavailableException ex
+    ) {
+        long retryAfterSeconds = Math.max(1, ex.getRetryAfter().toSeconds());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds))
+                .body(ex.getMessage());
+    }
+
     private String getErrorMessage(ObjectError objectError) {
         if (objectError instanceof FieldError fieldError) {
             return fieldError.getField()
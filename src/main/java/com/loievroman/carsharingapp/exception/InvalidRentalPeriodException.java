@@ -0,0 +1,7 @@
+package com.loievroman.carsharingapp.exception;
+
+public class InvalidRentalPeriodException extends RuntimeException {
+    public InvalidRentalPeriodException(String message) {
+        super(message);
+    }
+}
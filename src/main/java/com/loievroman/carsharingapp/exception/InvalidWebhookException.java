@@ -0,0 +1,11 @@
+package com.loievroman.carsharingapp.exception;
+
+public class InvalidWebhookException extends RuntimeException {
+    public InvalidWebhookException(String message) {
+        super(message);
+    }
+
+    public InvalidWebhookException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
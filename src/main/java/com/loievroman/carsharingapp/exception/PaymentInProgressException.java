@@ -0,0 +1,7 @@
+package com.loievroman.carsharingapp.exception;
+
+public class PaymentInProgressException extends RuntimeException {
+    public PaymentInProgressException(String message) {
+        super(message);
+    }
+}
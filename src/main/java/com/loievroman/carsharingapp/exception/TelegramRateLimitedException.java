@@ -0,0 +1,19 @@
+package com.loievroman.carsharingapp.exception;
+
+import java.time.Duration;
+import lombok.Getter;
+
+@Getter
+public class TelegramRateLimitedException extends TelegramNotificationException {
+    private final Duration retryAfter;
+
+    public TelegramRateLimitedException(String message, Duration retryAfter) {
+        super(message);
+        this.retryAfter = retryAfter;
+    }
+
+    public TelegramRateLimitedException(String message, Duration retryAfter, Throwable cause) {
+        super(message, cause);
+        this.retryAfter = retryAfter;
+    }
+}
@@ -0,0 +1,7 @@
+package com.loievroman.carsharingapp.exception;
+
+public class TransientPaymentException extends PaymentException {
+    public TransientPaymentException(String message) {
+        super(message);
+    }
+}
@@ -22,4 +22,7 @@ public interface CarMapper {
     @Mapping(target = "deleted", ignore = true)
     Car updateEntity(CreateCarRequestDto createCarRequestDto, @MappingTarget Car car);
 
+    @Mapping(target = "inventory", source = "inventory")
+    CarDto withInventory(CarDto carDto, Integer inventory);
+
 }
@@ -20,6 +20,7 @@ public interface UserMapper {
     @org.mapstruct.Mapping(target = "deleted", ignore = true)
     @org.mapstruct.Mapping(target = "roles", ignore = true)
     @org.mapstruct.Mapping(target = "authorities", ignore = true)
+    @org.mapstruct.Mapping(target = "tokenVersion", ignore = true)
     User toEntity(UserRegistrationRequestDto userRegistrationRequestDto);
 
     @Mapping(target = "roles", source = "roles", qualifiedByName = "rolesToRoleNames")
@@ -0,0 +1,7 @@
+package com.loievroman.carsharingapp.model;
+
+public enum NotificationOutboxStatus {
+    PENDING,
+    DELIVERED,
+    FAILED
+}
@@ -12,6 +12,7 @@ import jakarta.persistence.OneToOne;
 import jakarta.persistence.Table;
 import jakarta.persistence.UniqueConstraint;
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import lombok.Getter;
 import lombok.Setter;
 
@@ -47,4 +48,6 @@ public class Payment {
     @Column(name = "amount_to_pay", nullable = false)
     private BigDecimal amountToPay;
 
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
 }
@@ -3,4 +3,5 @@ package com.loievroman.carsharingapp.model;
 public enum PaymentStatus {
     PENDING,
     PAID,
+    EXPIRED,
 }
@@ -0,0 +1,30 @@
+package com.loievroman.carsharingapp.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import java.time.LocalDateTime;
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+@Entity
+@Table(name = "reconciliation_cursors")
+public class ReconciliationCursor {
+    @Id
+    private String name;
+
+    @Column(name = "window_start", nullable = false)
+    private long windowStart;
+
+    @Column(name = "window_end", nullable = false)
+    private long windowEnd;
+
+    @Column(name = "starting_after")
+    private String startingAfter;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
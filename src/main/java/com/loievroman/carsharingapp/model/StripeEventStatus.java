@@ -0,0 +1,6 @@
+package com.loievroman.carsharingapp.model;
+
+public enum StripeEventStatus {
+    RECEIVED,
+    PROCESSED
+}
@@ -1,7 +1,10 @@
 package com.loievroman.carsharingapp.model;
 
+import com.loievroman.carsharingapp.security.UserEntityListener;
+import com.loievroman.carsharingapp.security.UserPrincipal;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
@@ -21,13 +24,14 @@ import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 
 @Entity
+@EntityListeners(UserEntityListener.class)
 @Getter
 @Setter
 @SQLDelete(sql = "UPDATE users SET is_deleted = true WHERE id=?")
 @SQLRestriction("is_deleted = false")
 @NoArgsConstructor
 @Table(name = "users")
-public class User implements UserDetails {
+public class User implements UserDetails, UserPrincipal {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -41,6 +45,8 @@ public class User implements UserDetails {
     private String password;
     @Column(nullable = false, columnDefinition = "TINYINT")
     private boolean isDeleted = false;
+    @Column(nullable = false)
+    private int tokenVersion;
 
     @ManyToMany
     @JoinTable(
@@ -0,0 +1,7 @@
+package com.loievroman.carsharingapp.pagination;
+
+public enum CountMode {
+    EXACT,
+    APPROXIMATE,
+    NONE
+}
@@ -0,0 +1,132 @@
+package com.loievroman.carsharingapp.pagination;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.loievroman.carsharingapp.dto.page.CursorPageDto;
+import com.loievroman.carsharingapp.exception.InvalidCursorException;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+@Component
+@RequiredArgsConstructor
+public class KeysetCursorCodec {
+    private static final String ID_PROPERTY = "id";
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private final ObjectMapper objectMapper;
+
+    public KeysetQuery decode(String cursor,
+                              Pageable pageable,
+                              Map<String, Class<?>> sortableProperties) {
+        Limit limit = Limit.of(pageable.getPageSize());
+        if (!StringUtils.hasText(cursor)) {
+            Sort sort = withIdTiebreaker(pageable.getSort(), sortableProperties);
+            return new KeysetQuery(ScrollPosition.keyset(), sort, limit);
+        }
+
+        CursorToken token = read(cursor);
+        Sort sort = withIdTiebreaker(toSort(token.sort()), sortableProperties);
+        Map<String, Object> keys = new LinkedHashMap<>();
+        for (Sort.Order order : sort) {
+            Object value = token.keys().get(order.getProperty());
+            if (value == null) {
+                throw new InvalidCursorException("Cursor is missing key: " + order.getProperty());
+            }
+            keys.put(order.getProperty(), objectMapper.convertValue(value,
+                    sortableProperties.get(order.getProperty())));
+        }
+        return new KeysetQuery(ScrollPosition.forward(keys), sort, limit);
+    }
+
+    public <T, R> CursorPageDto<R> toPage(Window<T> window,
+                                          KeysetQuery query,
+                                          Function<T, R> mapper) {
+        List<R> content = window.map(mapper).getContent();
+        String nextCursor = null;
+        if (window.hasNext() && !window.isEmpty()) {
+            KeysetScrollPosition last =
+                    (KeysetScrollPosition) window.positionAt(window.size() - 1);
+            nextCursor = write(query.sort(), last.getKeys());
+        }
+        return new CursorPageDto<>(content, content.size(), window.hasNext(), nextCursor);
+    }
+
+    private Sort withIdTiebreaker(Sort sort, Map<String, Class<?>> sortableProperties) {
+        List<Sort.Order> orders = new ArrayList<>();
+        Sort.Direction lastDirection = Sort.Direction.ASC;
+        for (Sort.Order order : sort) {
+            if (!sortableProperties.containsKey(order.getProperty())) {
+                throw new InvalidCursorException(
+                        "Sorting by '" + order.getProperty()
+                                + "' is not supported with cursor pagination");
+            }
+            orders.add(order);
+            lastDirection = order.getDirection();
+        }
+        if (sort.getOrderFor(ID_PROPERTY) == null) {
+            orders.add(new Sort.Order(lastDirection, ID_PROPERTY));
+        }
+        return Sort.by(orders);
+    }
+
+    private Sort toSort(List<String> orders) {
+        List<Sort.Order> sortOrders = new ArrayList<>();
+        for (String order : orders) {
+            String[] parts = order.split(",");
+            if (parts.length != 2) {
+                throw new InvalidCursorException("Cursor is malformed");
+            }
+            sortOrders.add(new Sort.Order(toDirection(parts[1]), parts[0]));
+        }
+        return Sort.by(sortOrders);
+    }
+
+    private Sort.Direction toDirection(String direction) {
+        try {
+            return Sort.Direction.fromString(direction);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidCursorException("Cursor is malformed", e);
+        }
+    }
+
+    private String write(Sort sort, Map<String, ?> keys) {
+        List<String> orders = sort.stream()
+                .map(order -> order.getProperty() + "," + order.getDirection())
+                .toList();
+        CursorToken token = new CursorToken(orders, new LinkedHashMap<>(keys));
+        try {
+            return ENCODER.encodeToString(objectMapper.writeValueAsBytes(token));
+        } catch (IOException e) {
+            throw new IllegalStateException("Can't encode cursor", e);
+        }
+    }
+
+    private CursorToken read(String cursor) {
+        try {
+            CursorToken token = objectMapper.readValue(DECODER.decode(cursor), CursorToken.class);
+            if (token.sort() == null || token.keys() == null) {
+                throw new InvalidCursorException("Cursor is malformed");
+            }
+            return token;
+        } catch (IOException | IllegalArgumentException e) {
+            throw new InvalidCursorException("Cursor is malformed", e);
+        }
+    }
+
+    private record CursorToken(List<String> sort, Map<String, Object> keys) {
+    }
+}
@@ -0,0 +1,8 @@
+package com.loievroman.carsharingapp.pagination;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+
+public record KeysetQuery(ScrollPosition position, Sort sort, Limit limit) {
+}
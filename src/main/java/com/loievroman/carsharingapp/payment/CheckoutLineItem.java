@@ -0,0 +1,4 @@
+package com.loievroman.carsharingapp.payment;
+
+public record CheckoutLineItem(String productName, long amountInCents) {
+}
@@ -0,0 +1,19 @@
+package com.loievroman.carsharingapp.payment;
+
+import java.util.List;
+
+public record CheckoutRequest(
+        List<CheckoutLineItem> lineItems,
+        String successUrl,
+        String cancelUrl,
+        String idempotencyKey
+) {
+    public CheckoutRequest(String productName,
+                           long amountInCents,
+                           String successUrl,
+                           String cancelUrl,
+                           String idempotencyKey) {
+        this(List.of(new CheckoutLineItem(productName, amountInCents)),
+                successUrl, cancelUrl, idempotencyKey);
+    }
+}
@@ -0,0 +1,4 @@
+package com.loievroman.carsharingapp.payment;
+
+public record CheckoutSession(String id, String url) {
+}
@@ -0,0 +1,6 @@
+package com.loievroman.carsharingapp.payment;
+
+import java.util.List;
+
+public record CheckoutSessionPage(List<CheckoutSessionSummary> sessions, boolean hasMore) {
+}
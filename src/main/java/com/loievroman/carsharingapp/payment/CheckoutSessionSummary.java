@@ -0,0 +1,19 @@
+package com.loievroman.carsharingapp.payment;
+
+public record CheckoutSessionSummary(
+        String id,
+        String status,
+        String paymentStatus,
+        long createdEpochSecond
+) {
+    private static final String STATUS_EXPIRED = "expired";
+    private static final String PAYMENT_STATUS_PAID = "paid";
+
+    public boolean isPaid() {
+        return PAYMENT_STATUS_PAID.equals(paymentStatus);
+    }
+
+    public boolean isExpired() {
+        return STATUS_EXPIRED.equals(status);
+    }
+}
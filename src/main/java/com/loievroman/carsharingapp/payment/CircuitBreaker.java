@@ -0,0 +1,136 @@
+package com.loievroman.carsharingapp.payment;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+class CircuitBreaker {
+    private final int minimumCalls;
+    private final int failureRateThreshold;
+    private final long openDurationNanos;
+    private final LongSupplier nanoClock;
+    private final boolean[] window;
+    private int position;
+    private int recorded;
+    private int failures;
+    private State state = State.CLOSED;
+    private long openedAt;
+    private long openNanosTotal;
+    private boolean trialInFlight;
+
+    CircuitBreaker(String name,
+                   int slidingWindow,
+                   int minimumCalls,
+                   int failureRateThreshold,
+                   Duration openDuration,
+                   MeterRegistry meterRegistry,
+                   LongSupplier nanoClock) {
+        this.window = new boolean[slidingWindow];
+        this.minimumCalls = minimumCalls;
+        this.failureRateThreshold = failureRateThreshold;
+        this.openDurationNanos = openDuration.toNanos();
+        this.nanoClock = nanoClock;
+        Gauge.builder(name + ".circuit.state", this, breaker -> breaker.getState().ordinal())
+                .description("0 = closed, 1 = open, 2 = half-open")
+                .register(meterRegistry);
+        FunctionCounter.builder(name + ".circuit.open-time", this,
+                        breaker -> breaker.openNanos() / (double) TimeUnit.SECONDS.toNanos(1))
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    synchronized boolean tryAcquire() {
+        if (state == State.CLOSED) {
+            return true;
+        }
+        if (state == State.OPEN && nanoClock.getAsLong() - openedAt >= openDurationNanos) {
+            state = State.HALF_OPEN;
+        }
+        if (state == State.HALF_OPEN && !trialInFlight) {
+            trialInFlight = true;
+            return true;
+        }
+        return false;
+    }
+
+    synchronized void onSuccess() {
+        if (state == State.HALF_OPEN) {
+            close();
+            return;
+        }
+        record(false);
+    }
+
+    synchronized void onFailure() {
+        if (state == State.HALF_OPEN) {
+            trialInFlight = false;
+            state = State.OPEN;
+            openNanosTotal += nanoClock.getAsLong() - openedAt;
+            openedAt = nanoClock.getAsLong();
+            return;
+        }
+        record(true);
+        if (state == State.CLOSED && recorded >= minimumCalls
+                && failures * 100 >= failureRateThreshold * recorded) {
+            state = State.OPEN;
+            openedAt = nanoClock.getAsLong();
+        }
+    }
+
+    synchronized void onAbandoned() {
+        if (state == State.HALF_OPEN) {
+            trialInFlight = false;
+        }
+    }
+
+    synchronized State getState() {
+        return state;
+    }
+
+    synchronized Duration retryAfter() {
+        if (state == State.CLOSED) {
+            return Duration.ZERO;
+        }
+        long remaining = openDurationNanos - (nanoClock.getAsLong() - openedAt);
+        return Duration.ofNanos(Math.max(0, remaining));
+    }
+
+    private synchronized long openNanos() {
+        return state == State.CLOSED
+                ? openNanosTotal
+                : openNanosTotal + nanoClock.getAsLong() - openedAt;
+    }
+
+    private void record(boolean failure) {
+        if (recorded == window.length) {
+            if (window[position]) {
+                failures--;
+            }
+        } else {
+            recorded++;
+        }
+        window[position] = failure;
+        if (failure) {
+            failures++;
+        }
+        position = (position + 1) % window.length;
+    }
+
+    private void close() {
+        openNanosTotal += nanoClock.getAsLong() - openedAt;
+        state = State.CLOSED;
+        trialInFlight = false;
+        position = 0;
+        recorded = 0;
+        failures = 0;
+    }
+
+    enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+}
@@ -0,0 +1,12 @@
+package com.loievroman.carsharingapp.payment;
+
+public interface PaymentGateway {
+    String REMOTE = "remotePaymentGateway";
+
+    CheckoutSession createCheckoutSession(CheckoutRequest request);
+
+    boolean expireCheckoutSession(String sessionId);
+
+    CheckoutSessionPage listCheckoutSessions(long createdFrom, long createdBefore,
+                                             String startingAfter, int limit);
+}
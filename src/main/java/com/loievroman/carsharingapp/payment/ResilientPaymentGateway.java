@@ -0,0 +1,171 @@
+package com.loievroman.carsharingapp.payment;
+
+import com.loievroman.carsharingapp.exception.PaymentException;
+import com.loievroman.carsharingapp.exception.PaymentGatewayUnavailableException;
+import com.loievroman.carsharingapp.exception.TransientPaymentException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Primary;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+@Primary
+@Component
+public class ResilientPaymentGateway implements PaymentGateway {
+    private static final String METRIC_PREFIX = "payment.gateway";
+
+    private final PaymentGateway delegate;
+    private final ExecutorService workers;
+    private final CircuitBreaker circuitBreaker;
+    private final Duration callTimeout;
+    private final Timer succeeded;
+    private final Timer failed;
+    private final Timer declined;
+    private final Timer timedOut;
+    private final Counter circuitOpenRejections;
+    private final Counter bulkheadRejections;
+
+    public ResilientPaymentGateway(
+            @Qualifier(PaymentGateway.REMOTE) PaymentGateway delegate,
+            MeterRegistry meterRegistry,
+            @Value("${payment.gateway.workers}") int workerCount,
+            @Value("${payment.gateway.queue-capacity}") int queueCapacity,
+            @Value("${payment.gateway.call-timeout}") Duration callTimeout,
+            @Value("${payment.gateway.circuit.sliding-window}") int slidingWindow,
+            @Value("${payment.gateway.circuit.minimum-calls}") int minimumCalls,
+            @Value("${payment.gateway.circuit.failure-rate-threshold}") int failureRateThreshold,
+            @Value("${payment.gateway.circuit.open-duration}") Duration openDuration) {
+        this(delegate,
+                ExecutorServiceMetrics.monitor(meterRegistry,
+                        new ThreadPoolExecutor(workerCount, workerCount, 0, TimeUnit.MILLISECONDS,
+                                new ArrayBlockingQueue<>(queueCapacity),
+                                new CustomizableThreadFactory("payment-gateway-")),
+                        METRIC_PREFIX + ".workers"),
+                new CircuitBreaker(METRIC_PREFIX, slidingWindow, minimumCalls,
+                        failureRateThreshold, openDuration, meterRegistry, System::nanoTime),
+                meterRegistry, callTimeout);
+    }
+
+    ResilientPaymentGateway(PaymentGateway delegate,
+                            ExecutorService workers,
+                            CircuitBreaker circuitBreaker,
+                            MeterRegistry meterRegistry,
+                            Duration callTimeout) {
+        this.delegate = delegate;
+        this.workers = workers;
+        this.circuitBreaker = circuitBreaker;
+        this.callTimeout = callTimeout;
+        this.succeeded = callTimer(meterRegistry, "success");
+        this.failed = callTimer(meterRegistry, "failure");
+        this.declined = callTimer(meterRegistry, "declined");
+        this.timedOut = callTimer(meterRegistry, "timeout");
+        this.circuitOpenRejections = meterRegistry.counter(METRIC_PREFIX + ".rejected",
+                "reason", "circuit-open");
+        this.bulkheadRejections = meterRegistry.counter(METRIC_PREFIX + ".rejected",
+                "reason", "bulkhead-full");
+    }
+
+    @Override
+    public CheckoutSession createCheckoutSession(CheckoutRequest request) {
+        return call(() -> delegate.createCheckoutSession(request));
+    }
+
+    @Override
+    public boolean expireCheckoutSession(String sessionId) {
+        return call(() -> delegate.expireCheckoutSession(sessionId));
+    }
+
+    @Override
+    public CheckoutSessionPage listCheckoutSessions(long createdFrom, long createdBefore,
+                                                    String startingAfter, int limit) {
+        return call(() -> delegate.listCheckoutSessions(
+                createdFrom, createdBefore, startingAfter, limit));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdownNow();
+    }
+
+    private <T> T call(Callable<T> operation) {
+        if (!circuitBreaker.tryAcquire()) {
+            circuitOpenRejections.increment();
+            throw new PaymentGatewayUnavailableException(
+                    "Payment provider is unavailable, please retry later",
+                    circuitBreaker.retryAfter());
+        }
+
+        Future<T> call;
+        try {
+            call = workers.submit(operation);
+        } catch (RejectedExecutionException e) {
+            circuitBreaker.onAbandoned();
+            bulkheadRejections.increment();
+            throw new PaymentGatewayUnavailableException(
+                    "Payment provider is busy, please retry later", callTimeout);
+        }
+
+        final long startedAt = System.nanoTime();
+        try {
+            T result = call.get(callTimeout.toNanos(), TimeUnit.NANOSECONDS);
+            circuitBreaker.onSuccess();
+            succeeded.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+            return result;
+        } catch (TimeoutException e) {
+            call.cancel(true);
+            circuitBreaker.onFailure();
+            timedOut.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+            throw new PaymentGatewayUnavailableException(
+                    "Payment provider did not respond in time, please retry later",
+                    circuitBreaker.retryAfter());
+        } catch (ExecutionException e) {
+            if (isProviderFailure(e.getCause())) {
+                circuitBreaker.onFailure();
+                failed.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+            } else {
+                circuitBreaker.onSuccess();
+                declined.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+            }
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new PaymentException("Payment provider call failed");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            call.cancel(true);
+            circuitBreaker.onAbandoned();
+            throw new PaymentException("Interrupted while waiting for the payment provider");
+        }
+    }
+
+    private boolean isProviderFailure(Throwable cause) {
+        return cause instanceof TransientPaymentException
+                || cause instanceof IOException
+                || cause instanceof UncheckedIOException;
+    }
+
+    private Timer callTimer(MeterRegistry meterRegistry, String outcome) {
+        return Timer.builder(METRIC_PREFIX + ".calls")
+                .tag("outcome", outcome)
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,232 @@
+package com.loievroman.carsharingapp.payment;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.loievroman.carsharingapp.exception.PaymentException;
+import com.loievroman.carsharingapp.exception.TransientPaymentException;
+import com.loievroman.carsharingapp.service.StripeEventProcessor;
+import com.loievroman.carsharingapp.service.StripeWebhookService;
+import com.stripe.Stripe;
+import com.stripe.net.Webhook;
+import jakarta.annotation.PreDestroy;
+import java.security.GeneralSecurityException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+@Component
+@Profile("payment-simulator")
+@Qualifier(PaymentGateway.REMOTE)
+public class SimulatedPaymentGateway implements PaymentGateway {
+    private static final double Z_99 = 2.326;
+    private static final String CHECKOUT_URL = "https://checkout.simulator.local/pay/";
+    private static final Comparator<CheckoutSessionSummary> NEWEST_FIRST = Comparator
+            .comparingLong(CheckoutSessionSummary::createdEpochSecond)
+            .thenComparing(CheckoutSessionSummary::id)
+            .reversed();
+
+    private final StripeWebhookService stripeWebhookService;
+    private final String webhookSecret;
+    private final double latencyMu;
+    private final double latencySigma;
+    private final double errorRate;
+    private final double completionRate;
+    private final double duplicateWebhookRate;
+    private final Duration webhookDelay;
+    private final Cache<String, CheckoutSession> sessionsByIdempotencyKey;
+    private final Cache<String, SimulatedSession> sessions;
+    private final ScheduledExecutorService webhooks;
+
+    public SimulatedPaymentGateway(
+            StripeWebhookService stripeWebhookService,
+            @Value("${stripe.webhook.secret}") String webhookSecret,
+            @Value("${payment.simulator.latency.median}") Duration latencyMedian,
+            @Value("${payment.simulator.latency.p99}") Duration latencyP99,
+            @Value("${payment.simulator.error-rate}") double errorRate,
+            @Value("${payment.simulator.completion-rate}") double completionRate,
+            @Value("${payment.simulator.duplicate-webhook-rate}") double duplicateWebhookRate,
+            @Value("${payment.simulator.webhook-delay}") Duration webhookDelay) {
+        this.stripeWebhookService = stripeWebhookService;
+        this.webhookSecret = webhookSecret;
+        this.latencyMu = Math.log(Math.max(1, latencyMedian.toMillis()));
+        this.latencySigma = latencyP99.compareTo(latencyMedian) > 0
+                ? Math.log((double) latencyP99.toMillis() / Math.max(1, latencyMedian.toMillis()))
+                        / Z_99
+                : 0;
+        this.errorRate = errorRate;
+        this.completionRate = completionRate;
+        this.duplicateWebhookRate = duplicateWebhookRate;
+        this.webhookDelay = webhookDelay;
+        this.sessionsByIdempotencyKey = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofHours(24))
+                .build();
+        this.sessions = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofHours(24))
+                .build();
+        this.webhooks = Executors.newSingleThreadScheduledExecutor(
+                new CustomizableThreadFactory("payment-simulator-"));
+    }
+
+    @Override
+    public CheckoutSession createCheckoutSession(CheckoutRequest request) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        sleep(sampleLatencyMillis(random));
+        if (random.nextDouble() < errorRate) {
+            throw new TransientPaymentException("Can't create Stripe payment session");
+        }
+        return sessionsByIdempotencyKey.get(request.idempotencyKey(), key -> openSession());
+    }
+
+    @Override
+    public boolean expireCheckoutSession(String sessionId) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        sleep(sampleLatencyMillis(random));
+        if (random.nextDouble() < errorRate) {
+            throw new TransientPaymentException("Can't expire Stripe payment session");
+        }
+        if (transition(sessionId, SessionState.OPEN, SessionState.EXPIRED)) {
+            String payload = webhookPayload(sessionId, false);
+            webhooks.schedule(() -> deliver(payload),
+                    webhookDelay.toMillis(), TimeUnit.MILLISECONDS);
+        }
+        SimulatedSession session = sessions.getIfPresent(sessionId);
+        return session == null || session.state() != SessionState.PAID;
+    }
+
+    @Override
+    public CheckoutSessionPage listCheckoutSessions(long createdFrom, long createdBefore,
+                                                    String startingAfter, int limit) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        sleep(sampleLatencyMillis(random));
+        if (random.nextDouble() < errorRate) {
+            throw new TransientPaymentException("Can't list Stripe payment sessions");
+        }
+        List<CheckoutSessionSummary> window = sessions.asMap().entrySet().stream()
+                .filter(entry -> entry.getValue().created() >= createdFrom
+                        && entry.getValue().created() < createdBefore)
+                .map(entry -> entry.getValue().toSummary(entry.getKey()))
+                .sorted(NEWEST_FIRST)
+                .toList();
+        int from = 0;
+        if (startingAfter != null) {
+            for (int i = 0; i < window.size(); i++) {
+                if (window.get(i).id().equals(startingAfter)) {
+                    from = i + 1;
+                    break;
+                }
+            }
+        }
+        int to = Math.min(window.size(), from + limit);
+        return new CheckoutSessionPage(window.subList(from, to), to < window.size());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        webhooks.shutdownNow();
+    }
+
+    long sampleLatencyMillis(ThreadLocalRandom random) {
+        if (latencySigma == 0) {
+            return Math.round(Math.exp(latencyMu));
+        }
+        return Math.round(Math.exp(latencyMu + latencySigma * random.nextGaussian()));
+    }
+
+    private CheckoutSession openSession() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        String id = "cs_sim_" + UUID.randomUUID().toString().replace("-", "");
+        boolean paid = random.nextDouble() < completionRate;
+        SessionState outcome = paid ? SessionState.PAID : SessionState.EXPIRED;
+        String payload = webhookPayload(id, paid);
+        sessions.put(id,
+                new SimulatedSession(Instant.now().getEpochSecond(), SessionState.OPEN));
+        webhooks.schedule(() -> settle(id, outcome, payload),
+                webhookDelay.toMillis(), TimeUnit.MILLISECONDS);
+        if (random.nextDouble() < duplicateWebhookRate) {
+            webhooks.schedule(() -> settle(id, outcome, payload),
+                    webhookDelay.toMillis() * 2, TimeUnit.MILLISECONDS);
+        }
+        return new CheckoutSession(id, CHECKOUT_URL + id);
+    }
+
+    private void settle(String sessionId, SessionState outcome, String payload) {
+        transition(sessionId, SessionState.OPEN, outcome);
+        SimulatedSession session = sessions.getIfPresent(sessionId);
+        if (session != null && session.state() == outcome) {
+            deliver(payload);
+        }
+    }
+
+    private boolean transition(String sessionId, SessionState from, SessionState to) {
+        SimulatedSession session = sessions.getIfPresent(sessionId);
+        return session != null
+                && session.state() == from
+                && sessions.asMap().replace(sessionId, session, session.withState(to));
+    }
+
+    private String webhookPayload(String sessionId, boolean paid) {
+        String type = paid
+                ? StripeEventProcessor.SESSION_COMPLETED
+                : StripeEventProcessor.SESSION_EXPIRED;
+        return "{\"id\":\"evt_sim_" + UUID.randomUUID().toString().replace("-", "") + "\","
+                + "\"object\":\"event\",\"api_version\":\"" + Stripe.API_VERSION + "\","
+                + "\"type\":\"" + type + "\",\"data\":{\"object\":{"
+                + "\"id\":\"" + sessionId + "\",\"object\":\"checkout.session\","
+                + "\"payment_status\":\"" + (paid ? "paid" : "unpaid") + "\"}}}";
+    }
+
+    private void deliver(String payload) {
+        long timestamp = Webhook.Util.getTimeNow();
+        try {
+            String signature = Webhook.Util.computeHmacSha256(
+                    webhookSecret, timestamp + "." + payload);
+            stripeWebhookService.receive(payload, "t=" + timestamp + ",v1=" + signature);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Can't sign simulated webhook", e);
+        }
+    }
+
+    private void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new PaymentException("Interrupted while waiting for the payment provider");
+        }
+    }
+
+    private enum SessionState {
+        OPEN("open", "unpaid"),
+        PAID("complete", "paid"),
+        EXPIRED("expired", "unpaid");
+
+        private final String status;
+        private final String paymentStatus;
+
+        SessionState(String status, String paymentStatus) {
+            this.status = status;
+            this.paymentStatus = paymentStatus;
+        }
+    }
+
+    private record SimulatedSession(long created, SessionState state) {
+        private SimulatedSession withState(SessionState next) {
+            return new SimulatedSession(created, next);
+        }
+
+        private CheckoutSessionSummary toSummary(String id) {
+            return new CheckoutSessionSummary(id, state.status, state.paymentStatus, created);
+        }
+    }
+}
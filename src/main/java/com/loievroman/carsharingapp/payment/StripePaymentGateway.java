@@ -0,0 +1,154 @@
+package com.loievroman.carsharingapp.payment;
+
+import com.loievroman.carsharingapp.exception.PaymentException;
+import com.loievroman.carsharingapp.exception.TransientPaymentException;
+import com.stripe.exception.ApiConnectionException;
+import com.stripe.exception.InvalidRequestException;
+import com.stripe.exception.StripeException;
+import com.stripe.model.checkout.Session;
+import com.stripe.model.checkout.SessionCollection;
+import com.stripe.net.RequestOptions;
+import com.stripe.param.checkout.SessionCreateParams;
+import com.stripe.param.checkout.SessionListParams;
+import java.time.Duration;
+import java.util.List;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+@Component
+@Profile("!payment-simulator")
+@Qualifier(PaymentGateway.REMOTE)
+public class StripePaymentGateway implements PaymentGateway {
+    private static final String CURRENCY = "usd";
+    private static final String SESSION_EXPIRED = "expired";
+    private static final String RESOURCE_MISSING = "resource_missing";
+    private static final int TOO_MANY_REQUESTS = 429;
+    private static final int SERVER_ERROR = 500;
+
+    private final String apiKey;
+    private final Duration connectTimeout;
+    private final Duration readTimeout;
+    private final int maxNetworkRetries;
+
+    public StripePaymentGateway(
+            @Value("${stripe.secret.key}") String apiKey,
+            @Value("${payment.gateway.stripe.connect-timeout}") Duration connectTimeout,
+            @Value("${payment.gateway.stripe.read-timeout}") Duration readTimeout,
+            @Value("${payment.gateway.stripe.max-network-retries}") int maxNetworkRetries) {
+        this.apiKey = apiKey;
+        this.connectTimeout = connectTimeout;
+        this.readTimeout = readTimeout;
+        this.maxNetworkRetries = maxNetworkRetries;
+    }
+
+    @Override
+    public CheckoutSession createCheckoutSession(CheckoutRequest request) {
+        RequestOptions options = requestOptions()
+                .setIdempotencyKey(request.idempotencyKey())
+                .build();
+        try {
+            Session session = Session.create(toParams(request), options);
+            return new CheckoutSession(session.getId(), session.getUrl());
+        } catch (StripeException e) {
+            throw failure("Can't create Stripe payment session", e);
+        }
+    }
+
+    @Override
+    public boolean expireCheckoutSession(String sessionId) {
+        Session session = new Session();
+        session.setId(sessionId);
+        try {
+            session.expire(requestOptions().build());
+            return true;
+        } catch (InvalidRequestException e) {
+            if (RESOURCE_MISSING.equals(e.getCode())) {
+                return true;
+            }
+            return isExpired(sessionId);
+        } catch (StripeException e) {
+            throw failure("Can't expire Stripe payment session", e);
+        }
+    }
+
+    @Override
+    public CheckoutSessionPage listCheckoutSessions(long createdFrom, long createdBefore,
+                                                    String startingAfter, int limit) {
+        SessionListParams.Builder params = SessionListParams.builder()
+                .setCreated(SessionListParams.Created.builder()
+                        .setGte(createdFrom)
+                        .setLt(createdBefore)
+                        .build())
+                .setLimit((long) limit);
+        if (startingAfter != null) {
+            params.setStartingAfter(startingAfter);
+        }
+        try {
+            SessionCollection sessions = Session.list(params.build(), requestOptions().build());
+            List<CheckoutSessionSummary> summaries = sessions.getData().stream()
+                    .map(session -> new CheckoutSessionSummary(session.getId(),
+                            session.getStatus(), session.getPaymentStatus(),
+                            session.getCreated()))
+                    .toList();
+            return new CheckoutSessionPage(summaries, Boolean.TRUE.equals(sessions.getHasMore()));
+        } catch (StripeException e) {
+            throw failure("Can't list Stripe payment sessions", e);
+        }
+    }
+
+    private boolean isExpired(String sessionId) {
+        try {
+            return SESSION_EXPIRED.equals(
+                    Session.retrieve(sessionId, requestOptions().build()).getStatus());
+        } catch (StripeException e) {
+            throw failure("Can't retrieve Stripe payment session", e);
+        }
+    }
+
+    private PaymentException failure(String message, StripeException e) {
+        Integer status = e.getStatusCode();
+        if (e instanceof ApiConnectionException || status != null
+                && (status == TOO_MANY_REQUESTS || status >= SERVER_ERROR)) {
+            return new TransientPaymentException(message);
+        }
+        return new PaymentException(message);
+    }
+
+    private RequestOptions.RequestOptionsBuilder requestOptions() {
+        return RequestOptions.builder()
+                .setApiKey(apiKey)
+                .setConnectTimeout((int) connectTimeout.toMillis())
+                .setReadTimeout((int) readTimeout.toMillis())
+                .setMaxNetworkRetries(maxNetworkRetries);
+    }
+
+    private SessionCreateParams toParams(CheckoutRequest request) {
+        SessionCreateParams.Builder params = SessionCreateParams.builder()
+                .setMode(SessionCreateParams.Mode.PAYMENT)
+                .setSuccessUrl(request.successUrl())
+                .setCancelUrl(request.cancelUrl());
+        for (CheckoutLineItem lineItem : request.lineItems()) {
+            params.addLineItem(toLineItem(lineItem));
+        }
+        return params.build();
+    }
+
+    private SessionCreateParams.LineItem toLineItem(CheckoutLineItem lineItem) {
+        return SessionCreateParams.LineItem.builder()
+                .setPriceData(
+                        SessionCreateParams.LineItem.PriceData.builder()
+                                .setCurrency(CURRENCY)
+                                .setUnitAmount(lineItem.amountInCents())
+                                .setProductData(
+                                        SessionCreateParams.LineItem.PriceData.ProductData
+                                                .builder()
+                                                .setName(lineItem.productName())
+                                                .build()
+                                ).build()
+                )
+                .setQuantity(1L)
+                .build();
+    }
+}
@@ -0,0 +1,15 @@
+package com.loievroman.carsharingapp.pricing;
+
+public class DailyFeeRule implements PricingRule {
+    private final long feeBasisPoints;
+
+    public DailyFeeRule(long feeBasisPoints) {
+        this.feeBasisPoints = feeBasisPoints;
+    }
+
+    @Override
+    public long apply(long amountCents, long dailyFeeCents, long firstEpochDay, long days) {
+        long dailyFee = MinorUnits.applyBasisPoints(dailyFeeCents, feeBasisPoints);
+        return amountCents + Math.multiplyExact(dailyFee, days);
+    }
+}
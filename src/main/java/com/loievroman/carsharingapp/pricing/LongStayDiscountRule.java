@@ -0,0 +1,21 @@
+package com.loievroman.carsharingapp.pricing;
+
+public class LongStayDiscountRule implements PricingRule {
+    private final long fromDays;
+    private final long untilDays;
+    private final long discountBasisPoints;
+
+    public LongStayDiscountRule(long fromDays, long untilDays, long discountBasisPoints) {
+        this.fromDays = fromDays;
+        this.untilDays = untilDays;
+        this.discountBasisPoints = discountBasisPoints;
+    }
+
+    @Override
+    public long apply(long amountCents, long dailyFeeCents, long firstEpochDay, long days) {
+        if (days < fromDays || days >= untilDays) {
+            return amountCents;
+        }
+        return amountCents - MinorUnits.applyBasisPoints(amountCents, discountBasisPoints);
+    }
+}
@@ -0,0 +1,29 @@
+package com.loievroman.carsharingapp.pricing;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+public final class MinorUnits {
+    public static final int BASIS_POINTS = 10_000;
+    private static final int SCALE = 2;
+
+    private MinorUnits() {
+    }
+
+    public static long toCents(BigDecimal amount) {
+        return amount.setScale(SCALE, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    public static BigDecimal toAmount(long cents) {
+        return BigDecimal.valueOf(cents, SCALE);
+    }
+
+    public static int toBasisPoints(BigDecimal ratio) {
+        return ratio.movePointRight(4).setScale(0, RoundingMode.HALF_UP).intValueExact();
+    }
+
+    public static long applyBasisPoints(long cents, long basisPoints) {
+        long scaled = Math.multiplyExact(cents, basisPoints);
+        return Math.floorDiv(scaled + BASIS_POINTS / 2, BASIS_POINTS);
+    }
+}
@@ -0,0 +1,14 @@
+package com.loievroman.carsharingapp.pricing;
+
+public class MultiplierRule implements PricingRule {
+    private final long multiplierBasisPoints;
+
+    public MultiplierRule(long multiplierBasisPoints) {
+        this.multiplierBasisPoints = multiplierBasisPoints;
+    }
+
+    @Override
+    public long apply(long amountCents, long dailyFeeCents, long firstEpochDay, long days) {
+        return MinorUnits.applyBasisPoints(amountCents, multiplierBasisPoints);
+    }
+}
@@ -0,0 +1,87 @@
+package com.loievroman.carsharingapp.pricing;
+
+import com.loievroman.carsharingapp.model.CarType;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import org.springframework.stereotype.Component;
+
+@Component
+public class PricingEngine {
+    private static final long WEEK_DAYS = 7;
+    private static final long MONTH_DAYS = 30;
+
+    private final PricingRule[][] rentalRules;
+    private final PricingRule[][] fineRules;
+
+    public PricingEngine(PricingProperties properties) {
+        CarType[] carTypes = CarType.values();
+        this.rentalRules = new PricingRule[carTypes.length][];
+        this.fineRules = new PricingRule[carTypes.length][];
+        for (CarType carType : carTypes) {
+            PricingProperties.Tariff tariff = properties.carTypes()
+                    .getOrDefault(carType, properties.defaults())
+                    .withDefaults(properties.defaults());
+            rentalRules[carType.ordinal()] = rentalRules(tariff);
+            fineRules[carType.ordinal()] = fineRules(tariff);
+        }
+    }
+
+    public long rentalCents(CarType carType,
+                            long dailyFeeCents,
+                            LocalDate rentalDate,
+                            LocalDate returnDate) {
+        long days = rentalDays(rentalDate, returnDate);
+        return evaluate(rentalRules[carType.ordinal()], dailyFeeCents,
+                rentalDate.toEpochDay(), days);
+    }
+
+    public long fineCents(CarType carType,
+                          long dailyFeeCents,
+                          LocalDate returnDate,
+                          LocalDate actualReturnDate) {
+        long firstOverdueDay = returnDate.toEpochDay();
+        long overdueDays = actualReturnDate.toEpochDay() - firstOverdueDay;
+        if (overdueDays <= 0) {
+            return 0;
+        }
+        return evaluate(fineRules[carType.ordinal()], dailyFeeCents, firstOverdueDay, overdueDays);
+    }
+
+    public static long rentalDays(LocalDate rentalDate, LocalDate returnDate) {
+        return Math.max(1, returnDate.toEpochDay() - rentalDate.toEpochDay());
+    }
+
+    private long evaluate(PricingRule[] rules, long dailyFeeCents, long firstDay, long days) {
+        long amount = 0;
+        for (PricingRule rule : rules) {
+            amount = rule.apply(amount, dailyFeeCents, firstDay, days);
+        }
+        return amount;
+    }
+
+    private PricingRule[] rentalRules(PricingProperties.Tariff tariff) {
+        List<PricingRule> rules = new ArrayList<>();
+        rules.add(new DailyFeeRule(MinorUnits.toBasisPoints(tariff.dailyFeeMultiplier())));
+        int weekendSurcharge = MinorUnits.toBasisPoints(tariff.weekendSurcharge());
+        if (weekendSurcharge != 0) {
+            rules.add(new WeekendSurchargeRule(weekendSurcharge));
+        }
+        int weeklyDiscount = MinorUnits.toBasisPoints(tariff.weeklyDiscount());
+        if (weeklyDiscount != 0) {
+            rules.add(new LongStayDiscountRule(WEEK_DAYS, MONTH_DAYS, weeklyDiscount));
+        }
+        int monthlyDiscount = MinorUnits.toBasisPoints(tariff.monthlyDiscount());
+        if (monthlyDiscount != 0) {
+            rules.add(new LongStayDiscountRule(MONTH_DAYS, Long.MAX_VALUE, monthlyDiscount));
+        }
+        return rules.toArray(PricingRule[]::new);
+    }
+
+    private PricingRule[] fineRules(PricingProperties.Tariff tariff) {
+        return new PricingRule[] {
+                new DailyFeeRule(MinorUnits.toBasisPoints(tariff.dailyFeeMultiplier())),
+                new MultiplierRule(MinorUnits.toBasisPoints(tariff.fineMultiplier()))
+        };
+    }
+}
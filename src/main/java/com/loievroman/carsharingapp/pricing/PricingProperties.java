@@ -0,0 +1,28 @@
+package com.loievroman.carsharingapp.pricing;
+
+import com.loievroman.carsharingapp.model.CarType;
+import java.math.BigDecimal;
+import java.util.Map;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties("pricing")
+public record PricingProperties(Tariff defaults, Map<CarType, Tariff> carTypes) {
+    public PricingProperties {
+        carTypes = carTypes == null ? Map.of() : carTypes;
+    }
+
+    public record Tariff(BigDecimal dailyFeeMultiplier,
+                         BigDecimal weeklyDiscount,
+                         BigDecimal monthlyDiscount,
+                         BigDecimal weekendSurcharge,
+                         BigDecimal fineMultiplier) {
+        Tariff withDefaults(Tariff defaults) {
+            return new Tariff(
+                    dailyFeeMultiplier != null ? dailyFeeMultiplier : defaults.dailyFeeMultiplier,
+                    weeklyDiscount != null ? weeklyDiscount : defaults.weeklyDiscount,
+                    monthlyDiscount != null ? monthlyDiscount : defaults.monthlyDiscount,
+                    weekendSurcharge != null ? weekendSurcharge : defaults.weekendSurcharge,
+                    fineMultiplier != null ? fineMultiplier : defaults.fineMultiplier);
+        }
+    }
+}
@@ -0,0 +1,6 @@
+package com.loievroman.carsharingapp.pricing;
+
+@FunctionalInterface
+public interface PricingRule {
+    long apply(long amountCents, long dailyFeeCents, long firstEpochDay, long days);
+}
@@ -0,0 +1,36 @@
+package com.loievroman.carsharingapp.pricing;
+
+public class WeekendSurchargeRule implements PricingRule {
+    private static final int DAYS_IN_WEEK = 7;
+    private static final int WEEKEND_DAYS = 2;
+    // 1970-01-01 was a Thursday; shifting by 3 makes Monday 0 and Saturday 5.
+    private static final int EPOCH_DAY_OF_WEEK_SHIFT = 3;
+    private static final int SATURDAY = 5;
+
+    private final long surchargeBasisPoints;
+
+    public WeekendSurchargeRule(long surchargeBasisPoints) {
+        this.surchargeBasisPoints = surchargeBasisPoints;
+    }
+
+    @Override
+    public long apply(long amountCents, long dailyFeeCents, long firstEpochDay, long days) {
+        long weekendDays = weekendDaysBetween(firstEpochDay, days);
+        if (weekendDays == 0) {
+            return amountCents;
+        }
+        long surcharge = MinorUnits.applyBasisPoints(dailyFeeCents, surchargeBasisPoints);
+        return amountCents + Math.multiplyExact(surcharge, weekendDays);
+    }
+
+    static long weekendDaysBetween(long firstEpochDay, long days) {
+        long weekendDays = days / DAYS_IN_WEEK * WEEKEND_DAYS;
+        long dayOfWeek = Math.floorMod(firstEpochDay + EPOCH_DAY_OF_WEEK_SHIFT, DAYS_IN_WEEK);
+        for (long i = 0; i < days % DAYS_IN_WEEK; i++) {
+            if ((dayOfWeek + i) % DAYS_IN_WEEK >= SATURDAY) {
+                weekendDays++;
+            }
+        }
+        return weekendDays;
+    }
+}
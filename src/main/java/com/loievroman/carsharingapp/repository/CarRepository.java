@@ -1,9 +1,59 @@
 package com.loievroman.carsharingapp.repository;
 
 import com.loievroman.carsharingapp.model.Car;
+import com.loievroman.carsharingapp.model.CarType;
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 @Repository
 public interface CarRepository extends JpaRepository<Car, Long> {
+
+    @Modifying
+    @Query("UPDATE Car c SET c.inventory = c.inventory - 1 "
+            + "WHERE c.id = :id AND c.inventory > 0 AND c.isDeleted = false")
+    int decrementInventory(Long id);
+
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Car c SET c.inventory = c.inventory + 1 WHERE c.id = :id")
+    int incrementInventory(Long id);
+
+    Window<Car> findAllBy(ScrollPosition position, Limit limit, Sort sort);
+
+    @Query("SELECT c.id FROM Car c")
+    Page<Long> findAllIds(Pageable pageable);
+
+    @Query("SELECT c.id AS id, c.inventory AS inventory FROM Car c WHERE c.id IN :ids")
+    List<InventoryView> findInventoriesByIdIn(Collection<Long> ids);
+
+    @Query("SELECT c.id AS id, c.type AS type, c.dailyFee AS dailyFee FROM Car c")
+    List<FeeView> findAllFees();
+
+    @Query("SELECT c.id AS id, c.type AS type, c.dailyFee AS dailyFee "
+            + "FROM Car c WHERE c.id IN :ids")
+    List<FeeView> findFeesByIdIn(Collection<Long> ids);
+
+    interface InventoryView {
+        Long getId();
+
+        int getInventory();
+    }
+
+    interface FeeView {
+        Long getId();
+
+        CarType getType();
+
+        BigDecimal getDailyFee();
+    }
 }
@@ -0,0 +1,90 @@
+package com.loievroman.carsharingapp.repository;
+
+import com.loievroman.carsharingapp.model.CheckoutBatch;
+import com.loievroman.carsharingapp.model.PaymentStatus;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+@Repository
+public interface CheckoutBatchRepository extends JpaRepository<CheckoutBatch, Long> {
+    Optional<CheckoutBatch> findBySessionId(String sessionId);
+
+    @Query("SELECT b.status FROM CheckoutBatch b WHERE b.sessionId = :sessionId")
+    Optional<PaymentStatus> findStatusBySessionId(String sessionId);
+
+    @Query("SELECT DISTINCT b FROM CheckoutBatch b JOIN b.payments p "
+            + "WHERE p.id IN :paymentIds AND b.status = 'PENDING'")
+    List<CheckoutBatch> findOpenBatchesByPaymentIdIn(Collection<Long> paymentIds);
+
+    @Query("SELECT b.id AS id, b.sessionId AS sessionId, b.status AS status "
+            + "FROM CheckoutBatch b WHERE b.sessionId IN :sessionIds")
+    List<SessionStatusView> findSessionStatusesBySessionIdIn(Collection<String> sessionIds);
+
+    @Query("SELECT p.id FROM CheckoutBatch b JOIN b.payments p WHERE b.id IN :batchIds")
+    List<Long> findPaymentIdsByBatchIdIn(Collection<Long> batchIds);
+
+    @Modifying
+    @Query(value = "UPDATE checkout_batches b SET b.session_id = :sessionId, "
+            + "b.session_url = :sessionUrl "
+            + "WHERE b.id = :id AND b.status = 'PENDING' AND b.session_id IS NULL "
+            + "AND NOT EXISTS (SELECT 1 FROM checkout_batch_payments bp "
+            + "JOIN payments p ON p.id = bp.payment_id "
+            + "WHERE bp.batch_id = b.id AND p.session_id IS NOT NULL)",
+            nativeQuery = true)
+    int attachSession(Long id, String sessionId, String sessionUrl);
+
+    @Modifying
+    @Query("UPDATE CheckoutBatch b SET b.status = :status "
+            + "WHERE b.id = :id AND b.status = :expected")
+    int updateStatus(Long id, PaymentStatus expected, PaymentStatus status);
+
+    @Query(value = "SELECT b.id FROM checkout_batches b "
+            + "WHERE b.id IN (:ids) AND b.status <> 'PAID' FOR UPDATE SKIP LOCKED",
+            nativeQuery = true)
+    List<Long> lockUnpaidIds(Collection<Long> ids);
+
+    @Modifying
+    @Query("UPDATE CheckoutBatch b SET b.status = 'PAID' "
+            + "WHERE b.id IN :ids AND b.status <> 'PAID'")
+    int markPaid(Collection<Long> ids);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE CheckoutBatch b SET b.status = 'EXPIRED' "
+            + "WHERE b.status = 'PENDING' AND b.sessionId IS NULL AND b.createdAt < :cutoff")
+    int expireOrphanedBatches(LocalDateTime cutoff);
+
+    @Query("SELECT b.id AS id, b.sessionId AS sessionId FROM CheckoutBatch b "
+            + "WHERE b.status = 'PENDING' AND b.sessionId IS NOT NULL "
+            + "AND b.createdAt < :cutoff AND b.id > :afterId ORDER BY b.id")
+    List<PaymentRepository.PendingSessionView> findStalePendingSessions(LocalDateTime cutoff,
+                                                                        Long afterId,
+                                                                        Limit limit);
+
+    @Query(value = "SELECT b.id FROM checkout_batches b "
+            + "WHERE b.id IN (:ids) AND b.status = 'PENDING' FOR UPDATE SKIP LOCKED",
+            nativeQuery = true)
+    List<Long> lockPendingIds(Collection<Long> ids);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE CheckoutBatch b SET b.status = 'EXPIRED' "
+            + "WHERE b.id IN :ids AND b.status = 'PENDING'")
+    int expirePending(Collection<Long> ids);
+
+    interface SessionStatusView {
+        Long getId();
+
+        String getSessionId();
+
+        PaymentStatus getStatus();
+    }
+}
@@ -0,0 +1,58 @@
+package com.loievroman.carsharingapp.repository;
+
+import com.loievroman.carsharingapp.model.NotificationOutboxMessage;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+@Repository
+public interface NotificationOutboxRepository
+        extends JpaRepository<NotificationOutboxMessage, Long> {
+    @Query(value = "SELECT * FROM notification_outbox "
+            + "WHERE status = 'PENDING' AND next_attempt_at <= :now "
+            + "ORDER BY next_attempt_at, id LIMIT :limit "
+            + "FOR UPDATE SKIP LOCKED",
+            nativeQuery = true)
+    List<NotificationOutboxMessage> claimDue(LocalDateTime now, int limit);
+
+    @Modifying
+    @Query("UPDATE NotificationOutboxMessage m "
+            + "SET m.attempts = m.attempts + 1, m.nextAttemptAt = :leasedUntil "
+            + "WHERE m.id IN :ids")
+    int lease(Collection<Long> ids, LocalDateTime leasedUntil);
+
+    @Modifying
+    @Query("UPDATE NotificationOutboxMessage m "
+            + "SET m.status = 'DELIVERED', m.deliveredAt = :deliveredAt "
+            + "WHERE m.id IN :ids AND m.status = 'PENDING'")
+    int markDelivered(Collection<Long> ids, LocalDateTime deliveredAt);
+
+    @Modifying
+    @Query("UPDATE NotificationOutboxMessage m SET m.nextAttemptAt = :nextAttemptAt "
+            + "WHERE m.id = :id AND m.status = 'PENDING'")
+    int scheduleRetry(Long id, LocalDateTime nextAttemptAt);
+
+    @Modifying
+    @Query("UPDATE NotificationOutboxMessage m "
+            + "SET m.attempts = m.attempts - 1, m.nextAttemptAt = :nextAttemptAt "
+            + "WHERE m.id IN :ids AND m.status = 'PENDING'")
+    int defer(Collection<Long> ids, LocalDateTime nextAttemptAt);
+
+    @Modifying
+    @Query("UPDATE NotificationOutboxMessage m SET m.status = 'FAILED' "
+            + "WHERE m.id IN :ids AND m.status = 'PENDING'")
+    int markFailed(Collection<Long> ids);
+
+    @Transactional
+    @Modifying
+    @Query(value = "DELETE FROM notification_outbox "
+            + "WHERE status IN ('DELIVERED', 'FAILED') AND next_attempt_at < :cutoff "
+            + "LIMIT :limit",
+            nativeQuery = true)
+    int deleteSettledBefore(LocalDateTime cutoff, int limit);
+}
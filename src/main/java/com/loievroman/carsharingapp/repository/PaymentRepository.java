@@ -1,18 +1,126 @@
 package com.loievroman.carsharingapp.repository;
 
 import com.loievroman.carsharingapp.model.Payment;
+import com.loievroman.carsharingapp.model.PaymentStatus;
 import com.loievroman.carsharingapp.model.PaymentType;
+import jakarta.persistence.LockModeType;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
 
 public interface PaymentRepository extends JpaRepository<Payment, Long> {
+    String IN_OPEN_BATCH = "SELECT 1 FROM checkout_batch_payments bp "
+            + "JOIN checkout_batches b ON b.id = bp.batch_id "
+            + "WHERE bp.payment_id = p.id AND b.status = 'PENDING'";
+
     Optional<Payment> findByRentalIdAndType(Long rentalId, PaymentType type);
 
     Optional<Payment> findBySessionId(String sessionId);
 
+    @Query("SELECT p.status FROM Payment p WHERE p.sessionId = :sessionId")
+    Optional<PaymentStatus> findStatusBySessionId(String sessionId);
+
+    @Modifying
+    @Query("UPDATE Payment p SET p.status = :status WHERE p.id = :id AND p.status = :expected")
+    int updateStatus(Long id, PaymentStatus expected, PaymentStatus status);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    List<Payment> findAllForUpdateByRentalIdIn(Collection<Long> rentalIds);
+
+    @Modifying
+    @Query(value = "UPDATE payments p SET p.session_id = :sessionId, "
+            + "p.session_url = :sessionUrl "
+            + "WHERE p.id = :id AND p.status = 'PENDING' AND p.session_id IS NULL "
+            + "AND NOT EXISTS (" + IN_OPEN_BATCH + ")",
+            nativeQuery = true)
+    int attachSession(Long id, String sessionId, String sessionUrl);
+
+    @Transactional
+    @Modifying
+    @Query(value = "UPDATE payments p SET p.status = 'EXPIRED' "
+            + "WHERE p.status = 'PENDING' AND p.session_id IS NULL AND p.created_at < :cutoff "
+            + "AND NOT EXISTS (" + IN_OPEN_BATCH + ")",
+            nativeQuery = true)
+    int expireOrphanedIntents(LocalDateTime cutoff);
+
+    @Query("SELECT p.id AS id, p.sessionId AS sessionId FROM Payment p "
+            + "WHERE p.status = 'PENDING' AND p.sessionId IS NOT NULL "
+            + "AND p.createdAt < :cutoff AND p.id > :afterId ORDER BY p.id")
+    List<PendingSessionView> findStalePendingSessions(LocalDateTime cutoff, Long afterId,
+                                                      Limit limit);
+
+    @Query(value = "SELECT p.id FROM payments p "
+            + "WHERE p.id IN (:ids) AND p.status = 'PENDING' FOR UPDATE SKIP LOCKED",
+            nativeQuery = true)
+    List<Long> lockPendingIds(Collection<Long> ids);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE Payment p SET p.status = 'EXPIRED' "
+            + "WHERE p.id IN :ids AND p.status = 'PENDING'")
+    int expirePending(Collection<Long> ids);
+
+    @Query("SELECT p.id AS id, p.sessionId AS sessionId, p.status AS status FROM Payment p "
+            + "WHERE p.sessionId IN :sessionIds")
+    List<SessionStatusView> findSessionStatusesBySessionIdIn(Collection<String> sessionIds);
+
+    @Query(value = "SELECT p.id FROM payments p "
+            + "WHERE p.id IN (:ids) AND p.status <> 'PAID' FOR UPDATE SKIP LOCKED",
+            nativeQuery = true)
+    List<Long> lockUnpaidIds(Collection<Long> ids);
+
+    @Modifying
+    @Query("UPDATE Payment p SET p.status = 'PAID' WHERE p.id IN :ids AND p.status <> 'PAID'")
+    int markPaid(Collection<Long> ids);
+
+    @EntityGraph(attributePaths = {"rental.user", "rental.car"})
+    List<Payment> findAllWithRentalByIdIn(Collection<Long> ids);
+
     @Query("SELECT p FROM Payment p JOIN p.rental r WHERE r.user.id = :userId")
     Page<Payment> findByUserId(Long userId, Pageable pageable);
+
+    Window<Payment> findByRentalUserId(Long userId, ScrollPosition position, Limit limit,
+                                       Sort sort);
+
+    Window<Payment> findAllBy(ScrollPosition position, Limit limit, Sort sort);
+
+    @Query("SELECT p FROM Payment p JOIN p.rental r WHERE r.user.id = :userId")
+    Slice<Payment> findSliceByUserId(Long userId, Pageable pageable);
+
+    Slice<Payment> findSliceBy(Pageable pageable);
+
+    long countByRentalUserId(Long userId);
+
+    @Query(value = "SELECT TABLE_ROWS FROM information_schema.TABLES "
+            + "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'payments'",
+            nativeQuery = true)
+    Optional<Long> estimateRowCount();
+
+    interface PendingSessionView {
+        Long getId();
+
+        String getSessionId();
+    }
+
+    interface SessionStatusView {
+        Long getId();
+
+        String getSessionId();
+
+        PaymentStatus getStatus();
+    }
 }
@@ -0,0 +1,10 @@
+package com.loievroman.carsharingapp.repository;
+
+import com.loievroman.carsharingapp.model.ReconciliationCursor;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ReconciliationCursorRepository
+        extends JpaRepository<ReconciliationCursor, String> {
+}
@@ -2,21 +2,84 @@ package com.loievroman.carsharingapp.repository;
 
 import com.loievroman.carsharingapp.model.Rental;
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 @Repository
 public interface RentalRepository extends JpaRepository<Rental, Long> {
     Page<Rental> findByUserIdAndActualReturnDateIsNull(Long userId, Pageable pageable);
 
+    Window<Rental> findByUserIdAndActualReturnDateIsNull(Long userId, ScrollPosition position,
+                                                         Limit limit, Sort sort);
+
     Page<Rental> findByUserIdAndActualReturnDateIsNotNull(Long userId, Pageable pageable);
 
+    Window<Rental> findByUserIdAndActualReturnDateIsNotNull(Long userId, ScrollPosition position,
+                                                            Limit limit, Sort sort);
+
     Page<Rental> findByActualReturnDateIsNull(Pageable pageable);
 
+    Window<Rental> findByActualReturnDateIsNull(ScrollPosition position, Limit limit, Sort sort);
+
     Page<Rental> findByActualReturnDateIsNotNull(Pageable pageable);
 
-    List<Rental> findByActualReturnDateIsNullAndReturnDateBefore(LocalDate today);
+    Window<Rental> findByActualReturnDateIsNotNull(ScrollPosition position, Limit limit,
+                                                   Sort sort);
+
+    Slice<Rental> findSliceByUserIdAndActualReturnDateIsNull(Long userId, Pageable pageable);
+
+    Slice<Rental> findSliceByUserIdAndActualReturnDateIsNotNull(Long userId, Pageable pageable);
+
+    Slice<Rental> findSliceByActualReturnDateIsNull(Pageable pageable);
+
+    Slice<Rental> findSliceByActualReturnDateIsNotNull(Pageable pageable);
+
+    long countByUserIdAndActualReturnDateIsNull(Long userId);
+
+    long countByUserIdAndActualReturnDateIsNotNull(Long userId);
+
+    long countByActualReturnDateIsNull();
+
+    long countByActualReturnDateIsNotNull();
+
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Rental r SET r.actualReturnDate = :returnedOn "
+            + "WHERE r.id = :id AND r.actualReturnDate IS NULL")
+    int markReturned(Long id, LocalDate returnedOn);
+
+    @Query("SELECT r.id AS id, r.returnDate AS returnDate, u.firstName AS firstName, "
+            + "u.lastName AS lastName, c.brand AS brand, c.model AS model "
+            + "FROM Rental r LEFT JOIN r.user u LEFT JOIN r.car c "
+            + "WHERE r.actualReturnDate IS NULL AND r.returnDate < :today AND r.id > :afterId "
+            + "ORDER BY r.id")
+    List<OverdueRentalView> findOverdueRentals(LocalDate today, Long afterId, Limit limit);
+
+    @EntityGraph(attributePaths = {"car", "user"})
+    List<Rental> findAllByIdIn(Collection<Long> ids);
+
+    interface OverdueRentalView {
+        Long getId();
+
+        LocalDate getReturnDate();
+
+        String getFirstName();
+
+        String getLastName();
+
+        String getBrand();
+
+        String getModel();
+    }
 }
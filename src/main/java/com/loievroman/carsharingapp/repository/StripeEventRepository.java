@@ -0,0 +1,44 @@
+package com.loievroman.carsharingapp.repository;
+
+import com.loievroman.carsharingapp.model.StripeEvent;
+import com.loievroman.carsharingapp.model.StripeEventStatus;
+import java.time.LocalDateTime;
+import java.util.List;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+@Repository
+public interface StripeEventRepository extends JpaRepository<StripeEvent, String> {
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT IGNORE INTO stripe_events "
+            + "(id, type, session_id, session_payment_status, payload, status, received_at) "
+            + "VALUES (:id, :type, :sessionId, :sessionPaymentStatus, :payload, 'RECEIVED', "
+            + ":receivedAt)",
+            nativeQuery = true)
+    int insertIfAbsent(String id, String type, String sessionId, String sessionPaymentStatus,
+                       String payload, LocalDateTime receivedAt);
+
+    @Modifying
+    @Query("UPDATE StripeEvent e SET e.status = 'PROCESSED', e.processedAt = :processedAt "
+            + "WHERE e.id = :id AND e.status = 'RECEIVED'")
+    int markProcessed(String id, LocalDateTime processedAt);
+
+    @Query("SELECT e.id FROM StripeEvent e WHERE e.status = :status "
+            + "AND e.receivedAt BETWEEN :from AND :to ORDER BY e.receivedAt")
+    List<String> findIdsByStatusAndReceivedAtBetween(StripeEventStatus status,
+                                                     LocalDateTime from,
+                                                     LocalDateTime to,
+                                                     Limit limit);
+
+    @Transactional
+    @Modifying
+    @Query(value = "DELETE FROM stripe_events "
+            + "WHERE status = 'PROCESSED' AND received_at < :cutoff LIMIT :limit",
+            nativeQuery = true)
+    int deleteProcessedBefore(LocalDateTime cutoff, int limit);
+}
@@ -0,0 +1,17 @@
+package com.loievroman.carsharingapp.scheduler;
+
+import com.loievroman.carsharingapp.service.CarFeeTable;
+import lombok.RequiredArgsConstructor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+public class CarFeeTableScheduler {
+    private final CarFeeTable carFeeTable;
+
+    @Scheduled(fixedDelayString = "${pricing.fee-table.refresh-interval}")
+    public void refreshFeeTable() {
+        carFeeTable.refresh();
+    }
+}
@@ -0,0 +1,22 @@
+package com.loievroman.carsharingapp.scheduler;
+
+import com.loievroman.carsharingapp.service.NotificationOutboxRelay;
+import lombok.RequiredArgsConstructor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+public class NotificationOutboxScheduler {
+    private final NotificationOutboxRelay notificationOutboxRelay;
+
+    @Scheduled(fixedDelayString = "${notification.outbox.poll-interval}")
+    public void relayNotifications() {
+        notificationOutboxRelay.relay();
+    }
+
+    @Scheduled(fixedDelayString = "${notification.outbox.purge-interval}")
+    public void purgeSettledNotifications() {
+        notificationOutboxRelay.purgeSettled();
+    }
+}
@@ -0,0 +1,31 @@
+package com.loievroman.carsharingapp.scheduler;
+
+import com.loievroman.carsharingapp.repository.CheckoutBatchRepository;
+import com.loievroman.carsharingapp.repository.PaymentRepository;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+public class PaymentIntentScheduler {
+    private final PaymentRepository paymentRepository;
+    private final CheckoutBatchRepository checkoutBatchRepository;
+    private final Duration orphanAfter;
+
+    public PaymentIntentScheduler(PaymentRepository paymentRepository,
+                                  CheckoutBatchRepository checkoutBatchRepository,
+                                  @Value("${payment.intent.orphan-after}") Duration orphanAfter) {
+        this.paymentRepository = paymentRepository;
+        this.checkoutBatchRepository = checkoutBatchRepository;
+        this.orphanAfter = orphanAfter;
+    }
+
+    @Scheduled(fixedDelayString = "${payment.intent.recovery-interval}")
+    public void expireOrphanedIntents() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(orphanAfter);
+        checkoutBatchRepository.expireOrphanedBatches(cutoff);
+        paymentRepository.expireOrphanedIntents(cutoff);
+    }
+}
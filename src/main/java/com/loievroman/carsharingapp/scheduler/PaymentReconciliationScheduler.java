@@ -0,0 +1,17 @@
+package com.loievroman.carsharingapp.scheduler;
+
+import com.loievroman.carsharingapp.service.PaymentReconciler;
+import lombok.RequiredArgsConstructor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+public class PaymentReconciliationScheduler {
+    private final PaymentReconciler paymentReconciler;
+
+    @Scheduled(fixedDelayString = "${payment.reconciliation.interval}")
+    public void reconcilePayments() {
+        paymentReconciler.reconcile();
+    }
+}
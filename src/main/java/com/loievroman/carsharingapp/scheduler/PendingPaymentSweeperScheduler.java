@@ -0,0 +1,17 @@
+package com.loievroman.carsharingapp.scheduler;
+
+import com.loievroman.carsharingapp.service.PendingPaymentSweeper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+public class PendingPaymentSweeperScheduler {
+    private final PendingPaymentSweeper pendingPaymentSweeper;
+
+    @Scheduled(fixedDelayString = "${payment.sweeper.interval}")
+    public void sweepStalePendingPayments() {
+        pendingPaymentSweeper.sweep();
+    }
+}
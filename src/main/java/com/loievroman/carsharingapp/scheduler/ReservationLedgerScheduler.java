@@ -0,0 +1,19 @@
+package com.loievroman.carsharingapp.scheduler;
+
+import com.loievroman.carsharingapp.service.ReservationLedger;
+import lombok.RequiredArgsConstructor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+public class ReservationLedgerScheduler {
+    private final ReservationLedger reservationLedger;
+
+    @Scheduled(fixedDelayString = "${rental.ledger.reconcile-interval}")
+    public void reconcileWithInventory() {
+        if (reservationLedger.isEnabled()) {
+            reservationLedger.reconcile();
+        }
+    }
+}
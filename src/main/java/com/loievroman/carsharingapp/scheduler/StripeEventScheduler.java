@@ -0,0 +1,22 @@
+package com.loievroman.carsharingapp.scheduler;
+
+import com.loievroman.carsharingapp.service.StripeWebhookService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+public class StripeEventScheduler {
+    private final StripeWebhookService stripeWebhookService;
+
+    @Scheduled(fixedDelayString = "${stripe.webhook.retry-after}")
+    public void dispatchPendingEvents() {
+        stripeWebhookService.dispatchPending();
+    }
+
+    @Scheduled(fixedDelayString = "${stripe.webhook.purge-interval}")
+    public void purgeProcessedEvents() {
+        stripeWebhookService.purgeProcessed();
+    }
+}
@@ -2,6 +2,7 @@ package com.loievroman.carsharingapp.security;
 
 import com.loievroman.carsharingapp.dto.user.UserLoginRequestDto;
 import com.loievroman.carsharingapp.dto.user.UserLoginResponseDto;
+import com.loievroman.carsharingapp.model.User;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
@@ -20,7 +21,7 @@ public class AuthenticationService {
                 new UsernamePasswordAuthenticationToken(requestDto.getEmail(),
                         requestDto.getPassword())
         );
-        String token = jwtUtil.generateToken(authentication.getName());
+        String token = jwtUtil.generateToken((User) authentication.getPrincipal());
 
         return new UserLoginResponseDto(token);
     }
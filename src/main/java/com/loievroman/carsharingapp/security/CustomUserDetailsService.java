@@ -1,7 +1,5 @@
 package com.loievroman.carsharingapp.security;
 
-import com.loievroman.carsharingapp.exception.EntityNotFoundException;
-import com.loievroman.carsharingapp.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
@@ -12,14 +10,11 @@ import org.springframework.stereotype.Service;
 @RequiredArgsConstructor
 public class CustomUserDetailsService implements UserDetailsService {
 
-    private final UserRepository userRepository;
+    private final UserPrincipalCache userPrincipalCache;
 
     @Override
     public UserDetails loadUserByUsername(String username)
             throws UsernameNotFoundException {
-        return userRepository.findByEmail(username)
-                .orElseThrow(
-                        () -> new EntityNotFoundException("Can't find user by email=" + username)
-                );
+        return userPrincipalCache.get(username);
     }
 }
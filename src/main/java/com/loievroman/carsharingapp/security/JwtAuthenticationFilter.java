@@ -8,6 +8,7 @@ import java.io.IOException;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.security.authentication.CredentialsExpiredException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -23,6 +24,13 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     private static final String TOKEN_HEADER = "Bearer ";
     private final JwtUtil jwtUtil;
     private final CustomUserDetailsService userDetailsService;
+    private final UserTokenVersions userTokenVersions;
+    private final PublicEndpoints publicEndpoints;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return publicEndpoints.matches(request);
+    }
 
     @Override
     protected void doFilterInternal(HttpServletRequest request,
@@ -32,14 +40,12 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         String token = getToken(request);
 
         try {
-            if (token != null && jwtUtil.isValidToken(token)) {
-                String username = jwtUtil.getUsername(token);
-                UserDetails userDetails = userDetailsService.loadUserByUsername(username);
-                Authentication authentication = new UsernamePasswordAuthenticationToken(
-                        userDetails,
-                        null,
-                        userDetails.getAuthorities()
-                );
+            if (token != null) {
+                TokenClaims claims = jwtUtil.verify(token);
+                Authentication authentication =
+                        jwtUtil.isStatelessAuthorities() && claims.carriesAuthorities()
+                                ? authenticateFromClaims(claims)
+                                : authenticateFromUserDetails(claims);
                 SecurityContextHolder.getContext().setAuthentication(authentication);
             }
         } catch (Exception e) {
@@ -53,6 +59,28 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
 
+    private Authentication authenticateFromClaims(TokenClaims claims) {
+        if (!userTokenVersions.isCurrent(claims.userId(), claims.tokenVersion())) {
+            throw new CredentialsExpiredException("Token has been revoked, please log in again");
+        }
+        TokenPrincipal principal =
+                new TokenPrincipal(claims.userId(), claims.subject(), claims.roles());
+        return new UsernamePasswordAuthenticationToken(
+                principal,
+                null,
+                principal.getAuthorities()
+        );
+    }
+
+    private Authentication authenticateFromUserDetails(TokenClaims claims) {
+        UserDetails userDetails = userDetailsService.loadUserByUsername(claims.subject());
+        return new UsernamePasswordAuthenticationToken(
+                userDetails,
+                null,
+                userDetails.getAuthorities()
+        );
+    }
+
     private String getToken(HttpServletRequest request) {
         String bearerToken = request.getHeader(HttpHeaders.AUTHORIZATION);
         if (StringUtils.hasText(bearerToken) && bearerToken.startsWith(TOKEN_HEADER)) {
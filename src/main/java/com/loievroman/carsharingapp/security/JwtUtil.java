@@ -1,49 +1,134 @@
 package com.loievroman.carsharingapp.security;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.loievroman.carsharingapp.model.Role;
+import com.loievroman.carsharingapp.model.User;
 import io.jsonwebtoken.Claims;
-import io.jsonwebtoken.Jws;
+import io.jsonwebtoken.JwtBuilder;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.Date;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
 import javax.crypto.SecretKey;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 @Component
 public class JwtUtil {
+    private static final String VERIFIED_TOKENS_CACHE = "jwt.verified-tokens";
+    private static final String USER_ID_CLAIM = "uid";
+    private static final String ROLES_CLAIM = "roles";
+    private static final String TOKEN_VERSION_CLAIM = "ver";
 
     private final SecretKey secret;
+    private final JwtParser parser;
+    private final Cache<String, TokenClaims> verifiedTokens;
     @Value("${jwt.expiration}")
     private long expiration;
+    @Value("${jwt.stateless-authorities.enabled}")
+    private boolean statelessAuthorities;
 
-    public JwtUtil(@Value("${jwt.secret}") String secret) {
+    public JwtUtil(@Value("${jwt.secret}") String secret,
+                   @Value("${jwt.cache.max-size}") long cacheMaxSize,
+                   MeterRegistry meterRegistry) {
         this.secret = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+        this.parser = Jwts.parser()
+                .verifyWith(this.secret)
+                .build();
+        this.verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(cacheMaxSize)
+                .expireAfter(Expiry.creating((String key, TokenClaims claims) ->
+                        timeToLive(claims)))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, verifiedTokens, VERIFIED_TOKENS_CACHE);
     }
 
-    public String generateToken(String username) {
-        return Jwts.builder()
-                .subject(username)
+    public String generateToken(User user) {
+        JwtBuilder builder = Jwts.builder()
+                .subject(user.getEmail())
                 .issuedAt(new Date(System.currentTimeMillis()))
-                .expiration(new Date(System.currentTimeMillis() + expiration))
-                .signWith(secret)
-                .compact();
+                .expiration(new Date(System.currentTimeMillis() + expiration));
+        if (statelessAuthorities) {
+            builder.claim(USER_ID_CLAIM, user.getId())
+                    .claim(ROLES_CLAIM, user.getRoles().stream()
+                            .map(role -> role.getName().name())
+                            .toList())
+                    .claim(TOKEN_VERSION_CLAIM, user.getTokenVersion());
+        }
+        return builder.signWith(secret).compact();
+    }
+
+    public boolean isStatelessAuthorities() {
+        return statelessAuthorities;
+    }
+
+    public TokenClaims verify(String token) {
+        String tokenHash = hash(token);
+        TokenClaims cached = verifiedTokens.getIfPresent(tokenHash);
+        if (cached != null && !cached.isExpiredAt(Instant.now())) {
+            return cached;
+        }
+
+        Claims claims = parser.parseSignedClaims(token).getPayload();
+        if (claims.getExpiration() == null) {
+            throw new JwtException("JWT has no expiration claim");
+        }
+        TokenClaims verified = new TokenClaims(
+                claims.getSubject(),
+                claims.getIssuedAt() != null ? claims.getIssuedAt().toInstant() : null,
+                claims.getExpiration().toInstant(),
+                claims.get(USER_ID_CLAIM, Long.class),
+                getRoles(claims),
+                claims.get(TOKEN_VERSION_CLAIM, Integer.class)
+        );
+        verifiedTokens.put(tokenHash, verified);
+        return verified;
+    }
+
+    public long getVerifiedTokenCacheHits() {
+        return verifiedTokens.stats().hitCount();
+    }
+
+    public long getVerifiedTokenCacheMisses() {
+        return verifiedTokens.stats().missCount();
+    }
 
+    private Set<Role.RoleName> getRoles(Claims claims) {
+        List<?> roles = claims.get(ROLES_CLAIM, List.class);
+        if (roles == null) {
+            return null;
+        }
+        return roles.stream()
+                .map(role -> Role.RoleName.valueOf(role.toString()))
+                .collect(Collectors.toUnmodifiableSet());
     }
 
-    public boolean isValidToken(String token) {
-        Jws<Claims> claimsJws = Jwts.parser()
-                .verifyWith(secret)
-                .build()
-                .parseSignedClaims(token);
-        return !claimsJws.getPayload().getExpiration().before(new Date());
+    private Duration timeToLive(TokenClaims claims) {
+        Duration timeToLive = Duration.between(Instant.now(), claims.expiresAt());
+        return timeToLive.isNegative() ? Duration.ZERO : timeToLive;
     }
 
-    public String getUsername(String token) {
-        Jws<Claims> claimsJws = Jwts.parser()
-                .verifyWith(secret)
-                .build()
-                .parseSignedClaims(token);
-        return claimsJws.getPayload().getSubject();
+    private String hash(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
     }
 }
@@ -0,0 +1,59 @@
+package com.loievroman.carsharingapp.security;
+
+import jakarta.servlet.http.HttpServletRequest;
+import java.util.List;
+import org.springframework.http.HttpMethod;
+import org.springframework.security.web.servlet.util.matcher.PathPatternRequestMatcher;
+import org.springframework.security.web.util.matcher.OrRequestMatcher;
+import org.springframework.security.web.util.matcher.RequestMatcher;
+import org.springframework.stereotype.Component;
+import org.springframework.web.util.ServletRequestPathUtils;
+
+@Component
+public class PublicEndpoints implements RequestMatcher {
+    private static final PathPatternRequestMatcher.Builder PATHS =
+            PathPatternRequestMatcher.withDefaults();
+
+    private final List<RequestMatcher> matchers;
+    private final RequestMatcher anyMatcher;
+
+    public PublicEndpoints() {
+        this(List.of(
+                PATHS.matcher("/auth/**"),
+                PATHS.matcher("/error"),
+                PATHS.matcher("/swagger-ui/**"),
+                PATHS.matcher("/v3/api-docs/**"),
+                PATHS.matcher(HttpMethod.GET, "/payments/success"),
+                PATHS.matcher(HttpMethod.GET, "/payments/cancel"),
+                PATHS.matcher(HttpMethod.POST, "/payments/webhook"),
+                PATHS.matcher(HttpMethod.GET, "/cars"),
+                PATHS.matcher(HttpMethod.GET, "/cars/{id}"),
+                PATHS.matcher(HttpMethod.GET, "/cars/{id}/quote"),
+                PATHS.matcher("/actuator/health")
+        ));
+    }
+
+    PublicEndpoints(List<RequestMatcher> matchers) {
+        this.matchers = List.copyOf(matchers);
+        this.anyMatcher = matchers.isEmpty()
+                ? request -> false
+                : new OrRequestMatcher(this.matchers);
+    }
+
+    public RequestMatcher[] getMatchers() {
+        return matchers.toArray(RequestMatcher[]::new);
+    }
+
+    @Override
+    public boolean matches(HttpServletRequest request) {
+        if (ServletRequestPathUtils.hasParsedRequestPath(request)) {
+            return anyMatcher.matches(request);
+        }
+        ServletRequestPathUtils.parseAndCache(request);
+        try {
+            return anyMatcher.matches(request);
+        } finally {
+            ServletRequestPathUtils.clearParsedRequestPath(request);
+        }
+    }
+}
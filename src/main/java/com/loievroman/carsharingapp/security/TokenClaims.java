@@ -0,0 +1,21 @@
+package com.loievroman.carsharingapp.security;
+
+import com.loievroman.carsharingapp.model.Role;
+import java.time.Instant;
+import java.util.Set;
+
+public record TokenClaims(String subject,
+                          Instant issuedAt,
+                          Instant expiresAt,
+                          Long userId,
+                          Set<Role.RoleName> roles,
+                          Integer tokenVersion) {
+
+    public boolean isExpiredAt(Instant instant) {
+        return !expiresAt.isAfter(instant);
+    }
+
+    public boolean carriesAuthorities() {
+        return userId != null && tokenVersion != null && roles != null;
+    }
+}
@@ -0,0 +1,26 @@
+package com.loievroman.carsharingapp.security;
+
+import com.loievroman.carsharingapp.model.Role;
+import java.util.Set;
+import java.util.stream.Collectors;
+import lombok.Getter;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+@Getter
+public class TokenPrincipal implements UserPrincipal {
+    private final Long id;
+    private final String email;
+    private final Set<Role.RoleName> roles;
+    private final Set<GrantedAuthority> authorities;
+
+    public TokenPrincipal(Long id, String email, Set<Role.RoleName> roles) {
+        this.id = id;
+        this.email = email;
+        this.roles = Set.copyOf(roles);
+        this.authorities = roles.stream()
+                .<GrantedAuthority>map(roleName ->
+                        new SimpleGrantedAuthority("ROLE_" + roleName.name()))
+                .collect(Collectors.toUnmodifiableSet());
+    }
+}
@@ -0,0 +1,22 @@
+package com.loievroman.carsharingapp.security;
+
+import com.loievroman.carsharingapp.event.UserAccountChangedEvent;
+import com.loievroman.carsharingapp.model.User;
+import jakarta.persistence.PostRemove;
+import java.util.Set;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+public class UserEntityListener {
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    @PostRemove
+    public void onSoftDelete(User user) {
+        eventPublisher.publishEvent(
+                new UserAccountChangedEvent(user.getId(), Set.of(user.getEmail())));
+    }
+}
@@ -0,0 +1,13 @@
+package com.loievroman.carsharingapp.security;
+
+import java.util.Collection;
+import org.springframework.security.core.GrantedAuthority;
+
+public interface UserPrincipal {
+
+    Long getId();
+
+    String getEmail();
+
+    Collection<? extends GrantedAuthority> getAuthorities();
+}
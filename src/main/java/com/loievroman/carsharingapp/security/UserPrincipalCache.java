@@ -0,0 +1,48 @@
+package com.loievroman.carsharingapp.security;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.loievroman.carsharingapp.event.UserAccountChangedEvent;
+import com.loievroman.carsharingapp.exception.EntityNotFoundException;
+import com.loievroman.carsharingapp.model.User;
+import com.loievroman.carsharingapp.repository.UserRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.time.Duration;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+@Component
+public class UserPrincipalCache {
+    private static final String CACHE_NAME = "security.principals";
+
+    private final LoadingCache<String, User> principals;
+
+    public UserPrincipalCache(UserRepository userRepository,
+                              @Value("${security.principal-cache.ttl}") Duration ttl,
+                              @Value("${security.principal-cache.max-size}") long maxSize,
+                              MeterRegistry meterRegistry) {
+        this.principals = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumSize(maxSize)
+                .recordStats()
+                .build(email -> userRepository.findByEmail(email)
+                        .orElseThrow(() -> new EntityNotFoundException(
+                                "Can't find user by email=" + email)));
+        CaffeineCacheMetrics.monitor(meterRegistry, principals, CACHE_NAME);
+        Gauge.builder("cache.hit.ratio", principals, cache -> cache.stats().hitRate())
+                .tag("cache", CACHE_NAME)
+                .register(meterRegistry);
+    }
+
+    public User get(String email) {
+        return principals.get(email);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserAccountChanged(UserAccountChangedEvent event) {
+        principals.invalidateAll(event.emails());
+    }
+}
@@ -0,0 +1,43 @@
+package com.loievroman.carsharingapp.security;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.loievroman.carsharingapp.event.UserAccountChangedEvent;
+import com.loievroman.carsharingapp.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.time.Duration;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+@Component
+public class UserTokenVersions {
+    private static final String CACHE_NAME = "security.token-versions";
+    private static final int MISSING_USER = -1;
+
+    private final LoadingCache<Long, Integer> versions;
+
+    public UserTokenVersions(UserRepository userRepository,
+                             @Value("${jwt.token-versions.ttl}") Duration ttl,
+                             @Value("${jwt.token-versions.max-size}") long maxSize,
+                             MeterRegistry meterRegistry) {
+        this.versions = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumSize(maxSize)
+                .recordStats()
+                .build(userId -> userRepository.findTokenVersionById(userId)
+                        .orElse(MISSING_USER));
+        CaffeineCacheMetrics.monitor(meterRegistry, versions, CACHE_NAME);
+    }
+
+    public boolean isCurrent(Long userId, int tokenVersion) {
+        int currentVersion = versions.get(userId);
+        return currentVersion != MISSING_USER && currentVersion == tokenVersion;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserAccountChanged(UserAccountChangedEvent event) {
+        versions.invalidate(event.userId());
+    }
+}
@@ -0,0 +1,70 @@
+package com.loievroman.carsharingapp.service;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.loievroman.carsharingapp.repository.PaymentRepository;
+import com.loievroman.carsharingapp.repository.RentalRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.time.Duration;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+@Component
+public class ApproximateRowCounts {
+    private final RentalRepository rentalRepository;
+    private final PaymentRepository paymentRepository;
+    private final LoadingCache<CountKey, Long> counts;
+
+    public ApproximateRowCounts(RentalRepository rentalRepository,
+                                PaymentRepository paymentRepository,
+                                @Value("${pagination.approximate-count.refresh-after}")
+                                Duration refreshAfter,
+                                @Value("${pagination.approximate-count.expire-after}")
+                                Duration expireAfter,
+                                @Value("${pagination.approximate-count.max-size}") long maxSize,
+                                MeterRegistry meterRegistry) {
+        this.rentalRepository = rentalRepository;
+        this.paymentRepository = paymentRepository;
+        this.counts = Caffeine.newBuilder()
+                .refreshAfterWrite(refreshAfter)
+                .expireAfterAccess(expireAfter)
+                .maximumSize(maxSize)
+                .recordStats()
+                .build(this::count);
+        CaffeineCacheMetrics.monitor(meterRegistry, counts, "pagination.approximate-counts");
+    }
+
+    public long rentals(Long userId, boolean isActive) {
+        Source source = isActive ? Source.ACTIVE_RENTALS : Source.RETURNED_RENTALS;
+        return counts.get(new CountKey(source, userId));
+    }
+
+    public long payments(Long userId) {
+        return counts.get(new CountKey(Source.PAYMENTS, userId));
+    }
+
+    private long count(CountKey key) {
+        Long userId = key.userId();
+        return switch (key.source()) {
+            case ACTIVE_RENTALS -> userId == null
+                    ? rentalRepository.countByActualReturnDateIsNull()
+                    : rentalRepository.countByUserIdAndActualReturnDateIsNull(userId);
+            case RETURNED_RENTALS -> userId == null
+                    ? rentalRepository.countByActualReturnDateIsNotNull()
+                    : rentalRepository.countByUserIdAndActualReturnDateIsNotNull(userId);
+            case PAYMENTS -> userId == null
+                    ? paymentRepository.estimateRowCount().orElseGet(paymentRepository::count)
+                    : paymentRepository.countByRentalUserId(userId);
+        };
+    }
+
+    private enum Source {
+        ACTIVE_RENTALS,
+        RETURNED_RENTALS,
+        PAYMENTS
+    }
+
+    private record CountKey(Source source, Long userId) {
+    }
+}
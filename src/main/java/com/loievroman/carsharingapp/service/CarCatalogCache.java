@@ -0,0 +1,183 @@
+package com.loievroman.carsharingapp.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.loievroman.carsharingapp.dto.cache.CacheStatsDto;
+import com.loievroman.carsharingapp.dto.car.CarDto;
+import com.loievroman.carsharingapp.event.CarCatalogChangedEvent;
+import com.loievroman.carsharingapp.event.CarInventoryChangedEvent;
+import com.loievroman.carsharingapp.exception.EntityNotFoundException;
+import com.loievroman.carsharingapp.mapper.CarMapper;
+import com.loievroman.carsharingapp.model.Car;
+import com.loievroman.carsharingapp.repository.CarRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+@Component
+public class CarCatalogCache {
+    private static final String INVENTORY_PROPERTY = "inventory";
+
+    private final CarRepository carRepository;
+    private final CarMapper carMapper;
+    private final GuardedCache<CarDto> details;
+    private final GuardedCache<Integer> inventories;
+    private final Cache<PageKey, PageIds> pages;
+
+    public CarCatalogCache(CarRepository carRepository,
+                           CarMapper carMapper,
+                           @Value("${car.cache.details-ttl}") Duration detailsTtl,
+                           @Value("${car.cache.inventory-ttl}") Duration inventoryTtl,
+                           @Value("${car.cache.max-size}") long maxSize,
+                           @Value("${car.cache.pages.max-size}") long pagesMaxSize,
+                           MeterRegistry meterRegistry) {
+        this.carRepository = carRepository;
+        this.carMapper = carMapper;
+        this.details = new GuardedCache<>(Caffeine.newBuilder()
+                .expireAfterWrite(detailsTtl)
+                .maximumSize(maxSize)
+                .recordStats()
+                .build());
+        this.inventories = new GuardedCache<>(Caffeine.newBuilder()
+                .expireAfterWrite(inventoryTtl)
+                .maximumSize(maxSize)
+                .recordStats()
+                .build());
+        this.pages = Caffeine.newBuilder()
+                .expireAfterWrite(detailsTtl)
+                .maximumSize(pagesMaxSize)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, details.cache, "cars.details");
+        CaffeineCacheMetrics.monitor(meterRegistry, inventories.cache, "cars.inventory");
+        CaffeineCacheMetrics.monitor(meterRegistry, pages, "cars.pages");
+    }
+
+    public CarDto findById(Long id) {
+        List<CarDto> cars = findAllById(List.of(id));
+        if (cars.isEmpty()) {
+            throw new EntityNotFoundException("Cannot find car with id=" + id);
+        }
+        return cars.get(0);
+    }
+
+    public Page<CarDto> findAll(Pageable pageable) {
+        if (pageable.isUnpaged() || pageable.getSort().getOrderFor(INVENTORY_PROPERTY) != null) {
+            return carRepository.findAll(pageable).map(carMapper::toDto);
+        }
+        PageIds page = pages.get(PageKey.of(pageable),
+                key -> PageIds.of(carRepository.findAllIds(pageable)));
+        return new PageImpl<>(findAllById(page.ids()), pageable, page.total());
+    }
+
+    public Map<String, CacheStatsDto> getStats() {
+        Map<String, CacheStatsDto> stats = new LinkedHashMap<>();
+        stats.put("details", CacheStatsDto.of(details.cache));
+        stats.put("inventory", CacheStatsDto.of(inventories.cache));
+        stats.put("pages", CacheStatsDto.of(pages));
+        return stats;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCarCatalogChanged(CarCatalogChangedEvent event) {
+        details.invalidate(event.carId());
+        inventories.invalidate(event.carId());
+        pages.invalidateAll();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCarInventoryChanged(CarInventoryChangedEvent event) {
+        inventories.invalidate(event.carId());
+    }
+
+    private List<CarDto> findAllById(List<Long> ids) {
+        Map<Long, CarDto> cars = details.getAll(ids, this::loadDetails);
+        Map<Long, Integer> stock = inventories.getAll(List.copyOf(cars.keySet()),
+                this::loadInventories);
+        return ids.stream()
+                .filter(id -> cars.containsKey(id) && stock.containsKey(id))
+                .map(id -> carMapper.withInventory(cars.get(id), stock.get(id)))
+                .toList();
+    }
+
+    private Map<Long, CarDto> loadDetails(Set<Long> ids) {
+        Map<Long, CarDto> loaded = new HashMap<>();
+        for (Car car : carRepository.findAllById(List.copyOf(ids))) {
+            loaded.put(car.getId(), carMapper.toDto(car));
+        }
+        return loaded;
+    }
+
+    private Map<Long, Integer> loadInventories(Set<Long> ids) {
+        Map<Long, Integer> loaded = new HashMap<>();
+        for (CarRepository.InventoryView view
+                : carRepository.findInventoriesByIdIn(List.copyOf(ids))) {
+            loaded.put(view.getId(), view.getInventory());
+        }
+        return loaded;
+    }
+
+    private static final class GuardedCache<V> {
+        private final Cache<Long, V> cache;
+        private final Map<Long, Long> invalidatedAt = new ConcurrentHashMap<>();
+        private final AtomicLong generation = new AtomicLong();
+
+        private GuardedCache(Cache<Long, V> cache) {
+            this.cache = cache;
+        }
+
+        private Map<Long, V> getAll(List<Long> ids, Function<Set<Long>, Map<Long, V>> loader) {
+            Map<Long, V> found = new HashMap<>(cache.getAllPresent(ids));
+            Set<Long> missing = new HashSet<>(ids);
+            missing.removeAll(found.keySet());
+            if (missing.isEmpty()) {
+                return found;
+            }
+            final long loadedAt = generation.get();
+            Map<Long, V> loaded = loader.apply(missing);
+            loaded.forEach((id, value) -> invalidatedAt.compute(id, (key, invalidation) -> {
+                if (invalidation == null || invalidation <= loadedAt) {
+                    cache.put(key, value);
+                }
+                return invalidation;
+            }));
+            found.putAll(loaded);
+            return found;
+        }
+
+        private void invalidate(Long id) {
+            invalidatedAt.compute(id, (key, invalidation) -> {
+                cache.invalidate(key);
+                return generation.incrementAndGet();
+            });
+        }
+    }
+
+    private record PageKey(int page, int size, String sort) {
+        static PageKey of(Pageable pageable) {
+            return new PageKey(pageable.getPageNumber(), pageable.getPageSize(),
+                    pageable.getSort().toString());
+        }
+    }
+
+    private record PageIds(List<Long> ids, long total) {
+        static PageIds of(Page<Long> page) {
+            return new PageIds(List.copyOf(page.getContent()), page.getTotalElements());
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.loievroman.carsharingapp.service;
+
+import com.loievroman.carsharingapp.event.CarCatalogChangedEvent;
+import com.loievroman.carsharingapp.exception.EntityNotFoundException;
+import com.loievroman.carsharingapp.model.CarType;
+import com.loievroman.carsharingapp.pricing.MinorUnits;
+import com.loievroman.carsharingapp.repository.CarRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+@Component
+public class CarFeeTable {
+    private final CarRepository carRepository;
+    private final Map<Long, Entry> fees = new ConcurrentHashMap<>();
+    private final AtomicLong generation = new AtomicLong();
+    private final Counter misses;
+
+    public CarFeeTable(CarRepository carRepository, MeterRegistry meterRegistry) {
+        this.carRepository = carRepository;
+        this.misses = meterRegistry.counter("pricing.fee-table.misses");
+        Gauge.builder("pricing.fee-table.size", fees, Map::size).register(meterRegistry);
+    }
+
+    public Fee findByCarId(Long carId) {
+        Entry entry = fees.get(carId);
+        if (entry != null && entry.fee() != null) {
+            return entry.fee();
+        }
+        misses.increment();
+        final long loadedAt = generation.get();
+        List<CarRepository.FeeView> views = carRepository.findFeesByIdIn(List.of(carId));
+        if (views.isEmpty()) {
+            throw new EntityNotFoundException("Cannot find car with id=" + carId);
+        }
+        Fee fee = Fee.of(views.get(0));
+        store(carId, fee, loadedAt);
+        return fee;
+    }
+
+    public void refresh() {
+        final long loadedAt = generation.get();
+        Map<Long, Fee> loaded = new HashMap<>();
+        for (CarRepository.FeeView view : carRepository.findAllFees()) {
+            loaded.put(view.getId(), Fee.of(view));
+        }
+        fees.keySet().retainAll(loaded.keySet());
+        loaded.forEach((carId, fee) -> store(carId, fee, loadedAt));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCarCatalogChanged(CarCatalogChangedEvent event) {
+        fees.put(event.carId(), new Entry(null, generation.incrementAndGet()));
+    }
+
+    private void store(Long carId, Fee fee, long loadedAt) {
+        fees.compute(carId, (id, current) -> current != null && current.generation() > loadedAt
+                ? current
+                : new Entry(fee, loadedAt));
+    }
+
+    private record Entry(Fee fee, long generation) {
+    }
+
+    public record Fee(CarType carType, long dailyFeeCents) {
+        static Fee of(CarRepository.FeeView view) {
+            return new Fee(view.getType(), MinorUnits.toCents(view.getDailyFee()));
+        }
+    }
+}
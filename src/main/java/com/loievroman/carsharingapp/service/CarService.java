@@ -1,7 +1,10 @@
 package com.loievroman.carsharingapp.service;
 
 import com.loievroman.carsharingapp.dto.car.CarDto;
+import com.loievroman.carsharingapp.dto.car.CarQuoteDto;
 import com.loievroman.carsharingapp.dto.car.CreateCarRequestDto;
+import com.loievroman.carsharingapp.dto.page.CursorPageDto;
+import java.time.LocalDate;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
@@ -13,7 +16,11 @@ public interface CarService {
 
     Page<CarDto> findAll(Pageable pageable);
 
+    CursorPageDto<CarDto> findAll(String cursor, Pageable pageable);
+
     CarDto update(Long id, CreateCarRequestDto requestDto);
 
     void delete(Long id);
+
+    CarQuoteDto quote(Long id, LocalDate rentalDate, LocalDate returnDate);
 }
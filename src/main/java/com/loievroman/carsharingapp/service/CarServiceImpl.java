@@ -1,41 +1,70 @@
 package com.loievroman.carsharingapp.service;
 
 import com.loievroman.carsharingapp.dto.car.CarDto;
+import com.loievroman.carsharingapp.dto.car.CarQuoteDto;
 import com.loievroman.carsharingapp.dto.car.CreateCarRequestDto;
+import com.loievroman.carsharingapp.dto.page.CursorPageDto;
+import com.loievroman.carsharingapp.event.CarCatalogChangedEvent;
 import com.loievroman.carsharingapp.exception.EntityNotFoundException;
+import com.loievroman.carsharingapp.exception.InvalidRentalPeriodException;
 import com.loievroman.carsharingapp.mapper.CarMapper;
 import com.loievroman.carsharingapp.model.Car;
+import com.loievroman.carsharingapp.pagination.KeysetCursorCodec;
+import com.loievroman.carsharingapp.pagination.KeysetQuery;
+import com.loievroman.carsharingapp.pricing.MinorUnits;
+import com.loievroman.carsharingapp.pricing.PricingEngine;
 import com.loievroman.carsharingapp.repository.CarRepository;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Map;
 import java.util.Optional;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Window;
 import org.springframework.stereotype.Service;
 
 @RequiredArgsConstructor
 @Service
 public class CarServiceImpl implements CarService {
+    private static final Map<String, Class<?>> CURSOR_SORT_PROPERTIES = Map.of(
+            "id", Long.class,
+            "brand", String.class,
+            "model", String.class,
+            "dailyFee", BigDecimal.class
+    );
     private final CarRepository carRepository;
     private final CarMapper carMapper;
+    private final CarCatalogCache carCatalogCache;
+    private final ApplicationEventPublisher eventPublisher;
+    private final KeysetCursorCodec keysetCursorCodec;
+    private final CarFeeTable carFeeTable;
+    private final PricingEngine pricingEngine;
 
     @Override
     public CarDto create(CreateCarRequestDto createCarRequestDto) {
         Car model = carMapper.toModel(createCarRequestDto);
-        return carMapper.toDto(carRepository.save(model));
+        Car savedCar = carRepository.save(model);
+        eventPublisher.publishEvent(new CarCatalogChangedEvent(savedCar.getId()));
+        return carMapper.toDto(savedCar);
     }
 
     @Override
     public CarDto findById(Long id) {
-        Optional<Car> optionalCar = carRepository.findById(id);
-        Car car = optionalCar
-                .orElseThrow(() -> new EntityNotFoundException("Cannot find car with id=" + id));
-        return carMapper.toDto(car);
+        return carCatalogCache.findById(id);
     }
 
     @Override
     public Page<CarDto> findAll(Pageable pageable) {
-        Page<Car> carPage = carRepository.findAll(pageable);
-        return carPage.map(carMapper::toDto);
+        return carCatalogCache.findAll(pageable);
+    }
+
+    @Override
+    public CursorPageDto<CarDto> findAll(String cursor, Pageable pageable) {
+        KeysetQuery query = keysetCursorCodec.decode(cursor, pageable, CURSOR_SORT_PROPERTIES);
+        Window<Car> cars = carRepository.findAllBy(query.position(), query.limit(), query.sort());
+        return keysetCursorCodec.toPage(cars, query, carMapper::toDto);
     }
 
     @Override
@@ -46,6 +75,7 @@ public class CarServiceImpl implements CarService {
         ));
         Car updatedCar = carMapper.updateEntity(requestDto, foundedCar);
         carRepository.save(updatedCar);
+        eventPublisher.publishEvent(new CarCatalogChangedEvent(id));
         return carMapper.toDto(updatedCar);
     }
 
@@ -55,5 +85,24 @@ public class CarServiceImpl implements CarService {
             throw new EntityNotFoundException("Car not found with id: " + id);
         }
         carRepository.deleteById(id);
+        eventPublisher.publishEvent(new CarCatalogChangedEvent(id));
+    }
+
+    @Override
+    public CarQuoteDto quote(Long id, LocalDate rentalDate, LocalDate returnDate) {
+        if (returnDate.isBefore(rentalDate)) {
+            throw new InvalidRentalPeriodException(
+                    "Return date " + returnDate + " is before rental date " + rentalDate);
+        }
+        CarFeeTable.Fee fee = carFeeTable.findByCarId(id);
+        long totalCents = pricingEngine.rentalCents(fee.carType(), fee.dailyFeeCents(),
+                rentalDate, returnDate);
+        return new CarQuoteDto()
+                .setCarId(id)
+                .setRentalDate(rentalDate)
+                .setReturnDate(returnDate)
+                .setDays(PricingEngine.rentalDays(rentalDate, returnDate))
+                .setDailyFee(MinorUnits.toAmount(fee.dailyFeeCents()))
+                .setTotal(MinorUnits.toAmount(totalCents));
     }
 }
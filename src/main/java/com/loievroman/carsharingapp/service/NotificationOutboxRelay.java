@@ -0,0 +1,327 @@
+package com.loievroman.carsharingapp.service;
+
+import com.loievroman.carsharingapp.config.NotificationExecutorConfig;
+import com.loievroman.carsharingapp.event.NotificationEvent;
+import com.loievroman.carsharingapp.exception.TelegramRateLimitedException;
+import com.loievroman.carsharingapp.model.NotificationOutboxMessage;
+import com.loievroman.carsharingapp.repository.NotificationOutboxRepository;
+import com.loievroman.carsharingapp.telegram.TelegramSender;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@Component
+public class NotificationOutboxRelay {
+    private static final String SEPARATOR = "\n\n";
+    private static final int PURGE_BATCHES_PER_RUN = 20;
+
+    private final NotificationOutboxRepository outboxRepository;
+    private final TelegramSender telegramSender;
+    private final Executor notificationExecutor;
+    private final ExecutorService relayTrigger;
+    private final TransactionTemplate transactionTemplate;
+    private final String chatId;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final Duration initialBackoff;
+    private final Duration maxBackoff;
+    private final Duration lease;
+    private final Duration retention;
+    private final int purgeBatchSize;
+    private final Counter delivered;
+    private final Counter retried;
+    private final Counter failed;
+    private final Counter deferred;
+    private final Counter rejected;
+    private final Counter purged;
+
+    public NotificationOutboxRelay(
+            NotificationOutboxRepository outboxRepository,
+            TelegramSender telegramSender,
+            @Qualifier(NotificationExecutorConfig.NOTIFICATION_EXECUTOR)
+            Executor notificationExecutor,
+            TransactionTemplate transactionTemplate,
+            MeterRegistry meterRegistry,
+            @Value("${telegram.chat.id}") String chatId,
+            @Value("${notification.outbox.batch-size}") int batchSize,
+            @Value("${notification.outbox.max-attempts}") int maxAttempts,
+            @Value("${notification.outbox.initial-backoff}") Duration initialBackoff,
+            @Value("${notification.outbox.max-backoff}") Duration maxBackoff,
+            @Value("${notification.outbox.lease}") Duration lease,
+            @Value("${notification.outbox.retention}") Duration retention,
+            @Value("${notification.outbox.purge-batch-size}") int purgeBatchSize) {
+        this(outboxRepository, telegramSender, notificationExecutor,
+                new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+                        new ArrayBlockingQueue<>(1),
+                        new CustomizableThreadFactory("notification-relay-"),
+                        new ThreadPoolExecutor.DiscardPolicy()),
+                transactionTemplate, meterRegistry, chatId, batchSize, maxAttempts,
+                initialBackoff, maxBackoff, lease, retention, purgeBatchSize);
+    }
+
+    NotificationOutboxRelay(NotificationOutboxRepository outboxRepository,
+                            TelegramSender telegramSender,
+                            Executor notificationExecutor,
+                            ExecutorService relayTrigger,
+                            TransactionTemplate transactionTemplate,
+                            MeterRegistry meterRegistry,
+                            String chatId,
+                            int batchSize,
+                            int maxAttempts,
+                            Duration initialBackoff,
+                            Duration maxBackoff,
+                            Duration lease,
+                            Duration retention,
+                            int purgeBatchSize) {
+        this.outboxRepository = outboxRepository;
+        this.telegramSender = telegramSender;
+        this.notificationExecutor = notificationExecutor;
+        this.relayTrigger = relayTrigger;
+        this.transactionTemplate = transactionTemplate;
+        this.chatId = chatId;
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.initialBackoff = initialBackoff;
+        this.maxBackoff = maxBackoff;
+        this.lease = lease;
+        this.retention = retention;
+        this.purgeBatchSize = purgeBatchSize;
+        this.delivered = outcomeCounter(meterRegistry, "delivered");
+        this.retried = outcomeCounter(meterRegistry, "retried");
+        this.failed = outcomeCounter(meterRegistry, "failed");
+        this.deferred = outcomeCounter(meterRegistry, "deferred");
+        this.rejected = outcomeCounter(meterRegistry, "rejected");
+        this.purged = outcomeCounter(meterRegistry, "purged");
+    }
+
+    public int relay() {
+        int total = 0;
+        int claimed;
+        do {
+            claimed = relayBatch();
+            total += claimed;
+        } while (claimed == batchSize && !Thread.currentThread().isInterrupted());
+        return total;
+    }
+
+    public int purgeSettled() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(retention);
+        int total = 0;
+        int deleted;
+        int batches = 0;
+        do {
+            deleted = outboxRepository.deleteSettledBefore(cutoff, purgeBatchSize);
+            purged.increment(deleted);
+            total += deleted;
+            batches++;
+        } while (deleted == purgeBatchSize && batches < PURGE_BATCHES_PER_RUN
+                && !Thread.currentThread().isInterrupted());
+        return total;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onNotificationEvent(NotificationEvent event) {
+        relayTrigger.execute(this::relay);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        relayTrigger.shutdown();
+    }
+
+    private int relayBatch() {
+        List<ClaimedMessage> claimed = transactionTemplate.execute(status -> claim());
+        if (claimed == null || claimed.isEmpty()) {
+            return 0;
+        }
+
+        Map<Delivery, CompletableFuture<Void>> deliveries = new LinkedHashMap<>();
+        for (Delivery delivery : coalesce(claimed)) {
+            deliveries.put(delivery, deliver(delivery));
+        }
+        long deadline = System.nanoTime() + lease.toNanos();
+        Outcomes outcomes = new Outcomes();
+        for (Map.Entry<Delivery, CompletableFuture<Void>> delivery : deliveries.entrySet()) {
+            outcomes.add(delivery.getKey(), await(delivery.getValue(), deadline));
+        }
+
+        transactionTemplate.execute(status -> settle(outcomes));
+        return claimed.size();
+    }
+
+    static List<Delivery> coalesce(List<ClaimedMessage> messages) {
+        List<Delivery> deliveries = new ArrayList<>();
+        List<ClaimedMessage> members = new ArrayList<>();
+        StringBuilder text = new StringBuilder();
+        for (ClaimedMessage message : messages) {
+            boolean fits = text.isEmpty() || text.length() + SEPARATOR.length()
+                    + message.text().length() <= TelegramSender.MAX_MESSAGE_LENGTH;
+            if (!fits) {
+                deliveries.add(new Delivery(List.copyOf(members), text.toString()));
+                members.clear();
+                text.setLength(0);
+            }
+            if (!text.isEmpty()) {
+                text.append(SEPARATOR);
+            }
+            text.append(message.text());
+            members.add(message);
+        }
+        if (!members.isEmpty()) {
+            deliveries.add(new Delivery(List.copyOf(members), text.toString()));
+        }
+        return deliveries;
+    }
+
+    private List<ClaimedMessage> claim() {
+        LocalDateTime now = LocalDateTime.now();
+        List<NotificationOutboxMessage> due = outboxRepository.claimDue(now, batchSize);
+        if (due.isEmpty()) {
+            return List.of();
+        }
+        outboxRepository.lease(due.stream().map(NotificationOutboxMessage::getId).toList(),
+                now.plus(lease));
+        return due.stream()
+                .map(message -> new ClaimedMessage(message.getId(), message.getMessage(),
+                        message.getAttempts() + 1))
+                .toList();
+    }
+
+    private CompletableFuture<Void> deliver(Delivery delivery) {
+        SendTask task = new SendTask(() -> telegramSender.send(chatId, delivery.text()));
+        try {
+            notificationExecutor.execute(task);
+        } catch (RuntimeException e) {
+            task.result.completeExceptionally(e);
+        }
+        return task.result;
+    }
+
+    private Throwable await(CompletableFuture<Void> delivery, long deadline) {
+        try {
+            delivery.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            return null;
+        } catch (ExecutionException e) {
+            return e.getCause();
+        } catch (TimeoutException e) {
+            return e;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return e;
+        }
+    }
+
+    private int settle(Outcomes outcomes) {
+        int markedDelivered = 0;
+        if (!outcomes.deliveredIds.isEmpty()) {
+            markedDelivered = outboxRepository.markDelivered(outcomes.deliveredIds,
+                    LocalDateTime.now());
+            delivered.increment(markedDelivered);
+        }
+        if (!outcomes.deferredIds.isEmpty()) {
+            deferred.increment(outboxRepository.defer(outcomes.deferredIds,
+                    LocalDateTime.now().plus(outcomes.retryAfter)));
+        }
+        if (!outcomes.rejectedIds.isEmpty()) {
+            rejected.increment(outboxRepository.defer(outcomes.rejectedIds,
+                    LocalDateTime.now()));
+        }
+        List<Long> exhaustedIds = new ArrayList<>();
+        for (ClaimedMessage message : outcomes.undelivered) {
+            if (message.attempts() >= maxAttempts) {
+                exhaustedIds.add(message.id());
+            } else {
+                retried.increment(outboxRepository.scheduleRetry(message.id(),
+                        LocalDateTime.now().plus(backoff(message.attempts()))));
+            }
+        }
+        if (!exhaustedIds.isEmpty()) {
+            failed.increment(outboxRepository.markFailed(exhaustedIds));
+        }
+        return markedDelivered;
+    }
+
+    Duration backoff(int attempts) {
+        int doublings = Math.min(attempts - 1, 30);
+        Duration delay = initialBackoff.multipliedBy(1L << doublings);
+        return delay.compareTo(maxBackoff) > 0 ? maxBackoff : delay;
+    }
+
+    private Counter outcomeCounter(MeterRegistry meterRegistry, String outcome) {
+        return meterRegistry.counter("notification.outbox.messages", "outcome", outcome);
+    }
+
+    record ClaimedMessage(Long id, String text, int attempts) {
+    }
+
+    record Delivery(List<ClaimedMessage> members, String text) {
+    }
+
+    private static final class SendTask implements NotificationExecutorConfig.RejectableTask {
+        private final CompletableFuture<Void> result = new CompletableFuture<>();
+        private final Runnable send;
+
+        private SendTask(Runnable send) {
+            this.send = send;
+        }
+
+        @Override
+        public void run() {
+            try {
+                send.run();
+                result.complete(null);
+            } catch (RuntimeException e) {
+                result.completeExceptionally(e);
+            }
+        }
+
+        @Override
+        public void reject(RejectedExecutionException cause) {
+            result.completeExceptionally(cause);
+        }
+    }
+
+    private static final class Outcomes {
+        private final List<Long> deliveredIds = new ArrayList<>();
+        private final List<Long> deferredIds = new ArrayList<>();
+        private final List<Long> rejectedIds = new ArrayList<>();
+        private final List<ClaimedMessage> undelivered = new ArrayList<>();
+        private Duration retryAfter = Duration.ZERO;
+
+        private void add(Delivery delivery, Throwable failure) {
+            if (failure == null) {
+                delivery.members().forEach(message -> deliveredIds.add(message.id()));
+            } else if (failure instanceof RejectedExecutionException) {
+                delivery.members().forEach(message -> rejectedIds.add(message.id()));
+            } else if (failure instanceof TelegramRateLimitedException rateLimited) {
+                delivery.members().forEach(message -> deferredIds.add(message.id()));
+                if (rateLimited.getRetryAfter().compareTo(retryAfter) > 0) {
+                    retryAfter = rateLimited.getRetryAfter();
+                }
+            } else {
+                undelivered.addAll(delivery.members());
+            }
+        }
+    }
+}
@@ -1,17 +1,22 @@
 package com.loievroman.carsharingapp.service;
 
-import com.loievroman.carsharingapp.model.Payment;
-import com.loievroman.carsharingapp.model.Rental;
+import com.loievroman.carsharingapp.event.PaymentConfirmedEvent;
+import com.loievroman.carsharingapp.event.RentalCreatedEvent;
+import com.loievroman.carsharingapp.event.RentalReturnedEvent;
+import com.loievroman.carsharingapp.repository.RentalRepository;
+import java.util.List;
 
 public interface NotificationService {
 
-    void sendNewRentalNotification(Rental rental);
+    void sendNewRentalNotification(RentalCreatedEvent event);
 
     void sendNotification(String text);
 
-    void sendPaymentConfirmedNotification(Payment payment);
+    void sendPaymentConfirmedNotification(PaymentConfirmedEvent event);
 
-    void sendOverdueRentalReminder(Rental rental);
+    void sendOverdueRentalReminder(RentalRepository.OverdueRentalView rental);
 
-    void sendRentalReturnedNotification(Rental rental);
+    void sendOverdueRentalDigest(List<RentalRepository.OverdueRentalView> rentals, int page);
+
+    void sendRentalReturnedNotification(RentalReturnedEvent event);
 }
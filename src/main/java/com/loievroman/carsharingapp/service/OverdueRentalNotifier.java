@@ -0,0 +1,118 @@
+package com.loievroman.carsharingapp.service;
+
+import com.loievroman.carsharingapp.repository.RentalRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.time.LocalDate;
+import java.util.List;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@Component
+public class OverdueRentalNotifier {
+    static final String NO_OVERDUE_RENTALS = "No overdue rentals for today!";
+
+    private final RentalRepository rentalRepository;
+    private final NotificationService notificationService;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean digest;
+    private final int chunkSize;
+    private final int digestPageSize;
+    private final Counter rentals;
+    private final Counter messages;
+    private final Timer runs;
+    private final DistributionSummary allocated;
+
+    public OverdueRentalNotifier(
+            RentalRepository rentalRepository,
+            NotificationService notificationService,
+            TransactionTemplate transactionTemplate,
+            MeterRegistry meterRegistry,
+            @Value("${rental.overdue.digest}") boolean digest,
+            @Value("${rental.overdue.chunk-size}") int chunkSize,
+            @Value("${rental.overdue.digest-page-size}") int digestPageSize) {
+        this.rentalRepository = rentalRepository;
+        this.notificationService = notificationService;
+        this.transactionTemplate = transactionTemplate;
+        this.digest = digest;
+        this.chunkSize = chunkSize;
+        this.digestPageSize = digestPageSize;
+        this.rentals = meterRegistry.counter("rental.overdue.rentals");
+        this.messages = meterRegistry.counter("rental.overdue.messages");
+        this.runs = meterRegistry.timer("rental.overdue.runs");
+        this.allocated = DistributionSummary.builder("rental.overdue.run.allocated")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    public int notifyOverdueRentals() {
+        long allocatedBefore = allocatedBytes();
+        try {
+            return runs.record(this::notifyInChunks);
+        } finally {
+            long allocatedAfter = allocatedBytes();
+            if (allocatedBefore >= 0 && allocatedAfter >= 0) {
+                allocated.record(allocatedAfter - allocatedBefore);
+            }
+        }
+    }
+
+    private int notifyInChunks() {
+        LocalDate today = LocalDate.now();
+        long afterId = 0;
+        int total = 0;
+        int page = 0;
+        while (!Thread.currentThread().isInterrupted()) {
+            List<RentalRepository.OverdueRentalView> chunk = rentalRepository
+                    .findOverdueRentals(today, afterId, Limit.of(chunkSize));
+            if (chunk.isEmpty()) {
+                break;
+            }
+            final int firstPage = page + 1;
+            page += transactionTemplate.execute(status -> notifyChunk(chunk, firstPage));
+            total += chunk.size();
+            rentals.increment(chunk.size());
+            afterId = chunk.get(chunk.size() - 1).getId();
+            if (chunk.size() < chunkSize) {
+                break;
+            }
+        }
+        if (total == 0) {
+            notificationService.sendNotification(NO_OVERDUE_RENTALS);
+            messages.increment();
+        }
+        return total;
+    }
+
+    private int notifyChunk(List<RentalRepository.OverdueRentalView> chunk, int firstPage) {
+        if (!digest) {
+            chunk.forEach(notificationService::sendOverdueRentalReminder);
+            messages.increment(chunk.size());
+            return 0;
+        }
+        int pages = 0;
+        for (int from = 0; from < chunk.size(); from += digestPageSize) {
+            notificationService.sendOverdueRentalDigest(
+                    chunk.subList(from, Math.min(from + digestPageSize, chunk.size())),
+                    firstPage + pages);
+            pages++;
+        }
+        messages.increment(pages);
+        return pages;
+    }
+
+    private long allocatedBytes() {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        if (threads instanceof com.sun.management.ThreadMXBean allocations
+                && allocations.isThreadAllocatedMemoryEnabled()) {
+            return allocations.getCurrentThreadAllocatedBytes();
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,277 @@
+package com.loievroman.carsharingapp.service;
+
+import com.loievroman.carsharingapp.dto.payment.ReconciliationReportDto;
+import com.loievroman.carsharingapp.event.PaymentConfirmedEvent;
+import com.loievroman.carsharingapp.event.PaymentSettledEvent;
+import com.loievroman.carsharingapp.model.PaymentStatus;
+import com.loievroman.carsharingapp.model.ReconciliationCursor;
+import com.loievroman.carsharingapp.payment.CheckoutSessionPage;
+import com.loievroman.carsharingapp.payment.CheckoutSessionSummary;
+import com.loievroman.carsharingapp.payment.PaymentGateway;
+import com.loievroman.carsharingapp.repository.CheckoutBatchRepository;
+import com.loievroman.carsharingapp.repository.PaymentRepository;
+import com.loievroman.carsharingapp.repository.ReconciliationCursorRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@Component
+public class PaymentReconciler {
+    static final String CURSOR_NAME = "checkout-sessions";
+
+    private final PaymentGateway paymentGateway;
+    private final PaymentRepository paymentRepository;
+    private final CheckoutBatchRepository checkoutBatchRepository;
+    private final ReconciliationCursorRepository cursorRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Duration settleLag;
+    private final Duration initialLookback;
+    private final int pageSize;
+    private final int maxPagesPerRun;
+    private final AtomicReference<ReconciliationReportDto> lastReport = new AtomicReference<>();
+    private final Counter scanned;
+    private final Counter unknown;
+    private final Counter correctedToPaid;
+    private final Counter correctedToExpired;
+    private final Counter conflicts;
+    private final Timer runs;
+
+    public PaymentReconciler(
+            PaymentGateway paymentGateway,
+            PaymentRepository paymentRepository,
+            CheckoutBatchRepository checkoutBatchRepository,
+            ReconciliationCursorRepository cursorRepository,
+            TransactionTemplate transactionTemplate,
+            ApplicationEventPublisher eventPublisher,
+            MeterRegistry meterRegistry,
+            @Value("${payment.reconciliation.settle-lag}") Duration settleLag,
+            @Value("${payment.reconciliation.initial-lookback}") Duration initialLookback,
+            @Value("${payment.reconciliation.page-size}") int pageSize,
+            @Value("${payment.reconciliation.max-pages-per-run}") int maxPagesPerRun) {
+        this.paymentGateway = paymentGateway;
+        this.paymentRepository = paymentRepository;
+        this.checkoutBatchRepository = checkoutBatchRepository;
+        this.cursorRepository = cursorRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.eventPublisher = eventPublisher;
+        this.settleLag = settleLag;
+        this.initialLookback = initialLookback;
+        this.pageSize = pageSize;
+        this.maxPagesPerRun = maxPagesPerRun;
+        this.scanned = sessionCounter(meterRegistry, "scanned");
+        this.unknown = sessionCounter(meterRegistry, "unknown");
+        this.correctedToPaid = sessionCounter(meterRegistry, "corrected-paid");
+        this.correctedToExpired = sessionCounter(meterRegistry, "corrected-expired");
+        this.conflicts = sessionCounter(meterRegistry, "conflict");
+        this.runs = meterRegistry.timer("payment.reconciliation.runs");
+    }
+
+    public ReconciliationReportDto reconcile() {
+        return runs.record(this::reconcilePages);
+    }
+
+    public Optional<ReconciliationReportDto> getLastReport() {
+        return Optional.ofNullable(lastReport.get());
+    }
+
+    private ReconciliationReportDto reconcilePages() {
+        ReconciliationCursor cursor = cursorRepository.findById(CURSOR_NAME)
+                .orElseGet(this::newCursor);
+        if (cursor.getStartingAfter() == null) {
+            long settledBefore = Instant.now().minus(settleLag).getEpochSecond();
+            cursor.setWindowEnd(Math.max(cursor.getWindowStart(), settledBefore));
+        }
+        final long windowStart = cursor.getWindowStart();
+        final long windowEnd = cursor.getWindowEnd();
+
+        PageOutcome total = PageOutcome.EMPTY;
+        int pages = 0;
+        boolean windowCompleted = windowStart >= windowEnd;
+        while (!windowCompleted && pages < maxPagesPerRun
+                && !Thread.currentThread().isInterrupted()) {
+            CheckoutSessionPage page = paymentGateway.listCheckoutSessions(
+                    windowStart, windowEnd, cursor.getStartingAfter(), pageSize);
+            windowCompleted = !page.hasMore() || page.sessions().isEmpty();
+            final boolean lastPage = windowCompleted;
+            PageOutcome outcome = transactionTemplate.execute(
+                    status -> applyPage(page, cursor, lastPage));
+            record(outcome);
+            total = total.plus(outcome);
+            pages++;
+        }
+
+        ReconciliationReportDto report = new ReconciliationReportDto(LocalDateTime.now(),
+                Instant.ofEpochSecond(windowStart), Instant.ofEpochSecond(windowEnd),
+                windowCompleted, pages, total.scanned(), total.matched(), total.unknown(),
+                total.correctedToPaid(), total.correctedToExpired(), total.conflicts());
+        lastReport.set(report);
+        return report;
+    }
+
+    private PageOutcome applyPage(CheckoutSessionPage page,
+                                  ReconciliationCursor cursor,
+                                  boolean lastPage) {
+        List<CheckoutSessionSummary> sessions = page.sessions();
+        final PageOutcome outcome = sessions.isEmpty() ? PageOutcome.EMPTY : correct(sessions);
+        if (lastPage) {
+            cursor.setWindowStart(cursor.getWindowEnd());
+            cursor.setStartingAfter(null);
+        } else {
+            cursor.setStartingAfter(sessions.get(sessions.size() - 1).id());
+        }
+        cursor.setUpdatedAt(LocalDateTime.now());
+        cursorRepository.save(cursor);
+        return outcome;
+    }
+
+    private PageOutcome correct(List<CheckoutSessionSummary> sessions) {
+        Map<String, PaymentRepository.SessionStatusView> payments = new HashMap<>();
+        paymentRepository.findSessionStatusesBySessionIdIn(
+                        sessions.stream().map(CheckoutSessionSummary::id).toList())
+                .forEach(view -> payments.put(view.getSessionId(), view));
+        List<String> unmatched = sessions.stream()
+                .map(CheckoutSessionSummary::id)
+                .filter(sessionId -> !payments.containsKey(sessionId))
+                .toList();
+        Map<String, CheckoutBatchRepository.SessionStatusView> batches = new HashMap<>();
+        if (!unmatched.isEmpty()) {
+            checkoutBatchRepository.findSessionStatusesBySessionIdIn(unmatched)
+                    .forEach(view -> batches.put(view.getSessionId(), view));
+        }
+
+        Corrections paymentCorrections = new Corrections();
+        Corrections batchCorrections = new Corrections();
+        for (CheckoutSessionSummary session : sessions) {
+            PaymentRepository.SessionStatusView payment = payments.get(session.id());
+            CheckoutBatchRepository.SessionStatusView batch = batches.get(session.id());
+            if (payment != null) {
+                paymentCorrections.add(session, payment.getId(), payment.getStatus());
+            } else if (batch != null) {
+                batchCorrections.add(session, batch.getId(), batch.getStatus());
+            }
+        }
+
+        final List<Long> paidPaymentIds = lockAndUpdate(paymentRepository::lockUnpaidIds,
+                paymentRepository::markPaid, paymentCorrections.paid.keySet());
+        final List<Long> expiredPaymentIds = lockAndUpdate(paymentRepository::lockPendingIds,
+                paymentRepository::expirePending, paymentCorrections.expired.keySet());
+        final List<Long> paidBatchIds = lockAndUpdate(checkoutBatchRepository::lockUnpaidIds,
+                checkoutBatchRepository::markPaid, batchCorrections.paid.keySet());
+        final List<Long> expiredBatchIds = lockAndUpdate(checkoutBatchRepository::lockPendingIds,
+                checkoutBatchRepository::expirePending, batchCorrections.expired.keySet());
+        final List<Long> confirmedIds = new ArrayList<>(paidPaymentIds);
+        if (!paidBatchIds.isEmpty()) {
+            confirmedIds.addAll(lockAndUpdate(paymentRepository::lockUnpaidIds,
+                    paymentRepository::markPaid,
+                    checkoutBatchRepository.findPaymentIdsByBatchIdIn(paidBatchIds)));
+        }
+
+        publishConfirmed(confirmedIds);
+        publishSettled(paymentCorrections.paid, paidPaymentIds, PaymentStatus.PAID);
+        publishSettled(paymentCorrections.expired, expiredPaymentIds, PaymentStatus.EXPIRED);
+        publishSettled(batchCorrections.paid, paidBatchIds, PaymentStatus.PAID);
+        publishSettled(batchCorrections.expired, expiredBatchIds, PaymentStatus.EXPIRED);
+
+        int matched = payments.size() + batches.size();
+        return new PageOutcome(sessions.size(), matched, sessions.size() - matched,
+                paidPaymentIds.size() + paidBatchIds.size(),
+                expiredPaymentIds.size() + expiredBatchIds.size(),
+                paymentCorrections.conflicts + batchCorrections.conflicts);
+    }
+
+    private List<Long> lockAndUpdate(Function<Collection<Long>, List<Long>> lock,
+                                     ToIntFunction<Collection<Long>> update,
+                                     Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        List<Long> lockedIds = lock.apply(ids);
+        if (!lockedIds.isEmpty()) {
+            update.applyAsInt(lockedIds);
+        }
+        return lockedIds;
+    }
+
+    private void publishConfirmed(List<Long> paymentIds) {
+        if (!paymentIds.isEmpty()) {
+            paymentRepository.findAllWithRentalByIdIn(paymentIds).forEach(payment ->
+                    eventPublisher.publishEvent(PaymentConfirmedEvent.from(payment)));
+        }
+    }
+
+    private void publishSettled(Map<Long, String> sessionIds,
+                                List<Long> settledIds,
+                                PaymentStatus status) {
+        settledIds.forEach(id -> eventPublisher.publishEvent(
+                new PaymentSettledEvent(sessionIds.get(id), status)));
+    }
+
+    private void record(PageOutcome outcome) {
+        scanned.increment(outcome.scanned());
+        unknown.increment(outcome.unknown());
+        correctedToPaid.increment(outcome.correctedToPaid());
+        correctedToExpired.increment(outcome.correctedToExpired());
+        conflicts.increment(outcome.conflicts());
+    }
+
+    private ReconciliationCursor newCursor() {
+        ReconciliationCursor cursor = new ReconciliationCursor();
+        cursor.setName(CURSOR_NAME);
+        cursor.setWindowStart(Instant.now().minus(initialLookback).getEpochSecond());
+        return cursor;
+    }
+
+    private Counter sessionCounter(MeterRegistry meterRegistry, String outcome) {
+        return meterRegistry.counter("payment.reconciliation.sessions", "outcome", outcome);
+    }
+
+    private static final class Corrections {
+        private final Map<Long, String> paid = new LinkedHashMap<>();
+        private final Map<Long, String> expired = new LinkedHashMap<>();
+        private long conflicts;
+
+        private void add(CheckoutSessionSummary session, Long id, PaymentStatus localStatus) {
+            if (session.isPaid() && localStatus != PaymentStatus.PAID) {
+                paid.put(id, session.id());
+            } else if (session.isExpired() && localStatus == PaymentStatus.PENDING) {
+                expired.put(id, session.id());
+            } else if (!session.isPaid() && localStatus == PaymentStatus.PAID) {
+                conflicts++;
+            }
+        }
+    }
+
+    private record PageOutcome(long scanned,
+                               long matched,
+                               long unknown,
+                               long correctedToPaid,
+                               long correctedToExpired,
+                               long conflicts) {
+        private static final PageOutcome EMPTY = new PageOutcome(0, 0, 0, 0, 0, 0);
+
+        private PageOutcome plus(PageOutcome other) {
+            return new PageOutcome(scanned + other.scanned, matched + other.matched,
+                    unknown + other.unknown, correctedToPaid + other.correctedToPaid,
+                    correctedToExpired + other.correctedToExpired,
+                    conflicts + other.conflicts);
+        }
+    }
+}
@@ -1,9 +1,14 @@
 package com.loievroman.carsharingapp.service;
 
+import com.loievroman.carsharingapp.dto.page.CursorPageDto;
+import com.loievroman.carsharingapp.dto.page.SliceDto;
+import com.loievroman.carsharingapp.dto.payment.BatchPaymentResponseDto;
+import com.loievroman.carsharingapp.dto.payment.CreateBatchPaymentRequestDto;
 import com.loievroman.carsharingapp.dto.payment.CreatePaymentRequestDto;
 import com.loievroman.carsharingapp.dto.payment.PaymentDto;
 import com.loievroman.carsharingapp.dto.payment.PaymentResponseDto;
 import com.loievroman.carsharingapp.dto.payment.PaymentStatusResponseDto;
+import com.loievroman.carsharingapp.pagination.CountMode;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.web.util.UriComponentsBuilder;
@@ -11,12 +16,24 @@ import org.springframework.web.util.UriComponentsBuilder;
 public interface PaymentService {
     Page<PaymentDto> findByUserId(Long userId, Pageable pageable);
 
+    CursorPageDto<PaymentDto> findByUserId(Long userId, String cursor, Pageable pageable);
+
+    SliceDto<PaymentDto> findByUserId(Long userId, Pageable pageable, CountMode countMode);
+
     PaymentStatusResponseDto handleSuccessfulPayment(String sessionId);
 
     PaymentResponseDto createPaymentSession(CreatePaymentRequestDto requestDto,
                                            UriComponentsBuilder uriComponentsBuilder);
 
+    BatchPaymentResponseDto createBatchPaymentSession(Long userId,
+                                                      CreateBatchPaymentRequestDto requestDto,
+                                                      UriComponentsBuilder uriComponentsBuilder);
+
     PaymentStatusResponseDto handleCancelledPayment(String sessionId);
 
     Page<PaymentDto> findAll(Pageable pageable);
+
+    CursorPageDto<PaymentDto> findAll(String cursor, Pageable pageable);
+
+    SliceDto<PaymentDto> findAll(Pageable pageable, CountMode countMode);
 }
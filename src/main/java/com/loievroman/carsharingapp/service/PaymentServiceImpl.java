@@ -1,5 +1,9 @@
 package com.loievroman.carsharingapp.service;
 
+import com.loievroman.carsharingapp.dto.page.CursorPageDto;
+import com.loievroman.carsharingapp.dto.page.SliceDto;
+import com.loievroman.carsharingapp.dto.payment.BatchPaymentResponseDto;
+import com.loievroman.carsharingapp.dto.payment.CreateBatchPaymentRequestDto;
 import com.loievroman.carsharingapp.dto.payment.CreatePaymentRequestDto;
 import com.loievroman.carsharingapp.dto.payment.PaymentDto;
 import com.loievroman.carsharingapp.dto.payment.PaymentResponseDto;
@@ -9,37 +13,70 @@ import com.loievroman.carsharingapp.exception.FineCalculationForActiveRentalExce
 import com.loievroman.carsharingapp.exception.NoFineRequiredException;
 import com.loievroman.carsharingapp.exception.PaymentAlreadyPaidException;
 import com.loievroman.carsharingapp.exception.PaymentException;
+import com.loievroman.carsharingapp.exception.PaymentInProgressException;
 import com.loievroman.carsharingapp.mapper.PaymentMapper;
+import com.loievroman.carsharingapp.model.Car;
+import com.loievroman.carsharingapp.model.CheckoutBatch;
 import com.loievroman.carsharingapp.model.Payment;
 import com.loievroman.carsharingapp.model.PaymentStatus;
 import com.loievroman.carsharingapp.model.PaymentType;
 import com.loievroman.carsharingapp.model.Rental;
+import com.loievroman.carsharingapp.pagination.CountMode;
+import com.loievroman.carsharingapp.pagination.KeysetCursorCodec;
+import com.loievroman.carsharingapp.pagination.KeysetQuery;
+import com.loievroman.carsharingapp.payment.CheckoutLineItem;
+import com.loievroman.carsharingapp.payment.CheckoutRequest;
+import com.loievroman.carsharingapp.payment.CheckoutSession;
+import com.loievroman.carsharingapp.payment.PaymentGateway;
+import com.loievroman.carsharingapp.pricing.MinorUnits;
+import com.loievroman.carsharingapp.pricing.PricingEngine;
+import com.loievroman.carsharingapp.repository.CheckoutBatchRepository;
 import com.loievroman.carsharingapp.repository.PaymentRepository;
 import com.loievroman.carsharingapp.repository.RentalRepository;
-import com.stripe.exception.StripeException;
-import com.stripe.model.checkout.Session;
-import com.stripe.param.checkout.SessionCreateParams;
-import jakarta.transaction.Transactional;
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Window;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.util.UriComponentsBuilder;
 
 @Service
 @RequiredArgsConstructor
 public class PaymentServiceImpl implements PaymentService {
-    private static final BigDecimal FINE_MULTIPLIER = new BigDecimal("1.5");
     private static final String RESPONSE_SUCCESS_STATUS = "SUCCESS";
     private static final String RESPONSE_PENDING_STATUS = "PENDING";
     private static final String RESPONSE_CANCELLED_STATUS = "CANCELLED";
+    private static final String RESPONSE_EXPIRED_STATUS = "EXPIRED";
+    private static final Map<String, Class<?>> CURSOR_SORT_PROPERTIES = Map.of(
+            "id", Long.class,
+            "amountToPay", BigDecimal.class
+    );
     private final RentalRepository rentalRepository;
     private final PaymentRepository paymentRepository;
     private final PaymentMapper paymentMapper;
-    private final NotificationService telegramNotificationService;
+    private final KeysetCursorCodec keysetCursorCodec;
+    private final ApproximateRowCounts approximateRowCounts;
+    private final TransactionTemplate transactionTemplate;
+    private final PaymentGateway paymentGateway;
+    private final PaymentStatusCache paymentStatusCache;
+    private final PricingEngine pricingEngine;
+    private final CheckoutBatchRepository checkoutBatchRepository;
 
     @Override
     public Page<PaymentDto> findByUserId(Long userId, Pageable pageable) {
@@ -48,52 +85,95 @@ public class PaymentServiceImpl implements PaymentService {
     }
 
     @Override
-    @Transactional
-    public PaymentStatusResponseDto handleSuccessfulPayment(String sessionId) {
-        try {
-            Session session = Session.retrieve(sessionId);
+    public CursorPageDto<PaymentDto> findByUserId(Long userId, String cursor,
+                                                  Pageable pageable) {
+        KeysetQuery query = keysetCursorCodec.decode(cursor, pageable, CURSOR_SORT_PROPERTIES);
+        Window<Payment> payments = paymentRepository.findByRentalUserId(
+                userId, query.position(), query.limit(), query.sort());
+        return keysetCursorCodec.toPage(payments, query, paymentMapper::toDto);
+    }
 
-            String paymentStatusFromStripe = session.getPaymentStatus();
+    @Override
+    public SliceDto<PaymentDto> findByUserId(Long userId, Pageable pageable,
+                                             CountMode countMode) {
+        if (countMode == CountMode.EXACT) {
+            return SliceDto.of(findByUserId(userId, pageable));
+        }
+        Slice<Payment> payments = paymentRepository.findSliceByUserId(userId, pageable);
+        return SliceDto.of(payments.map(paymentMapper::toDto), countMode,
+                () -> approximateRowCounts.payments(userId));
+    }
 
-            PaymentStatusResponseDto response = new PaymentStatusResponseDto();
+    @Override
+    public PaymentStatusResponseDto handleSuccessfulPayment(String sessionId) {
+        PaymentStatus status = paymentStatusCache.findStatusBySessionId(sessionId);
 
-            if (paymentStatusFromStripe.equalsIgnoreCase("paid")) {
-                Payment payment = paymentRepository.findBySessionId(sessionId)
-                        .orElseThrow(() -> new EntityNotFoundException("Payment not found "
-                                + " for session id: " + sessionId));
+        PaymentStatusResponseDto response = new PaymentStatusResponseDto();
+        if (status == PaymentStatus.PAID) {
+            response.setStatus(RESPONSE_SUCCESS_STATUS);
+            response.setMessage("Your payment was processed successfully!");
+        } else if (status == PaymentStatus.EXPIRED) {
+            response.setStatus(RESPONSE_EXPIRED_STATUS);
+            response.setMessage("The payment session has expired. "
+                    + "You can start a new payment from your profile.");
+        } else {
+            response.setStatus(RESPONSE_PENDING_STATUS);
+            response.setMessage("Payment is not confirmed yet. "
+                    + "It will be updated as soon as Stripe notifies us.");
+        }
+        return response;
+    }
 
-                if (payment.getStatus() == PaymentStatus.PAID) {
-                    response.setStatus(RESPONSE_SUCCESS_STATUS);
-                    response.setMessage("This payment has already been successfully processed.");
-                    return response;
-                }
+    @Override
+    public PaymentResponseDto createPaymentSession(CreatePaymentRequestDto requestDto,
+                                                   UriComponentsBuilder uriComponentsBuilder) {
+        SessionRequest request = transactionTemplate.execute(
+                status -> recordPaymentIntent(requestDto, uriComponentsBuilder));
+        if (request.checkout() == null) {
+            return paymentMapper.toResponseDto(request.payment());
+        }
 
-                payment.setStatus(PaymentStatus.PAID);
-                paymentRepository.save(payment);
+        CheckoutSession session = paymentGateway.createCheckoutSession(request.checkout());
 
-                telegramNotificationService.sendPaymentConfirmedNotification(payment);
+        Integer attached = transactionTemplate.execute(status -> paymentRepository.attachSession(
+                request.payment().getId(), session.id(), session.url()));
+        if (attached == null || attached == 0) {
+            throw new PaymentException("Payment session has expired, please try again");
+        }
 
-                response.setStatus(RESPONSE_SUCCESS_STATUS);
-                response.setMessage("Your payment was processed successfully!");
-                return response;
-            } else {
+        PaymentResponseDto responseDto = new PaymentResponseDto();
+        responseDto.setSessionUrl(session.url());
+        responseDto.setSessionId(session.id());
+        responseDto.setStatus(PaymentStatus.PENDING.toString());
+        return responseDto;
+    }
 
-                response.setStatus(RESPONSE_PENDING_STATUS);
-                response.setMessage(
-                        "Payment is not confirmed yet. Status: " + paymentStatusFromStripe);
+    @Override
+    public BatchPaymentResponseDto createBatchPaymentSession(
+            Long userId,
+            CreateBatchPaymentRequestDto requestDto,
+            UriComponentsBuilder uriComponentsBuilder) {
+        BatchSessionRequest request = transactionTemplate.execute(
+                status -> recordBatchIntent(userId, requestDto, uriComponentsBuilder));
+        CheckoutBatch batch = request.batch();
+        if (request.checkout() == null) {
+            return toBatchResponseDto(batch);
+        }
 
-                return response;
-            }
+        CheckoutSession session = paymentGateway.createCheckoutSession(request.checkout());
 
-        } catch (StripeException e) {
-            throw new PaymentException("Error retrieving session from Stripe: " + e.getMessage());
+        Integer attached = transactionTemplate.execute(status -> checkoutBatchRepository
+                .attachSession(batch.getId(), session.id(), session.url()));
+        if (attached == null || attached == 0) {
+            throw new PaymentException("Payment session has expired, please try again");
         }
+        batch.setSessionId(session.id());
+        batch.setSessionUrl(session.url());
+        return toBatchResponseDto(batch);
     }
 
-    @Override
-    @Transactional
-    public PaymentResponseDto createPaymentSession(CreatePaymentRequestDto requestDto,
-                                                   UriComponentsBuilder uriComponentsBuilder) {
+    private SessionRequest recordPaymentIntent(CreatePaymentRequestDto requestDto,
+                                               UriComponentsBuilder uriComponentsBuilder) {
         Optional<Payment> existingPayment = paymentRepository.findByRentalIdAndType(
                 requestDto.getRentalId(),
                 requestDto.getType()
@@ -101,7 +181,13 @@ public class PaymentServiceImpl implements PaymentService {
 
         if (existingPayment.isPresent()
                 && existingPayment.get().getStatus() == PaymentStatus.PENDING) {
-            return paymentMapper.toResponseDto(existingPayment.get());
+            Payment pending = existingPayment.get();
+            if (pending.getSessionId() != null) {
+                return new SessionRequest(pending, null);
+            }
+            releaseOpenBatches(
+                    checkoutBatchRepository.findOpenBatchesByPaymentIdIn(List.of(pending.getId())));
+            return new SessionRequest(pending, buildCheckoutRequest(pending, uriComponentsBuilder));
         }
 
         if (existingPayment.isPresent()
@@ -115,40 +201,131 @@ public class PaymentServiceImpl implements PaymentService {
                         "Rental not found for id: " + requestDto.getRentalId()
                 ));
 
-        BigDecimal amountToPay = calculateAmount(rental, requestDto.getType());
+        Payment savedPayment = paymentRepository.save(preparePayment(
+                existingPayment.orElseGet(Payment::new), rental, requestDto.getType()));
+        return new SessionRequest(savedPayment,
+                buildCheckoutRequest(savedPayment, uriComponentsBuilder));
+    }
+
+    private BatchSessionRequest recordBatchIntent(Long userId,
+                                                  CreateBatchPaymentRequestDto requestDto,
+                                                  UriComponentsBuilder uriComponentsBuilder) {
+        Set<Charge> charges = new LinkedHashSet<>();
+        requestDto.getItems().forEach(item ->
+                charges.add(new Charge(item.getRentalId(), item.getType())));
+        Set<Long> rentalIds = charges.stream()
+                .map(Charge::rentalId)
+                .collect(Collectors.toSet());
+
+        Map<Long, Rental> rentals = new HashMap<>();
+        rentalRepository.findAllByIdIn(rentalIds).stream()
+                .filter(rental -> rental.getUser().getId().equals(userId))
+                .forEach(rental -> rentals.put(rental.getId(), rental));
+        Map<Charge, Payment> existingPayments = new HashMap<>();
+        paymentRepository.findAllForUpdateByRentalIdIn(rentalIds)
+                .forEach(payment -> existingPayments.put(
+                        new Charge(payment.getRental().getId(), payment.getType()), payment));
+
+        List<Payment> payments = new ArrayList<>(charges.size());
+        for (Charge charge : charges) {
+            Rental rental = rentals.get(charge.rentalId());
+            if (rental == null) {
+                throw new EntityNotFoundException(
+                        "Rental not found for id: " + charge.rentalId());
+            }
+            payments.add(prepareBatchPayment(existingPayments.get(charge), rental, charge.type()));
+        }
+        List<Payment> savedPayments = paymentRepository.saveAll(payments);
+        Set<Long> paymentIds = savedPayments.stream()
+                .map(Payment::getId)
+                .collect(Collectors.toSet());
+
+        List<CheckoutBatch> openBatches =
+                checkoutBatchRepository.findOpenBatchesByPaymentIdIn(paymentIds);
+        for (CheckoutBatch openBatch : openBatches) {
+            if (paymentIdsOf(openBatch).equals(paymentIds)) {
+                CheckoutRequest checkout = openBatch.getSessionId() == null
+                        ? buildBatchCheckoutRequest(openBatch, uriComponentsBuilder)
+                        : null;
+                return new BatchSessionRequest(openBatch, checkout);
+            }
+        }
+        releaseOpenBatches(openBatches);
+
+        CheckoutBatch batch = new CheckoutBatch();
+        batch.setUser(savedPayments.get(0).getRental().getUser());
+        batch.setStatus(PaymentStatus.PENDING);
+        batch.setPayments(new HashSet<>(savedPayments));
+        batch.setAmountToPay(savedPayments.stream()
+                .map(Payment::getAmountToPay)
+                .reduce(BigDecimal.ZERO, BigDecimal::add));
+        batch.setCreatedAt(LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS));
+
+        CheckoutBatch savedBatch = checkoutBatchRepository.save(batch);
+        return new BatchSessionRequest(savedBatch,
+                buildBatchCheckoutRequest(savedBatch, uriComponentsBuilder));
+    }
 
-        if (requestDto.getType() == PaymentType.FINE
-                && amountToPay.compareTo(BigDecimal.ZERO) == 0) {
+    private Payment prepareBatchPayment(Payment existingPayment,
+                                        Rental rental,
+                                        PaymentType type) {
+        if (existingPayment == null) {
+            return preparePayment(new Payment(), rental, type);
+        }
+        if (existingPayment.getStatus() == PaymentStatus.PAID) {
+            throw new PaymentAlreadyPaidException("A payment of type " + type
+                    + " for rental " + rental.getId() + " has already been paid.");
+        }
+        if (existingPayment.getStatus() == PaymentStatus.PENDING) {
+            if (existingPayment.getSessionId() != null) {
+                throw new PaymentInProgressException("A payment of type " + type
+                        + " for rental " + rental.getId()
+                        + " already has an open checkout session.");
+            }
+            return existingPayment;
+        }
+        return preparePayment(existingPayment, rental, type);
+    }
+
+    private Payment preparePayment(Payment payment, Rental rental, PaymentType type) {
+        BigDecimal amountToPay = calculateAmount(rental, type);
+
+        if (type == PaymentType.FINE && amountToPay.compareTo(BigDecimal.ZERO) == 0) {
             throw new NoFineRequiredException(
                     "No fine is required for this rental as it was returned on time or earlier."
             );
         }
 
-        Payment payment = new Payment();
         payment.setStatus(PaymentStatus.PENDING);
-        payment.setType(requestDto.getType());
+        payment.setType(type);
         payment.setRental(rental);
         payment.setAmountToPay(amountToPay);
+        payment.setSessionId(null);
+        payment.setSessionUrl(null);
+        payment.setCreatedAt(LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS));
+        return payment;
+    }
 
-        Payment savedPayment = paymentRepository.save(payment);
-
-        try {
-            SessionCreateParams params = buildSessionParams(savedPayment, uriComponentsBuilder);
-            Session session = Session.create(params);
-
-            savedPayment.setSessionId(session.getId());
-            savedPayment.setSessionUrl(session.getUrl());
-            paymentRepository.save(savedPayment);
+    private void releaseOpenBatches(List<CheckoutBatch> openBatches) {
+        for (CheckoutBatch openBatch : openBatches) {
+            if (openBatch.getSessionId() != null) {
+                throw new PaymentInProgressException(
+                        "Some of these charges are already part of an open checkout session.");
+            }
+            checkoutBatchRepository.updateStatus(
+                    openBatch.getId(), PaymentStatus.PENDING, PaymentStatus.EXPIRED);
+        }
+    }
 
-            PaymentResponseDto responseDto = new PaymentResponseDto();
-            responseDto.setSessionUrl(session.getUrl());
-            responseDto.setSessionId(session.getId());
-            responseDto.setStatus(PaymentStatus.PENDING.toString());
+    private Set<Long> paymentIdsOf(CheckoutBatch batch) {
+        return batch.getPayments().stream()
+                .map(Payment::getId)
+                .collect(Collectors.toSet());
+    }
 
-            return responseDto;
-        } catch (StripeException e) {
-            throw new PaymentException("Can't create Stripe payment session");
-        }
+    private String idempotencyKey(Payment payment) {
+        return "payment-session-" + payment.getId() + "-"
+                + payment.getCreatedAt().toInstant(ZoneOffset.UTC).toEpochMilli();
     }
 
     @Override
@@ -168,6 +345,24 @@ public class PaymentServiceImpl implements PaymentService {
                 .map(paymentMapper::toDto);
     }
 
+    @Override
+    public CursorPageDto<PaymentDto> findAll(String cursor, Pageable pageable) {
+        KeysetQuery query = keysetCursorCodec.decode(cursor, pageable, CURSOR_SORT_PROPERTIES);
+        Window<Payment> payments = paymentRepository.findAllBy(
+                query.position(), query.limit(), query.sort());
+        return keysetCursorCodec.toPage(payments, query, paymentMapper::toDto);
+    }
+
+    @Override
+    public SliceDto<PaymentDto> findAll(Pageable pageable, CountMode countMode) {
+        if (countMode == CountMode.EXACT) {
+            return SliceDto.of(findAll(pageable));
+        }
+        Slice<Payment> payments = paymentRepository.findSliceBy(pageable);
+        return SliceDto.of(payments.map(paymentMapper::toDto), countMode,
+                () -> approximateRowCounts.payments(null));
+    }
+
     private BigDecimal calculateAmount(Rental rental, PaymentType paymentType) {
         if (paymentType == PaymentType.PAYMENT) {
             return calculateRegularPaymentAmount(rental);
@@ -181,14 +376,10 @@ public class PaymentServiceImpl implements PaymentService {
     }
 
     private BigDecimal calculateRegularPaymentAmount(Rental rental) {
-        BigDecimal dailyFee = rental.getCar().getDailyFee();
-        long rentalDays = ChronoUnit.DAYS.between(
-                rental.getRentalDate(), rental.getReturnDate()
-        );
-
-        long daysToPay = Math.max(1, rentalDays);
-
-        return dailyFee.multiply(BigDecimal.valueOf(daysToPay));
+        Car car = rental.getCar();
+        return MinorUnits.toAmount(pricingEngine.rentalCents(car.getType(),
+                MinorUnits.toCents(car.getDailyFee()),
+                rental.getRentalDate(), rental.getReturnDate()));
     }
 
     private BigDecimal calculateFineAmount(Rental rental) {
@@ -198,20 +389,34 @@ public class PaymentServiceImpl implements PaymentService {
                             + "The car must be returned first.");
         }
 
-        BigDecimal dailyFee = rental.getCar().getDailyFee();
-        long overdueDays = ChronoUnit.DAYS.between(rental.getReturnDate(),
-                rental.getActualReturnDate());
+        Car car = rental.getCar();
+        return MinorUnits.toAmount(pricingEngine.fineCents(car.getType(),
+                MinorUnits.toCents(car.getDailyFee()),
+                rental.getReturnDate(), rental.getActualReturnDate()));
+    }
 
-        if (overdueDays <= 0) {
-            return BigDecimal.ZERO;
-        }
+    private CheckoutRequest buildCheckoutRequest(Payment payment,
+                                                 UriComponentsBuilder baseUriBuilder) {
+        return new CheckoutRequest(List.of(toLineItem(payment)),
+                callbackUrl(baseUriBuilder, "/payments/success"),
+                callbackUrl(baseUriBuilder, "/payments/cancel"),
+                idempotencyKey(payment));
+    }
 
-        BigDecimal baseFine = dailyFee.multiply(BigDecimal.valueOf(overdueDays));
-        return baseFine.multiply(FINE_MULTIPLIER);
+    private CheckoutRequest buildBatchCheckoutRequest(CheckoutBatch batch,
+                                                      UriComponentsBuilder baseUriBuilder) {
+        List<CheckoutLineItem> lineItems = batch.getPayments().stream()
+                .sorted(Comparator.comparing(Payment::getId))
+                .map(this::toLineItem)
+                .toList();
+        return new CheckoutRequest(lineItems,
+                callbackUrl(baseUriBuilder, "/payments/success"),
+                callbackUrl(baseUriBuilder, "/payments/cancel"),
+                "checkout-batch-" + batch.getId() + "-"
+                        + batch.getCreatedAt().toInstant(ZoneOffset.UTC).toEpochMilli());
     }
 
-    private SessionCreateParams buildSessionParams(Payment payment,
-                                                  UriComponentsBuilder baseUriBuilder) {
+    private CheckoutLineItem toLineItem(Payment payment) {
         String productName;
         if (payment.getType() == PaymentType.PAYMENT) {
             productName = String.format("Rental of %s %s",
@@ -225,43 +430,33 @@ public class PaymentServiceImpl implements PaymentService {
             throw new PaymentException("Cannot create session with payment type ="
                     + payment.getType());
         }
+        return new CheckoutLineItem(productName, MinorUnits.toCents(payment.getAmountToPay()));
+    }
 
-        long amountInCents = payment.getAmountToPay().multiply(BigDecimal.valueOf(100)).longValue();
-
-        String successUrl = baseUriBuilder.cloneBuilder()
-                .replacePath("/payments/success")
+    private String callbackUrl(UriComponentsBuilder baseUriBuilder, String path) {
+        return baseUriBuilder.cloneBuilder()
+                .replacePath(path)
                 .replaceQueryParam("session_id", "{CHECKOUT_SESSION_ID}")
                 .build()
                 .toUriString();
+    }
 
-        String cancelUrl = baseUriBuilder.cloneBuilder()
-                .replacePath("/payments/cancel")
-                .replaceQueryParam("session_id", "{CHECKOUT_SESSION_ID}")
-                .build()
-                .toUriString();
+    private BatchPaymentResponseDto toBatchResponseDto(CheckoutBatch batch) {
+        BatchPaymentResponseDto responseDto = new BatchPaymentResponseDto();
+        responseDto.setSessionUrl(batch.getSessionUrl());
+        responseDto.setSessionId(batch.getSessionId());
+        responseDto.setStatus(batch.getStatus().toString());
+        responseDto.setAmountToPay(batch.getAmountToPay());
+        responseDto.setPaymentIds(paymentIdsOf(batch).stream().sorted().toList());
+        return responseDto;
+    }
+
+    private record SessionRequest(Payment payment, CheckoutRequest checkout) {
+    }
+
+    private record BatchSessionRequest(CheckoutBatch batch, CheckoutRequest checkout) {
+    }
 
-        return SessionCreateParams.builder()
-                .setMode(SessionCreateParams.Mode.PAYMENT)
-                .setSuccessUrl(successUrl)
-                .setCancelUrl(cancelUrl)
-                .addLineItem(
-                        SessionCreateParams.LineItem.builder()
-                                .setPriceData(
-                                        SessionCreateParams.LineItem.PriceData.builder()
-                                                .setCurrency("usd")
-                                                .setUnitAmount(amountInCents)
-                                                .setProductData(
-                                                        SessionCreateParams
-                                                                .LineItem
-                                                                .PriceData
-                                                                .ProductData.builder()
-                                                                .setName(productName)
-                                                                .build()
-                                                ).build()
-                                )
-                                .setQuantity(1L)
-                                .build()
-                )
-                .build();
+    private record Charge(Long rentalId, PaymentType type) {
     }
 }
@@ -0,0 +1,98 @@
+package com.loievroman.carsharingapp.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.loievroman.carsharingapp.event.PaymentSettledEvent;
+import com.loievroman.carsharingapp.exception.EntityNotFoundException;
+import com.loievroman.carsharingapp.model.PaymentStatus;
+import com.loievroman.carsharingapp.repository.CheckoutBatchRepository;
+import com.loievroman.carsharingapp.repository.PaymentRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+@Component
+public class PaymentStatusCache {
+    private final PaymentRepository paymentRepository;
+    private final CheckoutBatchRepository checkoutBatchRepository;
+    private final Cache<String, PaymentStatus> settled;
+    private final ConcurrentMap<String, CompletableFuture<PaymentStatus>> inFlight =
+            new ConcurrentHashMap<>();
+    private final Counter coalesced;
+
+    public PaymentStatusCache(PaymentRepository paymentRepository,
+                              CheckoutBatchRepository checkoutBatchRepository,
+                              @Value("${payment.status-cache.ttl}") Duration ttl,
+                              @Value("${payment.status-cache.max-size}") long maxSize,
+                              MeterRegistry meterRegistry) {
+        this.paymentRepository = paymentRepository;
+        this.checkoutBatchRepository = checkoutBatchRepository;
+        this.settled = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumSize(maxSize)
+                .recordStats()
+                .build();
+        this.coalesced = meterRegistry.counter("payment.status-cache.coalesced");
+        CaffeineCacheMetrics.monitor(meterRegistry, settled, "payment.status-cache");
+    }
+
+    public PaymentStatus findStatusBySessionId(String sessionId) {
+        PaymentStatus status = settled.getIfPresent(sessionId);
+        if (status != null) {
+            return status;
+        }
+
+        CompletableFuture<PaymentStatus> lookup = new CompletableFuture<>();
+        CompletableFuture<PaymentStatus> pending = inFlight.putIfAbsent(sessionId, lookup);
+        if (pending != null) {
+            coalesced.increment();
+            return await(pending);
+        }
+        try {
+            PaymentStatus loaded = paymentRepository.findStatusBySessionId(sessionId)
+                    .or(() -> checkoutBatchRepository.findStatusBySessionId(sessionId))
+                    .orElseThrow(() -> new EntityNotFoundException("Payment not found "
+                            + " for session id: " + sessionId));
+            if (isSettled(loaded)) {
+                settled.put(sessionId, loaded);
+            }
+            lookup.complete(loaded);
+            return loaded;
+        } catch (RuntimeException e) {
+            lookup.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(sessionId, lookup);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPaymentSettled(PaymentSettledEvent event) {
+        if (isSettled(event.status())) {
+            settled.put(event.sessionId(), event.status());
+        }
+    }
+
+    private boolean isSettled(PaymentStatus status) {
+        return status == PaymentStatus.PAID || status == PaymentStatus.EXPIRED;
+    }
+
+    private PaymentStatus await(CompletableFuture<PaymentStatus> pending) {
+        try {
+            return pending.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,193 @@
+package com.loievroman.carsharingapp.service;
+
+import com.loievroman.carsharingapp.event.PaymentSettledEvent;
+import com.loievroman.carsharingapp.model.PaymentStatus;
+import com.loievroman.carsharingapp.payment.PaymentGateway;
+import com.loievroman.carsharingapp.repository.CheckoutBatchRepository;
+import com.loievroman.carsharingapp.repository.PaymentRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@Component
+public class PendingPaymentSweeper {
+    private final PendingSessions payments;
+    private final PendingSessions batches;
+    private final PaymentGateway paymentGateway;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ExecutorService workers;
+    private final Duration pendingAge;
+    private final int batchSize;
+    private final Counter scanned;
+    private final Counter expired;
+    private final Counter stillPayable;
+    private final Counter failed;
+    private final Timer runs;
+
+    public PendingPaymentSweeper(PaymentRepository paymentRepository,
+                                 CheckoutBatchRepository checkoutBatchRepository,
+                                 PaymentGateway paymentGateway,
+                                 TransactionTemplate transactionTemplate,
+                                 ApplicationEventPublisher eventPublisher,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${payment.sweeper.pending-age}") Duration pendingAge,
+                                 @Value("${payment.sweeper.batch-size}") int batchSize,
+                                 @Value("${payment.sweeper.parallelism}") int parallelism) {
+        this(paymentRepository, checkoutBatchRepository, paymentGateway, transactionTemplate,
+                eventPublisher,
+                ExecutorServiceMetrics.monitor(meterRegistry,
+                        new ThreadPoolExecutor(parallelism, parallelism, 0, TimeUnit.MILLISECONDS,
+                                new LinkedBlockingQueue<>(),
+                                new CustomizableThreadFactory("payment-sweeper-")),
+                        "payment.sweeper.workers"),
+                meterRegistry, pendingAge, batchSize);
+    }
+
+    PendingPaymentSweeper(PaymentRepository paymentRepository,
+                          CheckoutBatchRepository checkoutBatchRepository,
+                          PaymentGateway paymentGateway,
+                          TransactionTemplate transactionTemplate,
+                          ApplicationEventPublisher eventPublisher,
+                          ExecutorService workers,
+                          MeterRegistry meterRegistry,
+                          Duration pendingAge,
+                          int batchSize) {
+        this.payments = new PendingSessions(paymentRepository::findStalePendingSessions,
+                paymentRepository::lockPendingIds, paymentRepository::expirePending);
+        this.batches = new PendingSessions(checkoutBatchRepository::findStalePendingSessions,
+                checkoutBatchRepository::lockPendingIds, checkoutBatchRepository::expirePending);
+        this.paymentGateway = paymentGateway;
+        this.transactionTemplate = transactionTemplate;
+        this.eventPublisher = eventPublisher;
+        this.workers = workers;
+        this.pendingAge = pendingAge;
+        this.batchSize = batchSize;
+        this.scanned = meterRegistry.counter("payment.sweeper.sessions", "outcome", "scanned");
+        this.expired = meterRegistry.counter("payment.sweeper.sessions", "outcome", "expired");
+        this.stillPayable = meterRegistry.counter("payment.sweeper.sessions",
+                "outcome", "not-expirable");
+        this.failed = meterRegistry.counter("payment.sweeper.sessions", "outcome", "failed");
+        this.runs = meterRegistry.timer("payment.sweeper.runs");
+    }
+
+    public int sweep() {
+        return runs.record(this::sweepChunks);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdownNow();
+    }
+
+    private int sweepChunks() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(pendingAge);
+        return sweepStaleSessions(cutoff, payments) + sweepStaleSessions(cutoff, batches);
+    }
+
+    private int sweepStaleSessions(LocalDateTime cutoff, PendingSessions sessions) {
+        long afterId = 0;
+        int expiredTotal = 0;
+        while (!Thread.currentThread().isInterrupted()) {
+            List<PaymentRepository.PendingSessionView> chunk = sessions.stale()
+                    .find(cutoff, afterId, Limit.of(batchSize));
+            if (chunk.isEmpty()) {
+                break;
+            }
+            scanned.increment(chunk.size());
+            expiredTotal += expireChunk(chunk, sessions);
+            afterId = chunk.get(chunk.size() - 1).getId();
+            if (chunk.size() < batchSize) {
+                break;
+            }
+        }
+        return expiredTotal;
+    }
+
+    private int expireChunk(List<PaymentRepository.PendingSessionView> chunk,
+                            PendingSessions sessions) {
+        List<Callable<Boolean>> calls = new ArrayList<>(chunk.size());
+        for (PaymentRepository.PendingSessionView pending : chunk) {
+            calls.add(() -> paymentGateway.expireCheckoutSession(pending.getSessionId()));
+        }
+
+        List<Future<Boolean>> results;
+        try {
+            results = workers.invokeAll(calls);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return 0;
+        }
+
+        Map<Long, String> expiredSessions = new HashMap<>();
+        for (int i = 0; i < chunk.size(); i++) {
+            if (isExpired(results.get(i))) {
+                expiredSessions.put(chunk.get(i).getId(), chunk.get(i).getSessionId());
+            }
+        }
+        if (expiredSessions.isEmpty()) {
+            return 0;
+        }
+
+        List<Long> expiredIds = transactionTemplate.execute(status -> {
+            List<Long> pendingIds = sessions.lockPending().apply(expiredSessions.keySet());
+            if (!pendingIds.isEmpty()) {
+                sessions.expirePending().applyAsInt(pendingIds);
+            }
+            return pendingIds;
+        });
+        expired.increment(expiredIds.size());
+        expiredIds.forEach(id -> eventPublisher.publishEvent(new PaymentSettledEvent(
+                expiredSessions.get(id), PaymentStatus.EXPIRED)));
+        return expiredIds.size();
+    }
+
+    private boolean isExpired(Future<Boolean> result) {
+        try {
+            if (result.get()) {
+                return true;
+            }
+            stillPayable.increment();
+        } catch (ExecutionException e) {
+            failed.increment();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            failed.increment();
+        }
+        return false;
+    }
+
+    private record PendingSessions(StalePendingSessions stale,
+                                   Function<Collection<Long>, List<Long>> lockPending,
+                                   ToIntFunction<Collection<Long>> expirePending) {
+    }
+
+    private interface StalePendingSessions {
+        List<PaymentRepository.PendingSessionView> find(LocalDateTime cutoff, Long afterId,
+                                                        Limit limit);
+    }
+}
@@ -1,14 +1,16 @@
 package com.loievroman.carsharingapp.service;
 
+import com.loievroman.carsharingapp.dto.page.CursorPageDto;
+import com.loievroman.carsharingapp.dto.page.SliceDto;
 import com.loievroman.carsharingapp.dto.rental.CreateRentalRequestDto;
 import com.loievroman.carsharingapp.dto.rental.RentalDto;
-import com.loievroman.carsharingapp.model.User;
+import com.loievroman.carsharingapp.pagination.CountMode;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
 public interface RentalService {
 
-    RentalDto createRental(CreateRentalRequestDto rentalRequestDto, User user);
+    RentalDto createRental(CreateRentalRequestDto rentalRequestDto, Long userId);
 
     RentalDto findById(Long id);
 
@@ -18,5 +20,15 @@ public interface RentalService {
 
     Page<RentalDto> findByUserIdAndStatus(Long userId, boolean isActive, Pageable pageable);
 
+    CursorPageDto<RentalDto> findByUserIdAndStatus(Long userId, boolean isActive, String cursor,
+                                                   Pageable pageable);
+
+    SliceDto<RentalDto> findByUserIdAndStatus(Long userId, boolean isActive, Pageable pageable,
+                                              CountMode countMode);
+
     Page<RentalDto> findAllByStatus(boolean isActive, Pageable pageable);
+
+    CursorPageDto<RentalDto> findAllByStatus(boolean isActive, String cursor, Pageable pageable);
+
+    SliceDto<RentalDto> findAllByStatus(boolean isActive, Pageable pageable, CountMode countMode);
 }
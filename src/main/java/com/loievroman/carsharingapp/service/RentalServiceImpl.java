@@ -1,55 +1,100 @@
 package com.loievroman.carsharingapp.service;
 
+import com.loievroman.carsharingapp.dto.page.CursorPageDto;
+import com.loievroman.carsharingapp.dto.page.SliceDto;
 import com.loievroman.carsharingapp.dto.rental.CreateRentalRequestDto;
 import com.loievroman.carsharingapp.dto.rental.RentalDto;
+import com.loievroman.carsharingapp.event.CarInventoryChangedEvent;
+import com.loievroman.carsharingapp.event.RentalCreatedEvent;
+import com.loievroman.carsharingapp.event.RentalReturnedEvent;
 import com.loievroman.carsharingapp.exception.EntityNotFoundException;
 import com.loievroman.carsharingapp.exception.NoAvailableCarsException;
 import com.loievroman.carsharingapp.exception.RentalAlreadyReturnedException;
 import com.loievroman.carsharingapp.mapper.RentalMapper;
-import com.loievroman.carsharingapp.model.Car;
 import com.loievroman.carsharingapp.model.Rental;
 import com.loievroman.carsharingapp.model.User;
+import com.loievroman.carsharingapp.pagination.CountMode;
+import com.loievroman.carsharingapp.pagination.KeysetCursorCodec;
+import com.loievroman.carsharingapp.pagination.KeysetQuery;
 import com.loievroman.carsharingapp.repository.CarRepository;
 import com.loievroman.carsharingapp.repository.RentalRepository;
+import com.loievroman.carsharingapp.repository.UserRepository;
 import java.time.LocalDate;
+import java.util.Map;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Window;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 @Service
 @RequiredArgsConstructor
 public class RentalServiceImpl implements RentalService {
+    private static final Map<String, Class<?>> CURSOR_SORT_PROPERTIES = Map.of(
+            "id", Long.class,
+            "rentalDate", LocalDate.class,
+            "returnDate", LocalDate.class
+    );
     private final CarRepository carRepository;
     private final RentalRepository rentalRepository;
+    private final UserRepository userRepository;
     private final RentalMapper rentalMapper;
-    private final NotificationService notificationService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ReservationLedger reservationLedger;
+    private final TransactionTemplate transactionTemplate;
+    private final KeysetCursorCodec keysetCursorCodec;
+    private final ApproximateRowCounts approximateRowCounts;
 
     @Override
-    @Transactional
-    public RentalDto createRental(CreateRentalRequestDto rentalRequestDto, User user) {
-        Car car = carRepository.findById(rentalRequestDto.getCarId())
+    public RentalDto createRental(CreateRentalRequestDto rentalRequestDto, Long userId) {
+        Long carId = rentalRequestDto.getCarId();
+        if (!reservationLedger.isEnabled()) {
+            return transactionTemplate.execute(
+                    status -> doCreateRental(rentalRequestDto, userId));
+        }
+        if (!reservationLedger.tryReserve(carId)) {
+            throw new NoAvailableCarsException("No available cars with id: " + carId);
+        }
+        boolean booked = false;
+        try {
+            RentalDto rentalDto = transactionTemplate.execute(
+                    status -> doCreateRental(rentalRequestDto, userId));
+            booked = true;
+            return rentalDto;
+        } finally {
+            reservationLedger.complete(carId, booked);
+        }
+    }
+
+    private RentalDto doCreateRental(CreateRentalRequestDto rentalRequestDto, Long userId) {
+        Long carId = rentalRequestDto.getCarId();
+        final User user = userRepository.findById(userId)
                 .orElseThrow(() -> new EntityNotFoundException(
-                        "Car not found with id: " + rentalRequestDto.getCarId()
+                        "User not found with id: " + userId
                 ));
-        if (car.getInventory() <= 0) {
-            throw new NoAvailableCarsException("No available cars with id: " + car.getId());
-        }
 
-        car.setInventory(car.getInventory() - 1);
-        carRepository.save(car);
+        if (carRepository.decrementInventory(carId) == 0) {
+            if (!carRepository.existsById(carId)) {
+                throw new EntityNotFoundException("Car not found with id: " + carId);
+            }
+            throw new NoAvailableCarsException("No available cars with id: " + carId);
+        }
+        eventPublisher.publishEvent(new CarInventoryChangedEvent(carId, -1));
 
         Rental rental = new Rental();
-        rental.setCar(car);
+        rental.setCar(carRepository.getReferenceById(carId));
 
         rental.setUser(user);
         rental.setRentalDate(LocalDate.now());
         rental.setReturnDate(rentalRequestDto.getReturnDate());
         Rental savedRental = rentalRepository.save(rental);
 
-        notificationService.sendNewRentalNotification(savedRental);
+        eventPublisher.publishEvent(RentalCreatedEvent.from(savedRental));
 
         return rentalMapper.toDto(savedRental);
     }
@@ -65,6 +110,39 @@ public class RentalServiceImpl implements RentalService {
         return rentals.map(rentalMapper::toDto);
     }
 
+    @Override
+    public CursorPageDto<RentalDto> findByUserIdAndStatus(Long userId, boolean isActive,
+                                                          String cursor, Pageable pageable) {
+        KeysetQuery query = keysetCursorCodec.decode(cursor, pageable, CURSOR_SORT_PROPERTIES);
+        Window<Rental> rentals;
+        if (isActive) {
+            rentals = rentalRepository.findByUserIdAndActualReturnDateIsNull(
+                    userId, query.position(), query.limit(), query.sort());
+        } else {
+            rentals = rentalRepository.findByUserIdAndActualReturnDateIsNotNull(
+                    userId, query.position(), query.limit(), query.sort());
+        }
+        return keysetCursorCodec.toPage(rentals, query, rentalMapper::toDto);
+    }
+
+    @Override
+    public SliceDto<RentalDto> findByUserIdAndStatus(Long userId, boolean isActive,
+                                                     Pageable pageable, CountMode countMode) {
+        if (countMode == CountMode.EXACT) {
+            return SliceDto.of(findByUserIdAndStatus(userId, isActive, pageable));
+        }
+        Slice<Rental> rentals;
+        if (isActive) {
+            rentals = rentalRepository.findSliceByUserIdAndActualReturnDateIsNull(
+                    userId, pageable);
+        } else {
+            rentals = rentalRepository.findSliceByUserIdAndActualReturnDateIsNotNull(
+                    userId, pageable);
+        }
+        return SliceDto.of(rentals.map(rentalMapper::toDto), countMode,
+                () -> approximateRowCounts.rentals(userId, isActive));
+    }
+
     @Override
     public Page<RentalDto> findAllByStatus(boolean isActive, Pageable pageable) {
         Page<Rental> rentals;
@@ -76,6 +154,37 @@ public class RentalServiceImpl implements RentalService {
         return rentals.map(rentalMapper::toDto);
     }
 
+    @Override
+    public CursorPageDto<RentalDto> findAllByStatus(boolean isActive, String cursor,
+                                                    Pageable pageable) {
+        KeysetQuery query = keysetCursorCodec.decode(cursor, pageable, CURSOR_SORT_PROPERTIES);
+        Window<Rental> rentals;
+        if (isActive) {
+            rentals = rentalRepository.findByActualReturnDateIsNull(
+                    query.position(), query.limit(), query.sort());
+        } else {
+            rentals = rentalRepository.findByActualReturnDateIsNotNull(
+                    query.position(), query.limit(), query.sort());
+        }
+        return keysetCursorCodec.toPage(rentals, query, rentalMapper::toDto);
+    }
+
+    @Override
+    public SliceDto<RentalDto> findAllByStatus(boolean isActive, Pageable pageable,
+                                               CountMode countMode) {
+        if (countMode == CountMode.EXACT) {
+            return SliceDto.of(findAllByStatus(isActive, pageable));
+        }
+        Slice<Rental> rentals;
+        if (isActive) {
+            rentals = rentalRepository.findSliceByActualReturnDateIsNull(pageable);
+        } else {
+            rentals = rentalRepository.findSliceByActualReturnDateIsNotNull(pageable);
+        }
+        return SliceDto.of(rentals.map(rentalMapper::toDto), countMode,
+                () -> approximateRowCounts.rentals(null, isActive));
+    }
+
     @Override
     public RentalDto findById(Long id) {
         Rental rental = rentalRepository.findById(id)
@@ -99,26 +208,26 @@ public class RentalServiceImpl implements RentalService {
     @Override
     @Transactional
     public RentalDto returnRental(Long rentalId) {
-        Rental rental = rentalRepository.findById(rentalId)
-                .orElseThrow(() -> new EntityNotFoundException(
-                        "Cannot return rental. Rental not found with id: " + rentalId
-                ));
-
-        if (rental.getActualReturnDate() != null) {
+        if (rentalRepository.markReturned(rentalId, LocalDate.now()) == 0) {
+            if (!rentalRepository.existsById(rentalId)) {
+                throw new EntityNotFoundException(
+                        "Cannot return rental. Rental not found with id: " + rentalId);
+            }
             throw new RentalAlreadyReturnedException(
                     "Rental with id " + rentalId + " has already been returned."
             );
         }
+        Rental returnedRental = rentalRepository.findById(rentalId)
+                .orElseThrow(() -> new EntityNotFoundException(
+                        "Cannot return rental. Rental not found with id: " + rentalId
+                ));
 
-        rental.setActualReturnDate(LocalDate.now());
-        Rental updatedRental = rentalRepository.save(rental);
-
-        Car carToReturn = updatedRental.getCar();
-        carToReturn.setInventory(carToReturn.getInventory() + 1);
-        carRepository.save(carToReturn);
+        Long carId = returnedRental.getCar().getId();
+        carRepository.incrementInventory(carId);
+        eventPublisher.publishEvent(new CarInventoryChangedEvent(carId, 1));
 
-        notificationService.sendRentalReturnedNotification(updatedRental);
+        eventPublisher.publishEvent(RentalReturnedEvent.from(returnedRental));
 
-        return rentalMapper.toDto(updatedRental);
+        return rentalMapper.toDto(returnedRental);
     }
 }
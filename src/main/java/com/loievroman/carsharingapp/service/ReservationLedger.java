@@ -0,0 +1,139 @@
+package com.loievroman.carsharingapp.service;
+
+import com.loievroman.carsharingapp.event.CarCatalogChangedEvent;
+import com.loievroman.carsharingapp.event.CarInventoryChangedEvent;
+import com.loievroman.carsharingapp.repository.CarRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+@Component
+public class ReservationLedger {
+    private final CarRepository carRepository;
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+    private final Map<Long, Slot> slots = new ConcurrentHashMap<>();
+
+    public ReservationLedger(CarRepository carRepository,
+                             MeterRegistry meterRegistry,
+                             @Value("${rental.ledger.enabled}") boolean enabled) {
+        this.carRepository = carRepository;
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public boolean tryReserve(Long carId) {
+        Slot slot = slots.get(carId);
+        if (slot == null) {
+            slot = loadSlot(carId);
+            if (slot == null) {
+                return true;
+            }
+        }
+        while (true) {
+            int available = slot.available.get();
+            if (available <= 0) {
+                slot.rejected.increment();
+                return false;
+            }
+            if (slot.available.compareAndSet(available, available - 1)) {
+                slot.inFlight.incrementAndGet();
+                slot.admitted.increment();
+                return true;
+            }
+            slot.contention.increment();
+        }
+    }
+
+    public void complete(Long carId, boolean booked) {
+        Slot slot = slots.get(carId);
+        if (slot == null) {
+            return;
+        }
+        slot.inFlight.decrementAndGet();
+        if (!booked) {
+            slot.available.incrementAndGet();
+        }
+    }
+
+    public void reconcile() {
+        reconcileCars(new ArrayList<>(slots.keySet()));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCarInventoryChanged(CarInventoryChangedEvent event) {
+        Slot slot = slots.get(event.carId());
+        if (slot != null && event.delta() > 0) {
+            slot.available.addAndGet(event.delta());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCarCatalogChanged(CarCatalogChangedEvent event) {
+        if (slots.containsKey(event.carId())) {
+            reconcileCars(List.of(event.carId()));
+        }
+    }
+
+    private void reconcileCars(Collection<Long> carIds) {
+        if (carIds.isEmpty()) {
+            return;
+        }
+        Map<Long, Integer> inventories = new HashMap<>();
+        carRepository.findInventoriesByIdIn(carIds)
+                .forEach(view -> inventories.put(view.getId(), view.getInventory()));
+        for (Long carId : carIds) {
+            Slot slot = slots.get(carId);
+            if (slot != null) {
+                int inventory = inventories.getOrDefault(carId, 0);
+                slot.available.set(inventory - slot.inFlight.get());
+            }
+        }
+    }
+
+    private Slot loadSlot(Long carId) {
+        List<CarRepository.InventoryView> views =
+                carRepository.findInventoriesByIdIn(List.of(carId));
+        if (views.isEmpty()) {
+            return null;
+        }
+        int inventory = views.get(0).getInventory();
+        return slots.computeIfAbsent(carId, id -> new Slot(id, inventory));
+    }
+
+    private final class Slot {
+        private final AtomicInteger available;
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private final Counter admitted;
+        private final Counter rejected;
+        private final Counter contention;
+
+        private Slot(Long carId, int inventory) {
+            String car = String.valueOf(carId);
+            this.available = new AtomicInteger(inventory);
+            this.admitted = meterRegistry.counter("rental.ledger.admitted", "car", car);
+            this.rejected = meterRegistry.counter("rental.ledger.rejected", "car", car);
+            this.contention = meterRegistry.counter("rental.ledger.contention", "car", car);
+            Gauge.builder("rental.ledger.available", available, AtomicInteger::get)
+                    .tag("car", car)
+                    .register(meterRegistry);
+            Gauge.builder("rental.ledger.in-flight", inFlight, AtomicInteger::get)
+                    .tag("car", car)
+                    .register(meterRegistry);
+        }
+    }
+}
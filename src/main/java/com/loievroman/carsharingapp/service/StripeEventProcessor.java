@@ -0,0 +1,109 @@
+package com.loievroman.carsharingapp.service;
+
+import com.loievroman.carsharingapp.event.PaymentConfirmedEvent;
+import com.loievroman.carsharingapp.event.PaymentSettledEvent;
+import com.loievroman.carsharingapp.model.CheckoutBatch;
+import com.loievroman.carsharingapp.model.Payment;
+import com.loievroman.carsharingapp.model.PaymentStatus;
+import com.loievroman.carsharingapp.model.StripeEvent;
+import com.loievroman.carsharingapp.model.StripeEventStatus;
+import com.loievroman.carsharingapp.repository.CheckoutBatchRepository;
+import com.loievroman.carsharingapp.repository.PaymentRepository;
+import com.loievroman.carsharingapp.repository.StripeEventRepository;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.Set;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+@Component
+@RequiredArgsConstructor
+public class StripeEventProcessor {
+    public static final String SESSION_COMPLETED = "checkout.session.completed";
+    public static final String SESSION_ASYNC_PAYMENT_SUCCEEDED =
+            "checkout.session.async_payment_succeeded";
+    public static final String SESSION_EXPIRED = "checkout.session.expired";
+    public static final Set<String> HANDLED_TYPES =
+            Set.of(SESSION_COMPLETED, SESSION_ASYNC_PAYMENT_SUCCEEDED, SESSION_EXPIRED);
+    private static final String SESSION_PAID = "paid";
+
+    private final StripeEventRepository stripeEventRepository;
+    private final PaymentRepository paymentRepository;
+    private final CheckoutBatchRepository checkoutBatchRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Transactional
+    public void process(String eventId) {
+        Optional<StripeEvent> stripeEvent = stripeEventRepository.findById(eventId);
+        if (stripeEvent.isEmpty() || stripeEvent.get().getStatus() != StripeEventStatus.RECEIVED) {
+            return;
+        }
+        StripeEvent event = stripeEvent.get();
+        Optional<Payment> payment = paymentRepository.findBySessionId(event.getSessionId());
+        Optional<CheckoutBatch> batch = payment.isPresent()
+                ? Optional.empty()
+                : checkoutBatchRepository.findBySessionId(event.getSessionId());
+        if (payment.isEmpty() && batch.isEmpty()) {
+            return;
+        }
+        if (stripeEventRepository.markProcessed(eventId, LocalDateTime.now()) == 0) {
+            return;
+        }
+        switch (event.getType()) {
+            case SESSION_COMPLETED, SESSION_ASYNC_PAYMENT_SUCCEEDED -> {
+                if (SESSION_PAID.equals(event.getSessionPaymentStatus())) {
+                    payment.ifPresentOrElse(this::settlePaid,
+                            () -> settleBatchPaid(batch.get()));
+                }
+            }
+            case SESSION_EXPIRED -> payment.ifPresentOrElse(this::settleExpired,
+                    () -> settleBatchExpired(batch.get()));
+            default -> {
+            }
+        }
+    }
+
+    private void settlePaid(Payment payment) {
+        int updated = paymentRepository.updateStatus(
+                payment.getId(), PaymentStatus.PENDING, PaymentStatus.PAID);
+        if (updated == 1) {
+            eventPublisher.publishEvent(PaymentConfirmedEvent.from(payment));
+            eventPublisher.publishEvent(
+                    new PaymentSettledEvent(payment.getSessionId(), PaymentStatus.PAID));
+        }
+    }
+
+    private void settleExpired(Payment payment) {
+        int updated = paymentRepository.updateStatus(
+                payment.getId(), PaymentStatus.PENDING, PaymentStatus.EXPIRED);
+        if (updated == 1) {
+            eventPublisher.publishEvent(
+                    new PaymentSettledEvent(payment.getSessionId(), PaymentStatus.EXPIRED));
+        }
+    }
+
+    private void settleBatchPaid(CheckoutBatch batch) {
+        int updated = checkoutBatchRepository.updateStatus(
+                batch.getId(), PaymentStatus.PENDING, PaymentStatus.PAID);
+        if (updated == 1) {
+            paymentRepository.markPaid(batch.getPayments().stream()
+                    .map(Payment::getId)
+                    .toList());
+            batch.getPayments().forEach(payment ->
+                    eventPublisher.publishEvent(PaymentConfirmedEvent.from(payment)));
+            eventPublisher.publishEvent(
+                    new PaymentSettledEvent(batch.getSessionId(), PaymentStatus.PAID));
+        }
+    }
+
+    private void settleBatchExpired(CheckoutBatch batch) {
+        int updated = checkoutBatchRepository.updateStatus(
+                batch.getId(), PaymentStatus.PENDING, PaymentStatus.EXPIRED);
+        if (updated == 1) {
+            eventPublisher.publishEvent(
+                    new PaymentSettledEvent(batch.getSessionId(), PaymentStatus.EXPIRED));
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package com.loievroman.carsharingapp.service;
+
+public interface StripeWebhookService {
+    void receive(String payload, String signature);
+
+    void dispatchPending();
+
+    int purgeProcessed();
+}
@@ -0,0 +1,166 @@
+package com.loievroman.carsharingapp.service;
+
+import com.loievroman.carsharingapp.exception.InvalidWebhookException;
+import com.loievroman.carsharingapp.model.StripeEventStatus;
+import com.loievroman.carsharingapp.repository.StripeEventRepository;
+import com.stripe.exception.EventDataObjectDeserializationException;
+import com.stripe.exception.SignatureVerificationException;
+import com.stripe.model.Event;
+import com.stripe.model.EventDataObjectDeserializer;
+import com.stripe.model.StripeObject;
+import com.stripe.model.checkout.Session;
+import com.stripe.net.Webhook;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+@Service
+public class StripeWebhookServiceImpl implements StripeWebhookService {
+    private static final int DISPATCH_BATCH_SIZE = 500;
+    private static final int PURGE_BATCHES_PER_RUN = 20;
+
+    private final StripeEventRepository stripeEventRepository;
+    private final StripeEventProcessor stripeEventProcessor;
+    private final ExecutorService workers;
+    private final Counter rejected;
+    private final Counter purged;
+    private final String webhookSecret;
+    private final Duration retryAfter;
+    private final Duration maxAge;
+    private final Duration retention;
+    private final int purgeBatchSize;
+
+    public StripeWebhookServiceImpl(StripeEventRepository stripeEventRepository,
+                                    StripeEventProcessor stripeEventProcessor,
+                                    MeterRegistry meterRegistry,
+                                    @Value("${stripe.webhook.secret}") String webhookSecret,
+                                    @Value("${stripe.webhook.workers}") int workerCount,
+                                    @Value("${stripe.webhook.queue-capacity}") int queueCapacity,
+                                    @Value("${stripe.webhook.retry-after}") Duration retryAfter,
+                                    @Value("${stripe.webhook.max-age}") Duration maxAge,
+                                    @Value("${stripe.webhook.retention}") Duration retention,
+                                    @Value("${stripe.webhook.purge-batch-size}")
+                                    int purgeBatchSize) {
+        this(stripeEventRepository, stripeEventProcessor,
+                ExecutorServiceMetrics.monitor(meterRegistry,
+                        new ThreadPoolExecutor(workerCount, workerCount, 0, TimeUnit.MILLISECONDS,
+                                new ArrayBlockingQueue<>(queueCapacity),
+                                new CustomizableThreadFactory("stripe-events-")),
+                        "stripe.webhook.workers"),
+                meterRegistry, webhookSecret, retryAfter, maxAge, retention, purgeBatchSize);
+    }
+
+    StripeWebhookServiceImpl(StripeEventRepository stripeEventRepository,
+                             StripeEventProcessor stripeEventProcessor,
+                             ExecutorService workers,
+                             MeterRegistry meterRegistry,
+                             String webhookSecret,
+                             Duration retryAfter,
+                             Duration maxAge,
+                             Duration retention,
+                             int purgeBatchSize) {
+        this.stripeEventRepository = stripeEventRepository;
+        this.stripeEventProcessor = stripeEventProcessor;
+        this.workers = workers;
+        this.rejected = meterRegistry.counter("stripe.webhook.rejected");
+        this.purged = meterRegistry.counter("stripe.webhook.purged");
+        this.webhookSecret = webhookSecret;
+        this.retryAfter = retryAfter;
+        this.maxAge = maxAge;
+        this.retention = retention;
+        this.purgeBatchSize = purgeBatchSize;
+    }
+
+    @Override
+    public void receive(String payload, String signature) {
+        Event event = verify(payload, signature);
+        if (!StripeEventProcessor.HANDLED_TYPES.contains(event.getType())) {
+            return;
+        }
+        if (!(toStripeObject(event) instanceof Session session)) {
+            throw new InvalidWebhookException("Event " + event.getId()
+                    + " does not carry a checkout session");
+        }
+        int inserted = stripeEventRepository.insertIfAbsent(event.getId(), event.getType(),
+                session.getId(), session.getPaymentStatus(), payload, LocalDateTime.now());
+        if (inserted == 1) {
+            dispatch(event.getId());
+        }
+    }
+
+    @Override
+    public void dispatchPending() {
+        LocalDateTime now = LocalDateTime.now();
+        stripeEventRepository.findIdsByStatusAndReceivedAtBetween(StripeEventStatus.RECEIVED,
+                        now.minus(maxAge), now.minus(retryAfter), Limit.of(DISPATCH_BATCH_SIZE))
+                .forEach(this::dispatch);
+    }
+
+    @Override
+    public int purgeProcessed() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(retention);
+        int total = 0;
+        int deleted;
+        int batches = 0;
+        do {
+            deleted = stripeEventRepository.deleteProcessedBefore(cutoff, purgeBatchSize);
+            purged.increment(deleted);
+            total += deleted;
+            batches++;
+        } while (deleted == purgeBatchSize && batches < PURGE_BATCHES_PER_RUN
+                && !Thread.currentThread().isInterrupted());
+        return total;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdown();
+    }
+
+    private void dispatch(String eventId) {
+        try {
+            workers.execute(() -> stripeEventProcessor.process(eventId));
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+        }
+    }
+
+    private Event verify(String payload, String signature) {
+        if (signature == null) {
+            throw new InvalidWebhookException("Missing Stripe-Signature header");
+        }
+        try {
+            return Webhook.constructEvent(payload, signature, webhookSecret);
+        } catch (SignatureVerificationException e) {
+            throw new InvalidWebhookException("Invalid Stripe webhook signature", e);
+        } catch (RuntimeException e) {
+            throw new InvalidWebhookException("Malformed Stripe webhook payload", e);
+        }
+    }
+
+    private StripeObject toStripeObject(Event event) {
+        EventDataObjectDeserializer deserializer = event.getDataObjectDeserializer();
+        Optional<StripeObject> object = deserializer.getObject();
+        if (object.isPresent()) {
+            return object.get();
+        }
+        try {
+            return deserializer.deserializeUnsafe();
+        } catch (EventDataObjectDeserializationException e) {
+            throw new InvalidWebhookException("Can't read Stripe event " + event.getId(), e);
+        }
+    }
+}
@@ -1,43 +1,47 @@
 package com.loievroman.carsharingapp.service;
 
-import com.loievroman.carsharingapp.model.Payment;
-import com.loievroman.carsharingapp.model.Rental;
-import com.loievroman.carsharingapp.telegram.CarSharingBot;
+import com.loievroman.carsharingapp.event.PaymentConfirmedEvent;
+import com.loievroman.carsharingapp.event.RentalCreatedEvent;
+import com.loievroman.carsharingapp.event.RentalReturnedEvent;
+import com.loievroman.carsharingapp.model.NotificationOutboxMessage;
+import com.loievroman.carsharingapp.model.NotificationOutboxStatus;
+import com.loievroman.carsharingapp.repository.NotificationOutboxRepository;
+import com.loievroman.carsharingapp.repository.RentalRepository;
+import java.time.LocalDateTime;
+import java.util.List;
 import lombok.RequiredArgsConstructor;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
 
 @Service
 @RequiredArgsConstructor
 public class TelegramNotificationService implements NotificationService {
 
-    private final CarSharingBot carSharingBot;
+    private final NotificationOutboxRepository outboxRepository;
 
-    @Value("${telegram.chat.id}")
-    private String chatId;
-
-    @Async
     @Override
-    public void sendNewRentalNotification(Rental rental) {
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void sendNewRentalNotification(RentalCreatedEvent event) {
         String message = String.format(
                 "**New Rental!**\n"
                         + "Rental ID: %d\n"
                         + "Client: %s %s\n"
                         + "Car: %s %s\n"
                         + "Return date: %s",
-                rental.getId(),
-                rental.getUser().getFirstName(),
-                rental.getUser().getLastName(),
-                rental.getCar().getBrand(),
-                rental.getCar().getModel(),
-                rental.getReturnDate().toString()
+                event.rentalId(),
+                event.firstName(),
+                event.lastName(),
+                event.carBrand(),
+                event.carModel(),
+                event.returnDate().toString()
         );
-        carSharingBot.sendMessage(chatId, message);
+        enqueue(message);
     }
 
-    @Async
-    public void sendPaymentConfirmedNotification(Payment payment) {
+    @Override
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void sendPaymentConfirmedNotification(PaymentConfirmedEvent event) {
         String message = String.format(
                 "**Payment Confirmed!**\n"
                         + "Payment ID: %d\n"
@@ -46,20 +50,20 @@ public class TelegramNotificationService implements NotificationService {
                         + "Rental ID: %d\n"
                         + "Client: %s %s\n"
                         + "Car: %s %s",
-                payment.getId(),
-                payment.getType().toString(),
-                payment.getAmountToPay().toPlainString(),
-                payment.getRental().getId(),
-                payment.getRental().getUser().getFirstName(),
-                payment.getRental().getUser().getLastName(),
-                payment.getRental().getCar().getBrand(),
-                payment.getRental().getCar().getModel()
+                event.paymentId(),
+                event.type().toString(),
+                event.amountToPay().toPlainString(),
+                event.rentalId(),
+                event.firstName(),
+                event.lastName(),
+                event.carBrand(),
+                event.carModel()
         );
-        carSharingBot.sendMessage(chatId, message);
+        enqueue(message);
     }
 
-    @Async
-    public void sendOverdueRentalReminder(Rental rental) {
+    @Override
+    public void sendOverdueRentalReminder(RentalRepository.OverdueRentalView rental) {
         String message = String.format(
                 "**Overdue Rental Reminder**\n"
                         + "Rental ID: %d\n"
@@ -67,18 +71,35 @@ public class TelegramNotificationService implements NotificationService {
                         + "Car: %s %s\n"
                         + "Return date was: %s",
                 rental.getId(),
-                rental.getUser().getFirstName(),
-                rental.getUser().getLastName(),
-                rental.getCar().getBrand(),
-                rental.getCar().getModel(),
+                rental.getFirstName(),
+                rental.getLastName(),
+                rental.getBrand(),
+                rental.getModel(),
                 rental.getReturnDate().toString()
         );
-        carSharingBot.sendMessage(chatId, message);
+        enqueue(message);
     }
 
-    @Async
     @Override
-    public void sendRentalReturnedNotification(Rental rental) {
+    public void sendOverdueRentalDigest(List<RentalRepository.OverdueRentalView> rentals,
+                                        int page) {
+        StringBuilder message = new StringBuilder(
+                String.format("**Overdue Rentals (page %d)**", page));
+        for (RentalRepository.OverdueRentalView rental : rentals) {
+            message.append(String.format("\n#%d %s %s, %s %s, due %s",
+                    rental.getId(),
+                    rental.getFirstName(),
+                    rental.getLastName(),
+                    rental.getBrand(),
+                    rental.getModel(),
+                    rental.getReturnDate().toString()));
+        }
+        enqueue(message.toString());
+    }
+
+    @Override
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void sendRentalReturnedNotification(RentalReturnedEvent event) {
         String message = String.format(
                 "**Rental Returned!**\n"
                         + "Rental ID: %d\n"
@@ -86,20 +107,29 @@ public class TelegramNotificationService implements NotificationService {
                         + "Car: %s %s\n"
                         + "Planned return date: %s\n"
                         + "Actual return date: %s",
-                rental.getId(),
-                rental.getUser().getFirstName(),
-                rental.getUser().getLastName(),
-                rental.getCar().getBrand(),
-                rental.getCar().getModel(),
-                rental.getReturnDate().toString(),
-                rental.getActualReturnDate() != null ? rental.getActualReturnDate().toString() : "-"
+                event.rentalId(),
+                event.firstName(),
+                event.lastName(),
+                event.carBrand(),
+                event.carModel(),
+                event.returnDate().toString(),
+                event.actualReturnDate() != null ? event.actualReturnDate().toString() : "-"
         );
-        carSharingBot.sendMessage(chatId, message);
+        enqueue(message);
     }
 
     @Override
     public void sendNotification(String text) {
-        carSharingBot.sendMessage(chatId, text);
+        enqueue(text);
     }
 
+    private void enqueue(String message) {
+        LocalDateTime now = LocalDateTime.now();
+        NotificationOutboxMessage outboxMessage = new NotificationOutboxMessage();
+        outboxMessage.setMessage(message);
+        outboxMessage.setStatus(NotificationOutboxStatus.PENDING);
+        outboxMessage.setNextAttemptAt(now);
+        outboxMessage.setCreatedAt(now);
+        outboxRepository.save(outboxMessage);
+    }
 }
@@ -6,16 +6,15 @@ import com.loievroman.carsharingapp.dto.user.UserRegistrationRequestDto;
 import com.loievroman.carsharingapp.dto.user.UserResponseDto;
 import com.loievroman.carsharingapp.dto.user.UserRoleUpdateRequestDto;
 import com.loievroman.carsharingapp.exception.RegistrationException;
-import com.loievroman.carsharingapp.model.User;
 
 public interface UserService {
     UserResponseDto register(UserRegistrationRequestDto requestDto) throws RegistrationException;
 
     UserProfileResponseDto updateRoles(Long userId, UserRoleUpdateRequestDto requestDto);
 
-    UserProfileResponseDto getMyProfile(User user);
+    UserProfileResponseDto getMyProfile(Long userId);
 
-    UserProfileResponseDto updateMyProfile(User user,
+    UserProfileResponseDto updateMyProfile(Long userId,
                                            UserProfileUpdateRequestDto requestDto);
 
     boolean existsById(Long userId);
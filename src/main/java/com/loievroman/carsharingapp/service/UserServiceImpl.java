@@ -5,6 +5,7 @@ import com.loievroman.carsharingapp.dto.user.UserProfileUpdateRequestDto;
 import com.loievroman.carsharingapp.dto.user.UserRegistrationRequestDto;
 import com.loievroman.carsharingapp.dto.user.UserResponseDto;
 import com.loievroman.carsharingapp.dto.user.UserRoleUpdateRequestDto;
+import com.loievroman.carsharingapp.event.UserAccountChangedEvent;
 import com.loievroman.carsharingapp.exception.EntityNotFoundException;
 import com.loievroman.carsharingapp.exception.RegistrationException;
 import com.loievroman.carsharingapp.mapper.UserMapper;
@@ -15,7 +16,9 @@ import com.loievroman.carsharingapp.repository.UserRepository;
 import jakarta.transaction.Transactional;
 import java.util.Set;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
@@ -26,6 +29,7 @@ public class UserServiceImpl implements UserService {
     private final UserRepository userRepository;
     private final UserMapper userMapper;
     private final PasswordEncoder passwordEncoder;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     @Transactional
@@ -61,25 +65,40 @@ public class UserServiceImpl implements UserService {
                         () -> new EntityNotFoundException("Role not found: " + roleName)))
                 .collect(Collectors.toSet());
 
+        final boolean rolesChanged = !roleNames(newRoles).equals(roleNames(user.getRoles()));
         user.setRoles(newRoles);
+        if (rolesChanged) {
+            user.setTokenVersion(user.getTokenVersion() + 1);
+        }
+        User savedUser = userRepository.save(user);
+        if (rolesChanged) {
+            eventPublisher.publishEvent(
+                    new UserAccountChangedEvent(user.getId(), Set.of(user.getEmail())));
+        }
 
-        return userMapper.toProfileDto(userRepository.save(user));
+        return userMapper.toProfileDto(savedUser);
     }
 
     @Override
-    public UserProfileResponseDto getMyProfile(User user) {
+    public UserProfileResponseDto getMyProfile(Long userId) {
+        User user = userRepository.findById(userId).orElseThrow(
+                () -> new EntityNotFoundException("User not found with id: " + userId));
         return userMapper.toProfileDto(user);
     }
 
     @Override
     @Transactional
-    public UserProfileResponseDto updateMyProfile(User user,
+    public UserProfileResponseDto updateMyProfile(Long userId,
                                                   UserProfileUpdateRequestDto requestDto) {
-        User userFromDb = userRepository.findById(user.getId()).orElseThrow(
-                () -> new EntityNotFoundException("User not found with id: " + user.getId()));
+        User userFromDb = userRepository.findById(userId).orElseThrow(
+                () -> new EntityNotFoundException("User not found with id: " + userId));
+        final String previousEmail = userFromDb.getEmail();
+        final boolean emailChanged = requestDto.getEmail() != null
+                && !requestDto.getEmail().equals(previousEmail);
 
-        if (requestDto.getEmail() != null) {
+        if (emailChanged) {
             userFromDb.setEmail(requestDto.getEmail());
+            userFromDb.setTokenVersion(userFromDb.getTokenVersion() + 1);
         }
         if (requestDto.getFirstName() != null) {
             userFromDb.setFirstName(requestDto.getFirstName());
@@ -87,8 +106,13 @@ public class UserServiceImpl implements UserService {
         if (requestDto.getLastName() != null) {
             userFromDb.setLastName(requestDto.getLastName());
         }
+        User savedUser = userRepository.save(userFromDb);
+        if (emailChanged) {
+            eventPublisher.publishEvent(new UserAccountChangedEvent(userFromDb.getId(),
+                    Stream.of(previousEmail, userFromDb.getEmail()).collect(Collectors.toSet())));
+        }
 
-        return userMapper.toProfileDto(userRepository.save(userFromDb));
+        return userMapper.toProfileDto(savedUser);
     }
 
     @Override
@@ -96,4 +120,10 @@ public class UserServiceImpl implements UserService {
         return userRepository.existsById(userId);
     }
 
+    private Set<Role.RoleName> roleNames(Set<Role> roles) {
+        return roles.stream()
+                .map(Role::getName)
+                .collect(Collectors.toSet());
+    }
+
 }
@@ -1,15 +1,20 @@
 package com.loievroman.carsharingapp.telegram;
 
 import com.loievroman.carsharingapp.exception.TelegramNotificationException;
+import com.loievroman.carsharingapp.exception.TelegramRateLimitedException;
+import java.time.Duration;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import org.telegram.telegrambots.bots.TelegramLongPollingBot;
 import org.telegram.telegrambots.meta.api.methods.send.SendMessage;
 import org.telegram.telegrambots.meta.api.objects.Update;
 import org.telegram.telegrambots.meta.exceptions.TelegramApiException;
+import org.telegram.telegrambots.meta.exceptions.TelegramApiRequestException;
 
 @Component
 public class CarSharingBot extends TelegramLongPollingBot {
+    private static final int TOO_MANY_REQUESTS = 429;
+
     @Value("${telegram.bot.username}")
     private String botUsername;
 
@@ -37,6 +42,13 @@ public class CarSharingBot extends TelegramLongPollingBot {
 
         try {
             execute(sendMessage);
+        } catch (TelegramApiRequestException e) {
+            if (Integer.valueOf(TOO_MANY_REQUESTS).equals(e.getErrorCode())
+                    && e.getParameters() != null && e.getParameters().getRetryAfter() != null) {
+                throw new TelegramRateLimitedException("Telegram rate limit exceeded",
+                        Duration.ofSeconds(e.getParameters().getRetryAfter()), e);
+            }
+            throw new TelegramNotificationException("Can't send message to Telegram", e);
         } catch (TelegramApiException e) {
             throw new TelegramNotificationException("Can't send message to Telegram", e);
         }
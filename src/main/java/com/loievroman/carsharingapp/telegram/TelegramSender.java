@@ -0,0 +1,103 @@
+package com.loievroman.carsharingapp.telegram;
+
+import com.loievroman.carsharingapp.exception.TelegramRateLimitedException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+@Component
+public class TelegramSender {
+    public static final int MAX_MESSAGE_LENGTH = 4096;
+
+    private final CarSharingBot carSharingBot;
+    private final TokenBucket globalBucket;
+    private final Map<String, TokenBucket> chatBuckets = new ConcurrentHashMap<>();
+    private final int chatCapacity;
+    private final Duration chatRefillPeriod;
+    private final long maxWaitNanos;
+    private final LongSupplier nanoClock;
+    private final Counter sent;
+    private final Counter deferred;
+    private final Counter throttled;
+
+    public TelegramSender(
+            CarSharingBot carSharingBot,
+            MeterRegistry meterRegistry,
+            @Value("${telegram.rate-limit.global-capacity}") int globalCapacity,
+            @Value("${telegram.rate-limit.global-refill-period}") Duration globalRefillPeriod,
+            @Value("${telegram.rate-limit.chat-capacity}") int chatCapacity,
+            @Value("${telegram.rate-limit.chat-refill-period}") Duration chatRefillPeriod,
+            @Value("${telegram.rate-limit.max-wait}") Duration maxWait) {
+        this(carSharingBot, meterRegistry, globalCapacity, globalRefillPeriod, chatCapacity,
+                chatRefillPeriod, maxWait, System::nanoTime);
+    }
+
+    TelegramSender(CarSharingBot carSharingBot,
+                   MeterRegistry meterRegistry,
+                   int globalCapacity,
+                   Duration globalRefillPeriod,
+                   int chatCapacity,
+                   Duration chatRefillPeriod,
+                   Duration maxWait,
+                   LongSupplier nanoClock) {
+        this.carSharingBot = carSharingBot;
+        this.globalBucket = new TokenBucket(globalCapacity, globalRefillPeriod, nanoClock);
+        this.chatCapacity = chatCapacity;
+        this.chatRefillPeriod = chatRefillPeriod;
+        this.maxWaitNanos = maxWait.toNanos();
+        this.nanoClock = nanoClock;
+        this.sent = outcomeCounter(meterRegistry, "sent");
+        this.deferred = outcomeCounter(meterRegistry, "deferred");
+        this.throttled = outcomeCounter(meterRegistry, "throttled");
+    }
+
+    public void send(String chatId, String text) {
+        TokenBucket chatBucket = chatBuckets.computeIfAbsent(chatId,
+                id -> new TokenBucket(chatCapacity, chatRefillPeriod, nanoClock));
+        long wait = reserve(chatBucket);
+        if (wait > 0) {
+            sleep(wait);
+        }
+        try {
+            carSharingBot.sendMessage(chatId, text);
+            sent.increment();
+        } catch (TelegramRateLimitedException e) {
+            chatBucket.pauseFor(e.getRetryAfter());
+            throttled.increment();
+            throw e;
+        }
+    }
+
+    private synchronized long reserve(TokenBucket chatBucket) {
+        long wait = Math.max(globalBucket.nanosUntilAvailable(),
+                chatBucket.nanosUntilAvailable());
+        if (wait > maxWaitNanos) {
+            deferred.increment();
+            throw new TelegramRateLimitedException("Telegram send rate exhausted",
+                    Duration.ofNanos(wait));
+        }
+        globalBucket.take();
+        chatBucket.take();
+        return wait;
+    }
+
+    private void sleep(long nanos) {
+        try {
+            TimeUnit.NANOSECONDS.sleep(nanos);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new TelegramRateLimitedException("Interrupted while waiting for a send slot",
+                    Duration.ofNanos(nanos), e);
+        }
+    }
+
+    private Counter outcomeCounter(MeterRegistry meterRegistry, String outcome) {
+        return meterRegistry.counter("telegram.messages", "outcome", outcome);
+    }
+}
@@ -0,0 +1,46 @@
+package com.loievroman.carsharingapp.telegram;
+
+import java.time.Duration;
+import java.util.function.LongSupplier;
+
+class TokenBucket {
+    private final int capacity;
+    private final double tokensPerNano;
+    private final LongSupplier nanoClock;
+    private double tokens;
+    private long refilledAt;
+    private long pausedUntil;
+
+    TokenBucket(int capacity, Duration refillPeriod, LongSupplier nanoClock) {
+        this.capacity = capacity;
+        this.tokensPerNano = capacity / (double) refillPeriod.toNanos();
+        this.nanoClock = nanoClock;
+        this.tokens = capacity;
+        this.refilledAt = nanoClock.getAsLong();
+        this.pausedUntil = refilledAt;
+    }
+
+    synchronized long nanosUntilAvailable() {
+        long now = refill();
+        long refillWait = tokens >= 1 ? 0 : (long) Math.ceil((1 - tokens) / tokensPerNano);
+        return Math.max(pausedUntil - now, refillWait);
+    }
+
+    synchronized void take() {
+        refill();
+        tokens -= 1;
+    }
+
+    synchronized void pauseFor(Duration duration) {
+        long now = refill();
+        pausedUntil = Math.max(pausedUntil, now + duration.toNanos());
+        tokens = Math.min(tokens, 0);
+    }
+
+    private long refill() {
+        long now = nanoClock.getAsLong();
+        tokens = Math.min(capacity, tokens + (now - refilledAt) * tokensPerNano);
+        refilledAt = now;
+        return now;
+    }
+}
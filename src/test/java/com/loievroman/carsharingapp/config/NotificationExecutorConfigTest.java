@@ -0,0 +1,144 @@
+package com.loievroman.carsharingapp.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+class NotificationExecutorConfigTest {
+    private final Set<String> completed = ConcurrentHashMap.newKeySet();
+    private final CountDownLatch started = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    private SimpleMeterRegistry meterRegistry;
+    private ThreadPoolTaskExecutor executor;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        executor.shutdown();
+    }
+
+    @Test
+    @DisplayName("Execute - Queue Full With Drop Oldest - Discards Queued Task And Counts It")
+    void execute_QueueFullWithDropOldest_DiscardsQueuedTask() throws InterruptedException {
+        // given
+        executor = start(NotificationExecutorConfig.RejectionPolicy.DROP_OLDEST);
+        executor.execute(this::blockWorker);
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        executor.execute(() -> completed.add("stale"));
+
+        // when
+        executor.execute(() -> completed.add("fresh"));
+        release.countDown();
+        executor.shutdown();
+
+        // then
+        assertEquals(Set.of("blocking", "fresh"), completed);
+        assertEquals(1, meterRegistry.counter("notification.executor.rejected",
+                "policy", "drop-oldest").count());
+        assertEquals(2, meterRegistry.timer("notification.executor.task.execution").count());
+    }
+
+    @Test
+    @DisplayName("Execute - Queue Full With Drop Oldest - Rejects Dropped Rejectable Task")
+    void execute_QueueFullWithDropOldest_RejectsDroppedRejectableTask()
+            throws InterruptedException {
+        // given
+        executor = start(NotificationExecutorConfig.RejectionPolicy.DROP_OLDEST);
+        executor.execute(this::blockWorker);
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        executor.execute(new NotificationExecutorConfig.RejectableTask() {
+            @Override
+            public void run() {
+                completed.add("stale");
+            }
+
+            @Override
+            public void reject(RejectedExecutionException cause) {
+                completed.add("rejected");
+            }
+        });
+
+        // when
+        executor.execute(() -> completed.add("fresh"));
+        release.countDown();
+        executor.shutdown();
+
+        // then
+        assertEquals(Set.of("blocking", "rejected", "fresh"), completed);
+    }
+
+    @Test
+    @DisplayName("Execute - Queue Full With Caller Runs - Runs Task On Submitting Thread")
+    void execute_QueueFullWithCallerRuns_RunsOnCaller() throws InterruptedException {
+        // given
+        executor = start(NotificationExecutorConfig.RejectionPolicy.CALLER_RUNS);
+        executor.execute(this::blockWorker);
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        executor.execute(() -> completed.add("queued"));
+        String caller = Thread.currentThread().getName();
+
+        // when
+        executor.execute(() -> completed.add("ran-on-" + Thread.currentThread().getName()));
+
+        // then
+        assertTrue(completed.contains("ran-on-" + caller));
+        assertFalse(completed.contains("queued"));
+        assertEquals(1, meterRegistry.counter("notification.executor.rejected",
+                "policy", "caller-runs").count());
+    }
+
+    @Test
+    @DisplayName("Shutdown - Tasks Still Queued - Drains Them Before Returning")
+    void shutdown_TasksQueued_DrainsBeforeReturning() throws InterruptedException {
+        // given
+        executor = start(NotificationExecutorConfig.RejectionPolicy.DROP_OLDEST);
+        executor.execute(this::blockWorker);
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        executor.execute(() -> completed.add("queued"));
+        assertEquals(1.0, meterRegistry.get("executor.queued")
+                .tag("name", "notification.executor").gauge().value());
+
+        // when
+        release.countDown();
+        executor.shutdown();
+
+        // then
+        assertEquals(Set.of("blocking", "queued"), completed);
+    }
+
+    private ThreadPoolTaskExecutor start(NotificationExecutorConfig.RejectionPolicy policy) {
+        ThreadPoolTaskExecutor taskExecutor = NotificationExecutorConfig.buildNotificationExecutor(
+                meterRegistry, 1, 1, policy, Duration.ofSeconds(5));
+        taskExecutor.initialize();
+        return taskExecutor;
+    }
+
+    private void blockWorker() {
+        started.countDown();
+        try {
+            release.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        completed.add("blocking");
+    }
+}
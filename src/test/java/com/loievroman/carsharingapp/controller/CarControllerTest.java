@@ -1,7 +1,9 @@
 package com.loievroman.carsharingapp.controller;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
@@ -9,8 +11,10 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.loievroman.carsharingapp.dto.car.CarDto;
+import com.loievroman.carsharingapp.dto.car.CarQuoteDto;
 import com.loievroman.carsharingapp.dto.car.CreateCarRequestDto;
 import com.loievroman.carsharingapp.model.CarType;
 import java.math.BigDecimal;
@@ -99,6 +103,26 @@ class CarControllerTest {
         assertEquals(1, actual.getTotalElements());
     }
 
+    @Test
+    @DisplayName("Get all cars by cursor")
+    @WithMockUser
+    void getAllByCursor_FirstPage_ReturnsSliceWithoutNextCursor() throws Exception {
+        // when
+        MvcResult result = mockMvc
+                .perform(get("/cars")
+                        .param("cursor", "")
+                        .param("size", "10")
+                        .param("sort", "brand,asc"))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        // then
+        JsonNode actual = objectMapper.readTree(result.getResponse().getContentAsString());
+        assertEquals(1, actual.get("content").size());
+        assertFalse(actual.get("hasNext").asBoolean());
+        assertTrue(actual.get("nextCursor").isNull());
+    }
+
     @Test
     @DisplayName("Get car by ID")
     @WithMockUser
@@ -144,6 +168,42 @@ class CarControllerTest {
         assertEquals(15, actual.getInventory());
     }
 
+    @Test
+    @DisplayName("Quote a rental after a price update")
+    @WithMockUser(roles = "MANAGER")
+    void quote_AfterPriceUpdate_UsesNewDailyFee() throws Exception {
+        // given
+        CreateCarRequestDto requestDto = new CreateCarRequestDto()
+                .setModel("Q8")
+                .setBrand("Audi")
+                .setType(CarType.SUV)
+                .setInventory(10)
+                .setDailyFee(BigDecimal.valueOf(180.00));
+        mockMvc.perform(get("/cars/1/quote")
+                        .param("rentalDate", "2024-03-04")
+                        .param("returnDate", "2024-03-06"))
+                .andExpect(status().isOk());
+        mockMvc.perform(put("/cars/1")
+                        .content(objectMapper.writeValueAsString(requestDto))
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk());
+
+        // when
+        MvcResult result = mockMvc
+                .perform(get("/cars/1/quote")
+                        .param("rentalDate", "2024-03-04")
+                        .param("returnDate", "2024-03-06"))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        // then
+        CarQuoteDto actual = objectMapper.readValue(result
+                .getResponse()
+                .getContentAsString(), CarQuoteDto.class);
+        assertEquals(2, actual.getDays());
+        assertEquals(0, new BigDecimal("360.00").compareTo(actual.getTotal()));
+    }
+
     @Test
     @DisplayName("Delete a car")
     @WithMockUser(roles = "MANAGER")
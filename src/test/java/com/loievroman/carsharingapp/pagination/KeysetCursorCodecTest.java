@@ -0,0 +1,109 @@
+package com.loievroman.carsharingapp.pagination;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.loievroman.carsharingapp.dto.page.CursorPageDto;
+import com.loievroman.carsharingapp.exception.InvalidCursorException;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+
+class KeysetCursorCodecTest {
+    private static final Map<String, Class<?>> SORTABLE = Map.of(
+            "id", Long.class,
+            "rentalDate", LocalDate.class
+    );
+
+    private final KeysetCursorCodec codec = new KeysetCursorCodec(JsonMapper.builder()
+            .findAndAddModules()
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build());
+
+    @Test
+    @DisplayName("Decode - First Page - Appends Id Tiebreaker In Last Direction")
+    void decode_FirstPage_AppendsIdTiebreaker() {
+        // given
+        PageRequest pageable = PageRequest.of(0, 2, Sort.by(Sort.Direction.DESC, "rentalDate"));
+
+        // when
+        KeysetQuery query = codec.decode("", pageable, SORTABLE);
+
+        // then
+        assertEquals(Sort.by(Sort.Direction.DESC, "rentalDate", "id"), query.sort());
+        assertEquals(2, query.limit().max());
+        assertTrue(query.position().isInitial());
+    }
+
+    @Test
+    @DisplayName("To page - Has Next - Cursor Decodes Back To Typed Keyset Position")
+    void toPage_HasNext_CursorRoundTrips() {
+        // given
+        KeysetQuery query = codec.decode(null,
+                PageRequest.of(0, 1, Sort.by("rentalDate")), SORTABLE);
+        Window<String> window = Window.from(List.of("first"),
+                index -> ScrollPosition.forward(
+                        Map.of("rentalDate", LocalDate.of(2024, 3, 1), "id", 7L)),
+                true);
+
+        // when
+        CursorPageDto<String> page = codec.toPage(window, query, String::toUpperCase);
+        KeysetQuery next = codec.decode(page.getNextCursor(), PageRequest.of(0, 1), SORTABLE);
+
+        // then
+        assertEquals(List.of("FIRST"), page.getContent());
+        assertNotNull(page.getNextCursor());
+        KeysetScrollPosition position = (KeysetScrollPosition) next.position();
+        assertEquals(LocalDate.of(2024, 3, 1), position.getKeys().get("rentalDate"));
+        assertEquals(7L, position.getKeys().get("id"));
+        assertEquals(Sort.by("rentalDate", "id"), next.sort());
+    }
+
+    @Test
+    @DisplayName("To page - Last Page - Has No Next Cursor")
+    void toPage_LastPage_HasNoNextCursor() {
+        // given
+        KeysetQuery query = codec.decode(null, PageRequest.of(0, 5), SORTABLE);
+        Window<String> window = Window.from(List.of("only"),
+                index -> ScrollPosition.forward(Map.of("id", 1L)), false);
+
+        // when
+        CursorPageDto<String> page = codec.toPage(window, query, value -> value);
+
+        // then
+        assertFalse(page.isHasNext());
+        assertNull(page.getNextCursor());
+    }
+
+    @Test
+    @DisplayName("Decode - Unsupported Sort Property - Throws Exception")
+    void decode_UnsupportedSortProperty_ThrowsException() {
+        // given
+        PageRequest pageable = PageRequest.of(0, 10, Sort.by("actualReturnDate"));
+
+        // when & then
+        assertThrows(InvalidCursorException.class,
+                () -> codec.decode(null, pageable, SORTABLE));
+    }
+
+    @Test
+    @DisplayName("Decode - Tampered Cursor - Throws Exception")
+    void decode_TamperedCursor_ThrowsException() {
+        // when & then
+        assertThrows(InvalidCursorException.class,
+                () -> codec.decode("not-a-cursor!", PageRequest.of(0, 10), SORTABLE));
+    }
+}
@@ -0,0 +1,98 @@
+package com.loievroman.carsharingapp.payment;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class CircuitBreakerTest {
+    private static final Duration OPEN_DURATION = Duration.ofSeconds(30);
+
+    private final AtomicLong clock = new AtomicLong();
+    private SimpleMeterRegistry meterRegistry;
+    private CircuitBreaker circuitBreaker;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        circuitBreaker = new CircuitBreaker("test", 4, 4, 50, OPEN_DURATION,
+                meterRegistry, clock::get);
+    }
+
+    @Test
+    @DisplayName("On failure - Failure Rate Reaches Threshold - Opens And Fails Fast")
+    void onFailure_ThresholdReached_OpensCircuit() {
+        // given
+        circuitBreaker.onSuccess();
+        circuitBreaker.onSuccess();
+        circuitBreaker.onFailure();
+
+        // when
+        circuitBreaker.onFailure();
+
+        // then
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+        assertFalse(circuitBreaker.tryAcquire());
+        assertEquals(OPEN_DURATION, circuitBreaker.retryAfter());
+    }
+
+    @Test
+    @DisplayName("On failure - Below Minimum Calls - Stays Closed")
+    void onFailure_BelowMinimumCalls_StaysClosed() {
+        // when
+        circuitBreaker.onFailure();
+        circuitBreaker.onFailure();
+        circuitBreaker.onFailure();
+
+        // then
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+        assertTrue(circuitBreaker.tryAcquire());
+    }
+
+    @Test
+    @DisplayName("Try acquire - Open Duration Elapsed - Admits Single Trial Then Closes")
+    void tryAcquire_OpenDurationElapsed_AdmitsSingleTrial() {
+        // given
+        openCircuit();
+        clock.addAndGet(OPEN_DURATION.toNanos());
+
+        // when
+        boolean trial = circuitBreaker.tryAcquire();
+        boolean concurrent = circuitBreaker.tryAcquire();
+        circuitBreaker.onSuccess();
+
+        // then
+        assertTrue(trial);
+        assertFalse(concurrent);
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+        assertEquals(30.0, meterRegistry.get("test.circuit.open-time").functionCounter().count());
+    }
+
+    @Test
+    @DisplayName("On failure - Trial Call Fails - Reopens For Another Period")
+    void onFailure_TrialFails_Reopens() {
+        // given
+        openCircuit();
+        clock.addAndGet(OPEN_DURATION.toNanos());
+        circuitBreaker.tryAcquire();
+
+        // when
+        circuitBreaker.onFailure();
+
+        // then
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+        assertFalse(circuitBreaker.tryAcquire());
+    }
+
+    private void openCircuit() {
+        for (int i = 0; i < 4; i++) {
+            circuitBreaker.onFailure();
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package com.loievroman.carsharingapp.payment;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.loievroman.carsharingapp.exception.PaymentException;
+import com.loievroman.carsharingapp.exception.PaymentGatewayUnavailableException;
+import com.loievroman.carsharingapp.exception.TransientPaymentException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class ResilientPaymentGatewayTest {
+    private static final CheckoutRequest REQUEST = new CheckoutRequest("Rental payment", 1000L,
+            "http://localhost/success", "http://localhost/cancel", "payment-session-1-1");
+
+    @Mock
+    private PaymentGateway delegate;
+
+    private final CountDownLatch release = new CountDownLatch(1);
+    private SimpleMeterRegistry meterRegistry;
+    private ExecutorService workers;
+    private ResilientPaymentGateway gateway;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        workers = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(1));
+        CircuitBreaker circuitBreaker = new CircuitBreaker("payment.gateway", 2, 2, 50,
+                Duration.ofSeconds(30), meterRegistry, System::nanoTime);
+        gateway = new ResilientPaymentGateway(delegate, workers, circuitBreaker,
+                meterRegistry, Duration.ofMillis(100));
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        workers.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("Create checkout session - Provider Responds - Returns Session And Records Timer")
+    void createCheckoutSession_ProviderResponds_ReturnsSession() {
+        // given
+        CheckoutSession session = new CheckoutSession("sess_1", "http://stripe.com/pay");
+        when(delegate.createCheckoutSession(REQUEST)).thenReturn(session);
+
+        // when
+        CheckoutSession result = gateway.createCheckoutSession(REQUEST);
+
+        // then
+        assertEquals(session, result);
+        assertEquals(1, meterRegistry.get("payment.gateway.calls")
+                .tag("outcome", "success").timer().count());
+    }
+
+    @Test
+    @DisplayName("Create checkout session - Provider Hangs - Times Out With Retryable Error")
+    void createCheckoutSession_ProviderHangs_TimesOut() {
+        // given
+        when(delegate.createCheckoutSession(REQUEST)).thenAnswer(invocation -> {
+            release.await();
+            return null;
+        });
+
+        // when & then
+        assertThrows(PaymentGatewayUnavailableException.class,
+                () -> gateway.createCheckoutSession(REQUEST));
+        assertEquals(1, meterRegistry.get("payment.gateway.calls")
+                .tag("outcome", "timeout").timer().count());
+    }
+
+    @Test
+    @DisplayName("Create checkout session - Repeated Failures - Opens Circuit And Skips Provider")
+    void createCheckoutSession_RepeatedFailures_FailsFast() {
+        // given
+        when(delegate.createCheckoutSession(REQUEST))
+                .thenThrow(new TransientPaymentException("Can't create Stripe payment session"));
+        assertThrows(PaymentException.class, () -> gateway.createCheckoutSession(REQUEST));
+        assertThrows(PaymentException.class, () -> gateway.createCheckoutSession(REQUEST));
+
+        // when
+        PaymentGatewayUnavailableException exception = assertThrows(
+                PaymentGatewayUnavailableException.class,
+                () -> gateway.createCheckoutSession(REQUEST));
+
+        // then
+        assertTrue(exception.getRetryAfter().compareTo(Duration.ZERO) > 0);
+        verify(delegate, times(2)).createCheckoutSession(REQUEST);
+        assertEquals(1, meterRegistry.get("payment.gateway.rejected")
+                .tag("reason", "circuit-open").counter().count());
+    }
+
+    @Test
+    @DisplayName("Create checkout session - Repeated Declined Requests - Keeps Circuit Closed")
+    void createCheckoutSession_RepeatedDeclines_KeepsCircuitClosed() {
+        // given
+        when(delegate.createCheckoutSession(REQUEST))
+                .thenThrow(new PaymentException("Can't create Stripe payment session"));
+        assertThrows(PaymentException.class, () -> gateway.createCheckoutSession(REQUEST));
+        assertThrows(PaymentException.class, () -> gateway.createCheckoutSession(REQUEST));
+
+        // when
+        PaymentException exception = assertThrows(PaymentException.class,
+                () -> gateway.createCheckoutSession(REQUEST));
+
+        // then
+        assertFalse(exception instanceof TransientPaymentException);
+        verify(delegate, times(3)).createCheckoutSession(REQUEST);
+        assertEquals(3, meterRegistry.get("payment.gateway.calls")
+                .tag("outcome", "declined").timer().count());
+    }
+
+    @Test
+    @DisplayName("Create checkout session - Workers And Queue Full - Rejects Without Waiting")
+    void createCheckoutSession_BulkheadFull_Rejects() {
+        // given
+        workers.submit(() -> awaitRelease());
+        workers.submit(() -> awaitRelease());
+
+        // when & then
+        assertThrows(PaymentGatewayUnavailableException.class,
+                () -> gateway.createCheckoutSession(REQUEST));
+        verify(delegate, never()).createCheckoutSession(any());
+        assertEquals(1, meterRegistry.get("payment.gateway.rejected")
+                .tag("reason", "bulkhead-full").counter().count());
+    }
+
+    private void awaitRelease() {
+        try {
+            release.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
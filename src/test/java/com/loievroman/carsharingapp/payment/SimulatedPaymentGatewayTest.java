@@ -0,0 +1,159 @@
+package com.loievroman.carsharingapp.payment;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import com.loievroman.carsharingapp.exception.PaymentException;
+import com.loievroman.carsharingapp.service.StripeEventProcessor;
+import com.loievroman.carsharingapp.service.StripeWebhookService;
+import com.stripe.model.Event;
+import com.stripe.net.Webhook;
+import java.time.Duration;
+import java.time.Instant;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class SimulatedPaymentGatewayTest {
+    private static final String WEBHOOK_SECRET = "whsec_simulator";
+
+    @Mock
+    private StripeWebhookService stripeWebhookService;
+
+    private SimulatedPaymentGateway gateway;
+
+    @AfterEach
+    void tearDown() {
+        if (gateway != null) {
+            gateway.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("Create checkout session - Same Idempotency Key - Returns Same Session")
+    void createCheckoutSession_SameIdempotencyKey_ReturnsSameSession() {
+        // given
+        gateway = simulator(0, 1);
+
+        // when
+        CheckoutSession first = gateway.createCheckoutSession(request("payment-session-1-1"));
+        CheckoutSession retry = gateway.createCheckoutSession(request("payment-session-1-1"));
+        CheckoutSession other = gateway.createCheckoutSession(request("payment-session-2-1"));
+
+        // then
+        assertEquals(first, retry);
+        assertNotEquals(first.id(), other.id());
+    }
+
+    @Test
+    @DisplayName("Create checkout session - Error Rate One - Throws Exception")
+    void createCheckoutSession_AlwaysFailing_ThrowsException() {
+        // given
+        gateway = simulator(1, 1);
+
+        // when & then
+        assertThrows(PaymentException.class,
+                () -> gateway.createCheckoutSession(request("payment-session-1-1")));
+    }
+
+    @Test
+    @DisplayName("Create checkout session - Completed Session - Emits Signed Webhook")
+    void createCheckoutSession_CompletedSession_EmitsSignedWebhook() throws Exception {
+        // given
+        gateway = simulator(0, 1);
+        ArgumentCaptor<String> payload = ArgumentCaptor.forClass(String.class);
+        ArgumentCaptor<String> signature = ArgumentCaptor.forClass(String.class);
+
+        // when
+        CheckoutSession session = gateway.createCheckoutSession(request("payment-session-1-1"));
+
+        // then
+        verify(stripeWebhookService, timeout(2000)).receive(payload.capture(), signature.capture());
+        Event event = Webhook.constructEvent(payload.getValue(), signature.getValue(),
+                WEBHOOK_SECRET);
+        assertEquals(StripeEventProcessor.SESSION_COMPLETED, event.getType());
+        assertTrue(payload.getValue().contains(session.id()));
+    }
+
+    @Test
+    @DisplayName("Create checkout session - Abandoned Session - Emits Expired Webhook")
+    void createCheckoutSession_AbandonedSession_EmitsExpiredWebhook() throws Exception {
+        // given
+        gateway = simulator(0, 0);
+        ArgumentCaptor<String> payload = ArgumentCaptor.forClass(String.class);
+
+        // when
+        gateway.createCheckoutSession(request("payment-session-1-1"));
+
+        // then
+        verify(stripeWebhookService, timeout(2000)).receive(payload.capture(), anyString());
+        assertTrue(payload.getValue().contains(StripeEventProcessor.SESSION_EXPIRED));
+    }
+
+    @Test
+    @DisplayName("Expire checkout session - Open Session - Expires And Suppresses Payment")
+    void expireCheckoutSession_OpenSession_Expires() throws Exception {
+        // given
+        gateway = new SimulatedPaymentGateway(stripeWebhookService, WEBHOOK_SECRET,
+                Duration.ZERO, Duration.ZERO, 0, 1, 0, Duration.ofMillis(200));
+        CheckoutSession session = gateway.createCheckoutSession(request("payment-session-1-1"));
+        ArgumentCaptor<String> payload = ArgumentCaptor.forClass(String.class);
+
+        // when
+        boolean expired = gateway.expireCheckoutSession(session.id());
+
+        // then
+        assertTrue(expired);
+        verify(stripeWebhookService, timeout(2000)).receive(payload.capture(), anyString());
+        Thread.sleep(300);
+        verify(stripeWebhookService, times(1)).receive(anyString(), anyString());
+        assertTrue(payload.getValue().contains(StripeEventProcessor.SESSION_EXPIRED));
+    }
+
+    @Test
+    @DisplayName("List checkout sessions - Two Pages - Walks Newest First From Cursor")
+    void listCheckoutSessions_TwoPages_WalksFromCursor() {
+        // given
+        gateway = new SimulatedPaymentGateway(stripeWebhookService, WEBHOOK_SECRET,
+                Duration.ZERO, Duration.ZERO, 0, 1, 0, Duration.ofHours(1));
+        gateway.createCheckoutSession(request("payment-session-1-1"));
+        gateway.createCheckoutSession(request("payment-session-2-1"));
+        gateway.createCheckoutSession(request("payment-session-3-1"));
+        long now = Instant.now().getEpochSecond();
+
+        // when
+        CheckoutSessionPage first = gateway.listCheckoutSessions(0, now + 1, null, 2);
+        CheckoutSessionPage second = gateway.listCheckoutSessions(
+                0, now + 1, first.sessions().get(1).id(), 2);
+
+        // then
+        assertTrue(first.hasMore());
+        assertEquals(2, first.sessions().size());
+        assertFalse(second.hasMore());
+        assertEquals(1, second.sessions().size());
+        assertEquals("open", second.sessions().get(0).status());
+        assertTrue(gateway.listCheckoutSessions(now + 1, now + 2, null, 2).sessions().isEmpty());
+    }
+
+    private SimulatedPaymentGateway simulator(double errorRate, double completionRate) {
+        return new SimulatedPaymentGateway(stripeWebhookService, WEBHOOK_SECRET,
+                Duration.ZERO, Duration.ZERO, errorRate, completionRate, 0, Duration.ZERO);
+    }
+
+    private CheckoutRequest request(String idempotencyKey) {
+        return new CheckoutRequest("Rental payment", 1000L, "http://localhost/success",
+                "http://localhost/cancel", idempotencyKey);
+    }
+}
@@ -0,0 +1,83 @@
+package com.loievroman.carsharingapp.pricing;
+
+import com.loievroman.carsharingapp.model.CarType;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Quote cost of the BigDecimal arithmetic previously inlined in {@code PaymentServiceImpl}
+ * against {@link PricingEngine}. Run with {@code mvn test -Pbenchmark
+ * -Djmh.include=PricingEngineBenchmark -Djmh.args="-f 1 -wi 3 -i 5 -prof gc"} to see
+ * allocation rates next to timings.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class PricingEngineBenchmark {
+    private static final BigDecimal FINE_MULTIPLIER = new BigDecimal("1.5");
+    private static final BigDecimal CENTS = BigDecimal.valueOf(100);
+
+    @Param({"1", "9", "45"})
+    private int days;
+
+    @Param({"flat", "full"})
+    private String tariff;
+
+    private PricingEngine engine;
+    private BigDecimal dailyFee;
+    private long dailyFeeCents;
+    private LocalDate from;
+    private LocalDate to;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        PricingProperties.Tariff defaults = "flat".equals(tariff)
+                ? new PricingProperties.Tariff(BigDecimal.ONE, BigDecimal.ZERO,
+                        BigDecimal.ZERO, BigDecimal.ZERO, FINE_MULTIPLIER)
+                : new PricingProperties.Tariff(BigDecimal.ONE, new BigDecimal("0.10"),
+                        new BigDecimal("0.25"), new BigDecimal("0.15"), FINE_MULTIPLIER);
+        engine = new PricingEngine(new PricingProperties(defaults, Map.of(CarType.SUV,
+                new PricingProperties.Tariff(new BigDecimal("1.2"), null, null, null, null))));
+        dailyFee = new BigDecimal("79.99");
+        dailyFeeCents = MinorUnits.toCents(dailyFee);
+        from = LocalDate.of(2024, 3, 1);
+        to = from.plusDays(days);
+    }
+
+    @Benchmark
+    public long legacyRental() {
+        long daysToPay = Math.max(1, ChronoUnit.DAYS.between(from, to));
+        return dailyFee.multiply(BigDecimal.valueOf(daysToPay)).multiply(CENTS).longValue();
+    }
+
+    @Benchmark
+    public long legacyFine() {
+        long overdueDays = ChronoUnit.DAYS.between(from, to);
+        return dailyFee.multiply(BigDecimal.valueOf(overdueDays))
+                .multiply(FINE_MULTIPLIER)
+                .multiply(CENTS)
+                .longValue();
+    }
+
+    @Benchmark
+    public long engineRental() {
+        return engine.rentalCents(CarType.SUV, dailyFeeCents, from, to);
+    }
+
+    @Benchmark
+    public long engineFine() {
+        return engine.fineCents(CarType.SUV, dailyFeeCents, from, to);
+    }
+}
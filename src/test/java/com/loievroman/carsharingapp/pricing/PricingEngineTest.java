@@ -0,0 +1,127 @@
+package com.loievroman.carsharingapp.pricing;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.loievroman.carsharingapp.model.CarType;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Map;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class PricingEngineTest {
+    // 2024-03-04 is a Monday.
+    private static final LocalDate MONDAY = LocalDate.of(2024, 3, 4);
+    private static final long DAILY_FEE_CENTS = 10_000;
+
+    private final PricingEngine defaultEngine = new PricingEngine(
+            new PricingProperties(tariff("1", "0", "0", "0", "1.5"), null));
+
+    @Test
+    @DisplayName("Rental cents - Default Tariff - Charges Daily Fee Per Day")
+    void rentalCents_DefaultTariff_ChargesDailyFee() {
+        // when
+        long fiveDays = defaultEngine.rentalCents(CarType.SEDAN, DAILY_FEE_CENTS,
+                MONDAY, MONDAY.plusDays(5));
+        long sameDay = defaultEngine.rentalCents(CarType.SEDAN, DAILY_FEE_CENTS,
+                MONDAY, MONDAY);
+
+        // then
+        assertEquals(50_000, fiveDays);
+        assertEquals(10_000, sameDay);
+    }
+
+    @Test
+    @DisplayName("Fine cents - Fractional Result - Rounds Half Up Instead Of Truncating")
+    void fineCents_FractionalResult_RoundsHalfUp() {
+        // when
+        long fine = defaultEngine.fineCents(CarType.SEDAN, 3_333,
+                MONDAY, MONDAY.plusDays(1));
+
+        // then
+        assertEquals(5_000, fine);
+    }
+
+    @Test
+    @DisplayName("Fine cents - Returned On Time - Returns Zero")
+    void fineCents_ReturnedOnTime_ReturnsZero() {
+        // when
+        long fine = defaultEngine.fineCents(CarType.SEDAN, DAILY_FEE_CENTS,
+                MONDAY, MONDAY.minusDays(1));
+
+        // then
+        assertEquals(0, fine);
+    }
+
+    @Test
+    @DisplayName("Rental cents - Long Stays - Apply Weekly Or Monthly Discount Not Both")
+    void rentalCents_LongStays_ApplyOneDiscountTier() {
+        // given
+        PricingEngine engine = new PricingEngine(
+                new PricingProperties(tariff("1", "0.10", "0.25", "0", "1.5"), null));
+
+        // when
+        long sixDays = engine.rentalCents(CarType.SEDAN, DAILY_FEE_CENTS,
+                MONDAY, MONDAY.plusDays(6));
+        long week = engine.rentalCents(CarType.SEDAN, DAILY_FEE_CENTS,
+                MONDAY, MONDAY.plusDays(7));
+        long month = engine.rentalCents(CarType.SEDAN, DAILY_FEE_CENTS,
+                MONDAY, MONDAY.plusDays(30));
+
+        // then
+        assertEquals(60_000, sixDays);
+        assertEquals(63_000, week);
+        assertEquals(225_000, month);
+    }
+
+    @Test
+    @DisplayName("Rental cents - Stay Over Weekend - Adds Surcharge For Weekend Days Only")
+    void rentalCents_StayOverWeekend_AddsSurcharge() {
+        // given
+        PricingEngine engine = new PricingEngine(
+                new PricingProperties(tariff("1", "0", "0", "0.2", "1.5"), null));
+
+        // when
+        long fridayToMonday = engine.rentalCents(CarType.SEDAN, DAILY_FEE_CENTS,
+                MONDAY.plusDays(4), MONDAY.plusDays(7));
+        long weekdays = engine.rentalCents(CarType.SEDAN, DAILY_FEE_CENTS,
+                MONDAY, MONDAY.plusDays(5));
+
+        // then
+        assertEquals(34_000, fridayToMonday);
+        assertEquals(50_000, weekdays);
+    }
+
+    @Test
+    @DisplayName("Rental cents - Car Type Override - Falls Back To Defaults For Unset Values")
+    void rentalCents_CarTypeOverride_MergesWithDefaults() {
+        // given
+        PricingProperties.Tariff suv = new PricingProperties.Tariff(
+                new BigDecimal("1.2"), null, null, null, new BigDecimal("2"));
+        PricingEngine engine = new PricingEngine(new PricingProperties(
+                tariff("1", "0", "0", "0", "1.5"), Map.of(CarType.SUV, suv)));
+
+        // when
+        long suvRental = engine.rentalCents(CarType.SUV, DAILY_FEE_CENTS,
+                MONDAY, MONDAY.plusDays(2));
+        long suvFine = engine.fineCents(CarType.SUV, DAILY_FEE_CENTS,
+                MONDAY, MONDAY.plusDays(1));
+        long sedanRental = engine.rentalCents(CarType.SEDAN, DAILY_FEE_CENTS,
+                MONDAY, MONDAY.plusDays(2));
+
+        // then
+        assertEquals(24_000, suvRental);
+        assertEquals(24_000, suvFine);
+        assertEquals(20_000, sedanRental);
+    }
+
+    private static PricingProperties.Tariff tariff(String dailyFeeMultiplier,
+                                                   String weeklyDiscount,
+                                                   String monthlyDiscount,
+                                                   String weekendSurcharge,
+                                                   String fineMultiplier) {
+        return new PricingProperties.Tariff(new BigDecimal(dailyFeeMultiplier),
+                new BigDecimal(weeklyDiscount), new BigDecimal(monthlyDiscount),
+                new BigDecimal(weekendSurcharge), new BigDecimal(fineMultiplier));
+    }
+}
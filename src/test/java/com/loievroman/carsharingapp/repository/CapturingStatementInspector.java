@@ -0,0 +1,27 @@
+package com.loievroman.carsharingapp.repository;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+public class CapturingStatementInspector implements StatementInspector {
+    private static final List<String> STATEMENTS = new ArrayList<>();
+
+    public static synchronized void clear() {
+        STATEMENTS.clear();
+    }
+
+    public static synchronized List<String> drain() {
+        List<String> statements = List.copyOf(STATEMENTS);
+        STATEMENTS.clear();
+        return statements;
+    }
+
+    @Override
+    public String inspect(String sql) {
+        synchronized (CapturingStatementInspector.class) {
+            STATEMENTS.add(sql);
+        }
+        return sql;
+    }
+}
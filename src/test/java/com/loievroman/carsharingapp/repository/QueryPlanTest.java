@@ -0,0 +1,279 @@
+package com.loievroman.carsharingapp.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.loievroman.carsharingapp.model.PaymentStatus;
+import com.loievroman.carsharingapp.model.PaymentType;
+import com.loievroman.carsharingapp.model.Role;
+import com.loievroman.carsharingapp.model.StripeEventStatus;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.TestFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.jdbc.Sql;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "com.loievroman.carsharingapp.repository.CapturingStatementInspector")
+@Sql(scripts = "classpath:database/remove-all-data.sql",
+        executionPhase = Sql.ExecutionPhase.BEFORE_TEST_CLASS)
+class QueryPlanTest {
+    private static final Long USER_ID = 1L;
+    private static final Long CAR_ID = 1L;
+    private static final Long RENTAL_ID = 1L;
+    private static final Object PAGE_BOUND = 10;
+
+    @Autowired
+    private RentalRepository rentalRepository;
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Autowired
+    private CarRepository carRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private StripeEventRepository stripeEventRepository;
+
+    @Autowired
+    private CheckoutBatchRepository checkoutBatchRepository;
+
+    @Autowired
+    private NotificationOutboxRepository notificationOutboxRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.execute("ANALYZE TABLE rentals, payments, cars, users, roles, stripe_events, "
+                + "checkout_batches, checkout_batch_payments, notification_outbox");
+    }
+
+    @TestFactory
+    @DisplayName("Repository queries - EXPLAIN - No Full Table Scan Without A Usable Index")
+    Stream<DynamicTest> repositoryQueries_Explain_UseIndexes() {
+        Pageable pageable = PageRequest.of(1, 10, Sort.by("id"));
+        ScrollPosition first = ScrollPosition.keyset();
+        Limit limit = Limit.of(10);
+        Sort byId = Sort.by("id");
+        LocalDate today = LocalDate.now();
+        LocalDateTime now = LocalDateTime.now();
+
+        return Stream.of(
+                plan("RentalRepository.findByUserIdAndActualReturnDateIsNull(Pageable)",
+                        () -> rentalRepository.findByUserIdAndActualReturnDateIsNull(
+                                USER_ID, pageable), USER_ID),
+                plan("RentalRepository.findByUserIdAndActualReturnDateIsNull(Window)",
+                        () -> rentalRepository.findByUserIdAndActualReturnDateIsNull(
+                                USER_ID, first, limit, byId), USER_ID),
+                plan("RentalRepository.findByUserIdAndActualReturnDateIsNotNull(Pageable)",
+                        () -> rentalRepository.findByUserIdAndActualReturnDateIsNotNull(
+                                USER_ID, pageable), USER_ID),
+                plan("RentalRepository.findByUserIdAndActualReturnDateIsNotNull(Window)",
+                        () -> rentalRepository.findByUserIdAndActualReturnDateIsNotNull(
+                                USER_ID, first, limit, byId), USER_ID),
+                plan("RentalRepository.findByActualReturnDateIsNull(Pageable)",
+                        () -> rentalRepository.findByActualReturnDateIsNull(pageable)),
+                plan("RentalRepository.findByActualReturnDateIsNull(Window)",
+                        () -> rentalRepository.findByActualReturnDateIsNull(first, limit, byId)),
+                plan("RentalRepository.findByActualReturnDateIsNotNull(Pageable)",
+                        () -> rentalRepository.findByActualReturnDateIsNotNull(pageable)),
+                plan("RentalRepository.findByActualReturnDateIsNotNull(Window)",
+                        () -> rentalRepository.findByActualReturnDateIsNotNull(
+                                first, limit, byId)),
+                plan("RentalRepository.findSliceByUserIdAndActualReturnDateIsNull",
+                        () -> rentalRepository.findSliceByUserIdAndActualReturnDateIsNull(
+                                USER_ID, pageable), USER_ID),
+                plan("RentalRepository.findSliceByActualReturnDateIsNull",
+                        () -> rentalRepository.findSliceByActualReturnDateIsNull(pageable)),
+                plan("RentalRepository.countByUserIdAndActualReturnDateIsNull",
+                        () -> rentalRepository.countByUserIdAndActualReturnDateIsNull(USER_ID),
+                        USER_ID),
+                plan("RentalRepository.countByActualReturnDateIsNull",
+                        () -> rentalRepository.countByActualReturnDateIsNull()),
+                plan("RentalRepository.findOverdueRentals",
+                        () -> rentalRepository.findOverdueRentals(today, 0L, limit),
+                        today, 0L),
+                plan("RentalRepository.markReturned",
+                        () -> rentalRepository.markReturned(RENTAL_ID, today), today, RENTAL_ID),
+                plan("RentalRepository.findAllByIdIn",
+                        () -> rentalRepository.findAllByIdIn(List.of(RENTAL_ID)), RENTAL_ID),
+                plan("PaymentRepository.findByRentalIdAndType",
+                        () -> paymentRepository.findByRentalIdAndType(
+                                RENTAL_ID, PaymentType.PAYMENT),
+                        RENTAL_ID, PaymentType.PAYMENT.name()),
+                plan("PaymentRepository.findBySessionId",
+                        () -> paymentRepository.findBySessionId("cs_test"), "cs_test"),
+                plan("PaymentRepository.findStatusBySessionId",
+                        () -> paymentRepository.findStatusBySessionId("cs_test"), "cs_test"),
+                plan("PaymentRepository.findByUserId",
+                        () -> paymentRepository.findByUserId(USER_ID, pageable), USER_ID),
+                plan("PaymentRepository.findByRentalUserId",
+                        () -> paymentRepository.findByRentalUserId(USER_ID, first, limit, byId),
+                        USER_ID),
+                plan("PaymentRepository.findSliceByUserId",
+                        () -> paymentRepository.findSliceByUserId(USER_ID, pageable), USER_ID),
+                plan("PaymentRepository.countByRentalUserId",
+                        () -> paymentRepository.countByRentalUserId(USER_ID), USER_ID),
+                plan("PaymentRepository.updateStatus",
+                        () -> paymentRepository.updateStatus(
+                                RENTAL_ID, PaymentStatus.PENDING, PaymentStatus.PAID),
+                        PaymentStatus.PAID.name(), RENTAL_ID, PaymentStatus.PENDING.name()),
+                plan("PaymentRepository.attachSession",
+                        () -> paymentRepository.attachSession(RENTAL_ID, "cs_test", "url"),
+                        "cs_test", "url", RENTAL_ID),
+                plan("PaymentRepository.expireOrphanedIntents",
+                        () -> paymentRepository.expireOrphanedIntents(now), now),
+                plan("PaymentRepository.findStalePendingSessions",
+                        () -> paymentRepository.findStalePendingSessions(now, 0L, limit),
+                        now, 0L),
+                plan("PaymentRepository.lockPendingIds",
+                        () -> paymentRepository.lockPendingIds(List.of(RENTAL_ID)), RENTAL_ID),
+                plan("PaymentRepository.expirePending",
+                        () -> paymentRepository.expirePending(List.of(RENTAL_ID)), RENTAL_ID),
+                plan("PaymentRepository.findSessionStatusesBySessionIdIn",
+                        () -> paymentRepository.findSessionStatusesBySessionIdIn(
+                                List.of("cs_test")), "cs_test"),
+                plan("PaymentRepository.lockUnpaidIds",
+                        () -> paymentRepository.lockUnpaidIds(List.of(RENTAL_ID)), RENTAL_ID),
+                plan("PaymentRepository.markPaid",
+                        () -> paymentRepository.markPaid(List.of(RENTAL_ID)), RENTAL_ID),
+                plan("PaymentRepository.findAllWithRentalByIdIn",
+                        () -> paymentRepository.findAllWithRentalByIdIn(List.of(RENTAL_ID)),
+                        RENTAL_ID),
+                plan("PaymentRepository.findAllForUpdateByRentalIdIn",
+                        () -> paymentRepository.findAllForUpdateByRentalIdIn(
+                                List.of(RENTAL_ID)), RENTAL_ID),
+                plan("CheckoutBatchRepository.findBySessionId",
+                        () -> checkoutBatchRepository.findBySessionId("cs_test"), "cs_test"),
+                plan("CheckoutBatchRepository.findStatusBySessionId",
+                        () -> checkoutBatchRepository.findStatusBySessionId("cs_test"),
+                        "cs_test"),
+                plan("CheckoutBatchRepository.findOpenBatchesByPaymentIdIn",
+                        () -> checkoutBatchRepository.findOpenBatchesByPaymentIdIn(
+                                List.of(RENTAL_ID)), RENTAL_ID),
+                plan("CheckoutBatchRepository.findSessionStatusesBySessionIdIn",
+                        () -> checkoutBatchRepository.findSessionStatusesBySessionIdIn(
+                                List.of("cs_test")), "cs_test"),
+                plan("CheckoutBatchRepository.findPaymentIdsByBatchIdIn",
+                        () -> checkoutBatchRepository.findPaymentIdsByBatchIdIn(
+                                List.of(RENTAL_ID)), RENTAL_ID),
+                plan("CheckoutBatchRepository.attachSession",
+                        () -> checkoutBatchRepository.attachSession(
+                                RENTAL_ID, "cs_test", "url"),
+                        "cs_test", "url", RENTAL_ID),
+                plan("CheckoutBatchRepository.lockUnpaidIds",
+                        () -> checkoutBatchRepository.lockUnpaidIds(List.of(RENTAL_ID)),
+                        RENTAL_ID),
+                plan("CheckoutBatchRepository.markPaid",
+                        () -> checkoutBatchRepository.markPaid(List.of(RENTAL_ID)), RENTAL_ID),
+                plan("CheckoutBatchRepository.expireOrphanedBatches",
+                        () -> checkoutBatchRepository.expireOrphanedBatches(now), now),
+                plan("CheckoutBatchRepository.findStalePendingSessions",
+                        () -> checkoutBatchRepository.findStalePendingSessions(now, 0L, limit),
+                        now, 0L),
+                plan("CheckoutBatchRepository.lockPendingIds",
+                        () -> checkoutBatchRepository.lockPendingIds(List.of(RENTAL_ID)),
+                        RENTAL_ID),
+                plan("CheckoutBatchRepository.expirePending",
+                        () -> checkoutBatchRepository.expirePending(List.of(RENTAL_ID)),
+                        RENTAL_ID),
+                plan("NotificationOutboxRepository.claimDue",
+                        () -> notificationOutboxRepository.claimDue(now, 10), now, 10),
+                plan("NotificationOutboxRepository.lease",
+                        () -> notificationOutboxRepository.lease(List.of(RENTAL_ID), now),
+                        now, RENTAL_ID),
+                plan("NotificationOutboxRepository.markDelivered",
+                        () -> notificationOutboxRepository.markDelivered(
+                                List.of(RENTAL_ID), now), now, RENTAL_ID),
+                plan("NotificationOutboxRepository.scheduleRetry",
+                        () -> notificationOutboxRepository.scheduleRetry(RENTAL_ID, now),
+                        now, RENTAL_ID),
+                plan("NotificationOutboxRepository.defer",
+                        () -> notificationOutboxRepository.defer(List.of(RENTAL_ID), now),
+                        now, RENTAL_ID),
+                plan("NotificationOutboxRepository.markFailed",
+                        () -> notificationOutboxRepository.markFailed(List.of(RENTAL_ID)),
+                        RENTAL_ID),
+                plan("NotificationOutboxRepository.deleteSettledBefore",
+                        () -> notificationOutboxRepository.deleteSettledBefore(now, 10),
+                        now, 10),
+                plan("StripeEventRepository.markProcessed",
+                        () -> stripeEventRepository.markProcessed("evt_test", now),
+                        now, "evt_test"),
+                plan("StripeEventRepository.findIdsByStatusAndReceivedAtBetween",
+                        () -> stripeEventRepository.findIdsByStatusAndReceivedAtBetween(
+                                StripeEventStatus.RECEIVED, now.minusDays(1), now, limit),
+                        StripeEventStatus.RECEIVED.name(), now.minusDays(1), now),
+                plan("StripeEventRepository.deleteProcessedBefore",
+                        () -> stripeEventRepository.deleteProcessedBefore(now, 10), now, 10),
+                plan("CarRepository.decrementInventory",
+                        () -> carRepository.decrementInventory(CAR_ID), CAR_ID),
+                plan("CarRepository.incrementInventory",
+                        () -> carRepository.incrementInventory(CAR_ID), CAR_ID),
+                plan("CarRepository.findInventoriesByIdIn",
+                        () -> carRepository.findInventoriesByIdIn(List.of(CAR_ID)), CAR_ID),
+                plan("CarRepository.findFeesByIdIn",
+                        () -> carRepository.findFeesByIdIn(List.of(CAR_ID)), CAR_ID),
+                plan("UserRepository.findByEmail",
+                        () -> userRepository.findByEmail("user@example.com"),
+                        "user@example.com"),
+                plan("UserRepository.findTokenVersionById",
+                        () -> userRepository.findTokenVersionById(USER_ID), USER_ID),
+                plan("RoleRepository.findByName",
+                        () -> roleRepository.findByName(Role.RoleName.CUSTOMER),
+                        Role.RoleName.CUSTOMER.name())
+        );
+    }
+
+    private DynamicTest plan(String name, Runnable query, Object... whereArgs) {
+        return DynamicTest.dynamicTest(name, () -> {
+            CapturingStatementInspector.clear();
+            query.run();
+            List<String> statements = CapturingStatementInspector.drain();
+
+            assertThat(statements).as("SQL issued by " + name).isNotEmpty();
+            for (String sql : statements) {
+                for (Map<String, Object> row : explain(sql, whereArgs)) {
+                    boolean fullScan = "ALL".equals(row.get("type"))
+                            && row.get("possible_keys") == null;
+                    assertThat(fullScan)
+                            .as("%s scans table '%s' without a usable index:%n%s",
+                                    name, row.get("table"), sql)
+                            .isFalse();
+                }
+            }
+        });
+    }
+
+    private List<Map<String, Object>> explain(String sql, Object... whereArgs) {
+        long placeholders = sql.chars().filter(c -> c == '?').count();
+        List<Object> args = new ArrayList<>(Arrays.asList(whereArgs));
+        while (args.size() < placeholders) {
+            args.add(PAGE_BOUND);
+        }
+        return jdbcTemplate.queryForList("EXPLAIN " + sql,
+                args.subList(0, (int) placeholders).toArray());
+    }
+}
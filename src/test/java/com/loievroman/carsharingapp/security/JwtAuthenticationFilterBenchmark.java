@@ -0,0 +1,91 @@
+package com.loievroman.carsharingapp.security;
+
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.loievroman.carsharingapp.model.User;
+import com.loievroman.carsharingapp.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/**
+ * Per-request cost of an anonymous-route catalog call ({@code GET /cars/{id}}) that still
+ * carries an Authorization header. Run with {@code mvn test -Pbenchmark
+ * -Djmh.include=JwtAuthenticationFilterBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class JwtAuthenticationFilterBenchmark {
+    private static final String SECRET =
+            "ff83806b190598c1abb65f137d48f67fa87d2aba76a5a5575cc902cd05881311";
+    private static final FilterChain NO_OP_CHAIN = (request, response) -> { };
+
+    @Param({"true", "false"})
+    private boolean skipPublicEndpoints;
+
+    @Param({"valid", "invalid"})
+    private String token;
+
+    private JwtAuthenticationFilter filter;
+    private MockHttpServletRequest request;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        JwtUtil jwtUtil = new JwtUtil(SECRET, 10_000, meterRegistry);
+        ReflectionTestUtils.setField(jwtUtil, "expiration", TimeUnit.HOURS.toMillis(1));
+
+        User user = new User();
+        user.setId(1L);
+        user.setEmail("customer@example.com");
+        user.setRoles(Set.of());
+        UserRepository userRepository = mock(UserRepository.class);
+        when(userRepository.findByEmail(anyString())).thenReturn(Optional.of(user));
+
+        CustomUserDetailsService userDetailsService = new CustomUserDetailsService(
+                new UserPrincipalCache(userRepository, Duration.ofMinutes(5), 10_000,
+                        meterRegistry));
+        UserTokenVersions userTokenVersions = new UserTokenVersions(userRepository,
+                Duration.ofMinutes(1), 10_000, meterRegistry);
+        PublicEndpoints publicEndpoints = skipPublicEndpoints
+                ? new PublicEndpoints()
+                : new PublicEndpoints(List.of());
+        filter = new JwtAuthenticationFilter(jwtUtil, userDetailsService, userTokenVersions,
+                publicEndpoints);
+
+        String bearer = "valid".equals(token)
+                ? jwtUtil.generateToken(user)
+                : jwtUtil.generateToken(user).replaceFirst(".{4}$", "AAAA");
+        request = new MockHttpServletRequest("GET", "/cars/42");
+        request.addHeader(HttpHeaders.AUTHORIZATION, "Bearer " + bearer);
+    }
+
+    @Benchmark
+    public int anonymousCatalogRequest() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, NO_OP_CHAIN);
+        SecurityContextHolder.clearContext();
+        return response.getStatus();
+    }
+}
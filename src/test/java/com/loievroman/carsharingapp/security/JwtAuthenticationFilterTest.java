@@ -0,0 +1,85 @@
+package com.loievroman.carsharingapp.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import io.jsonwebtoken.JwtException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+@ExtendWith(MockitoExtension.class)
+class JwtAuthenticationFilterTest {
+    private static final String BAD_TOKEN = "not-a-jwt";
+
+    @Mock
+    private JwtUtil jwtUtil;
+
+    @Mock
+    private CustomUserDetailsService userDetailsService;
+
+    @Mock
+    private UserTokenVersions userTokenVersions;
+
+    private JwtAuthenticationFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        filter = new JwtAuthenticationFilter(jwtUtil, userDetailsService, userTokenVersions,
+                new PublicEndpoints());
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    @DisplayName("Filter - Public Catalog Request With Bad Token - Skips Token Processing")
+    void doFilter_PublicCatalogRequest_SkipsTokenProcessing() throws Exception {
+        // given
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/cars/42");
+        request.addHeader(HttpHeaders.AUTHORIZATION, "Bearer " + BAD_TOKEN);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+
+        // when
+        filter.doFilter(request, response, chain);
+
+        // then
+        assertNotNull(chain.getRequest());
+        assertEquals(HttpStatus.OK.value(), response.getStatus());
+        verifyNoInteractions(jwtUtil, userDetailsService, userTokenVersions);
+    }
+
+    @Test
+    @DisplayName("Filter - Protected Request With Bad Token - Returns Unauthorized")
+    void doFilter_ProtectedRequestWithBadToken_ReturnsUnauthorized() throws Exception {
+        // given
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/cars");
+        request.addHeader(HttpHeaders.AUTHORIZATION, "Bearer " + BAD_TOKEN);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+        when(jwtUtil.verify(BAD_TOKEN)).thenThrow(new JwtException("Invalid JWT"));
+
+        // when
+        filter.doFilter(request, response, chain);
+
+        // then
+        assertNull(chain.getRequest());
+        assertEquals(HttpStatus.UNAUTHORIZED.value(), response.getStatus());
+    }
+}
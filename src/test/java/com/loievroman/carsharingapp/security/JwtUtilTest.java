@@ -0,0 +1,98 @@
+package com.loievroman.carsharingapp.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.loievroman.carsharingapp.model.Role;
+import com.loievroman.carsharingapp.model.User;
+import io.jsonwebtoken.JwtException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.Set;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+class JwtUtilTest {
+    private static final String SECRET =
+            "ff83806b190598c1abb65f137d48f67fa87d2aba76a5a5575cc902cd05881311";
+
+    private JwtUtil jwtUtil;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        jwtUtil = new JwtUtil(SECRET, 100, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(jwtUtil, "expiration", 60_000L);
+
+        Role customerRole = new Role();
+        customerRole.setId(1L);
+        customerRole.setName(Role.RoleName.CUSTOMER);
+
+        user = new User();
+        user.setId(7L);
+        user.setEmail("customer@example.com");
+        user.setRoles(Set.of(customerRole));
+        user.setTokenVersion(3);
+    }
+
+    @Test
+    @DisplayName("Verify - Same Token Twice - Second Call Served From Cache")
+    void verify_SameTokenTwice_SecondCallIsCacheHit() {
+        // given
+        String token = jwtUtil.generateToken(user);
+
+        // when
+        TokenClaims first = jwtUtil.verify(token);
+        TokenClaims second = jwtUtil.verify(token);
+
+        // then
+        assertEquals("customer@example.com", first.subject());
+        assertEquals(first, second);
+        assertEquals(1, jwtUtil.getVerifiedTokenCacheMisses());
+        assertEquals(1, jwtUtil.getVerifiedTokenCacheHits());
+    }
+
+    @Test
+    @DisplayName("Verify - Tampered Token - Throws Exception And Is Not Cached")
+    void verify_TamperedToken_ThrowsException() {
+        // given
+        String token = jwtUtil.generateToken(user);
+        String tampered = token.substring(0, token.length() - 2) + "xx";
+
+        // when & then
+        assertThrows(JwtException.class, () -> jwtUtil.verify(tampered));
+        assertThrows(JwtException.class, () -> jwtUtil.verify(tampered));
+        assertEquals(0, jwtUtil.getVerifiedTokenCacheHits());
+    }
+
+    @Test
+    @DisplayName("Generate Token - Stateless Mode Off - Carries Only The Subject")
+    void generateToken_StatelessModeOff_CarriesOnlySubject() {
+        // when
+        TokenClaims claims = jwtUtil.verify(jwtUtil.generateToken(user));
+
+        // then
+        assertFalse(claims.carriesAuthorities());
+        assertNull(claims.userId());
+    }
+
+    @Test
+    @DisplayName("Generate Token - Stateless Mode On - Carries Id, Roles And Version")
+    void generateToken_StatelessModeOn_CarriesAuthorities() {
+        // given
+        ReflectionTestUtils.setField(jwtUtil, "statelessAuthorities", true);
+
+        // when
+        TokenClaims claims = jwtUtil.verify(jwtUtil.generateToken(user));
+
+        // then
+        assertTrue(claims.carriesAuthorities());
+        assertEquals(7L, claims.userId());
+        assertEquals(Set.of(Role.RoleName.CUSTOMER), claims.roles());
+        assertEquals(3, claims.tokenVersion());
+    }
+}
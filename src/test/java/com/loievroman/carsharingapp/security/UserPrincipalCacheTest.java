@@ -0,0 +1,83 @@
+package com.loievroman.carsharingapp.security;
+
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.loievroman.carsharingapp.event.UserAccountChangedEvent;
+import com.loievroman.carsharingapp.exception.EntityNotFoundException;
+import com.loievroman.carsharingapp.model.User;
+import com.loievroman.carsharingapp.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.Set;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class UserPrincipalCacheTest {
+    private static final String EMAIL = "customer@example.com";
+
+    @Mock
+    private UserRepository userRepository;
+
+    private UserPrincipalCache userPrincipalCache;
+
+    @BeforeEach
+    void setUp() {
+        userPrincipalCache = new UserPrincipalCache(userRepository, Duration.ofMinutes(5), 100,
+                new SimpleMeterRegistry());
+    }
+
+    @Test
+    @DisplayName("Get - Repeated Lookups - Loads User Once")
+    void get_RepeatedLookups_LoadsUserOnce() {
+        // given
+        User user = new User();
+        user.setEmail(EMAIL);
+        when(userRepository.findByEmail(EMAIL)).thenReturn(Optional.of(user));
+
+        // when
+        User first = userPrincipalCache.get(EMAIL);
+        User second = userPrincipalCache.get(EMAIL);
+
+        // then
+        assertSame(first, second);
+        verify(userRepository, times(1)).findByEmail(EMAIL);
+    }
+
+    @Test
+    @DisplayName("Get - After Account Changed Event - Reloads User")
+    void get_AfterAccountChanged_ReloadsUser() {
+        // given
+        User user = new User();
+        user.setId(1L);
+        user.setEmail(EMAIL);
+        when(userRepository.findByEmail(EMAIL)).thenReturn(Optional.of(user));
+        userPrincipalCache.get(EMAIL);
+
+        // when
+        userPrincipalCache.onUserAccountChanged(new UserAccountChangedEvent(1L, Set.of(EMAIL)));
+        userPrincipalCache.get(EMAIL);
+
+        // then
+        verify(userRepository, times(2)).findByEmail(EMAIL);
+    }
+
+    @Test
+    @DisplayName("Get - Unknown Email - Throws Exception")
+    void get_UnknownEmail_ThrowsException() {
+        // given
+        when(userRepository.findByEmail(EMAIL)).thenReturn(Optional.empty());
+
+        // when & then
+        assertThrows(EntityNotFoundException.class, () -> userPrincipalCache.get(EMAIL));
+    }
+}
@@ -0,0 +1,212 @@
+package com.loievroman.carsharingapp.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.loievroman.carsharingapp.dto.car.CarDto;
+import com.loievroman.carsharingapp.event.CarCatalogChangedEvent;
+import com.loievroman.carsharingapp.event.CarInventoryChangedEvent;
+import com.loievroman.carsharingapp.exception.EntityNotFoundException;
+import com.loievroman.carsharingapp.mapper.impl.CarMapperImpl;
+import com.loievroman.carsharingapp.model.Car;
+import com.loievroman.carsharingapp.model.CarType;
+import com.loievroman.carsharingapp.repository.CarRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+@ExtendWith(MockitoExtension.class)
+class CarCatalogCacheTest {
+
+    @Mock
+    private CarRepository carRepository;
+
+    private CarCatalogCache carCatalogCache;
+    private Car car;
+
+    @BeforeEach
+    void setUp() {
+        carCatalogCache = new CarCatalogCache(carRepository, new CarMapperImpl(),
+                Duration.ofMinutes(10), Duration.ofMinutes(10), 100, 100,
+                new SimpleMeterRegistry());
+
+        car = new Car();
+        car.setId(1L);
+        car.setBrand("Tesla");
+        car.setModel("Model S");
+        car.setType(CarType.SEDAN);
+        car.setInventory(3);
+        car.setDailyFee(BigDecimal.valueOf(200));
+    }
+
+    @Test
+    @DisplayName("Find by ID - Repeated Lookups - Loads Car Once")
+    void findById_RepeatedLookups_LoadsCarOnce() {
+        // given
+        when(carRepository.findAllById(anyIterable())).thenReturn(List.of(car));
+        when(carRepository.findInventoriesByIdIn(anyCollection()))
+                .thenReturn(List.of(inventoryView(1L, 3)));
+
+        // when
+        CarDto first = carCatalogCache.findById(1L);
+        CarDto second = carCatalogCache.findById(1L);
+
+        // then
+        assertEquals("Tesla", second.getBrand());
+        assertEquals(3, first.getInventory());
+        verify(carRepository, times(1)).findAllById(anyIterable());
+        verify(carRepository, times(1)).findInventoriesByIdIn(anyCollection());
+    }
+
+    @Test
+    @DisplayName("Find by ID - After Inventory Change - Reloads Only Inventory")
+    void findById_AfterInventoryChanged_ReloadsOnlyInventory() {
+        // given
+        when(carRepository.findAllById(anyIterable())).thenReturn(List.of(car));
+        when(carRepository.findInventoriesByIdIn(anyCollection()))
+                .thenReturn(List.of(inventoryView(1L, 3)))
+                .thenReturn(List.of(inventoryView(1L, 2)));
+        carCatalogCache.findById(1L);
+
+        // when
+        carCatalogCache.onCarInventoryChanged(new CarInventoryChangedEvent(1L, -1));
+        CarDto result = carCatalogCache.findById(1L);
+
+        // then
+        assertEquals(2, result.getInventory());
+        verify(carRepository, times(1)).findAllById(anyIterable());
+        verify(carRepository, times(2)).findInventoriesByIdIn(anyCollection());
+    }
+
+    @Test
+    @DisplayName("Find all - Same Page Twice - Queries Page Ids Once Until Catalog Changes")
+    void findAll_SamePageTwice_QueriesIdsOnceUntilCatalogChanges() {
+        // given
+        Pageable pageable = PageRequest.of(0, 10, Sort.by("brand"));
+        Page<Long> ids = new PageImpl<>(List.of(1L), pageable, 1);
+        when(carRepository.findAllIds(pageable)).thenReturn(ids);
+        when(carRepository.findAllById(anyIterable())).thenReturn(List.of(car));
+        when(carRepository.findInventoriesByIdIn(anyCollection()))
+                .thenReturn(List.of(inventoryView(1L, 3)));
+
+        // when
+        carCatalogCache.findAll(pageable);
+        Page<CarDto> cached = carCatalogCache.findAll(pageable);
+        carCatalogCache.onCarCatalogChanged(new CarCatalogChangedEvent(1L));
+        carCatalogCache.findAll(pageable);
+
+        // then
+        assertEquals(1, cached.getTotalElements());
+        assertEquals(1L, cached.getContent().get(0).getId());
+        verify(carRepository, times(2)).findAllIds(pageable);
+    }
+
+    @Test
+    @DisplayName("Find all - Sorted By Inventory - Bypasses Page Cache")
+    void findAll_SortedByInventory_BypassesPageCache() {
+        // given
+        Pageable pageable = PageRequest.of(0, 10, Sort.by("inventory"));
+        when(carRepository.findAll(pageable))
+                .thenReturn(new PageImpl<>(List.of(car), pageable, 1));
+
+        // when
+        Page<CarDto> result = carCatalogCache.findAll(pageable);
+
+        // then
+        assertEquals(3, result.getContent().get(0).getInventory());
+        verify(carRepository, never()).findAllIds(any());
+    }
+
+    @Test
+    @DisplayName("Find by ID - Catalog Changed While Loading - Does Not Cache Stale Car")
+    void findById_CatalogChangedDuringLoad_DoesNotCacheStaleCar() {
+        // given
+        Car updated = new Car();
+        updated.setId(1L);
+        updated.setBrand("Tesla");
+        updated.setModel("Model S Plaid");
+        updated.setType(CarType.SEDAN);
+        updated.setInventory(3);
+        updated.setDailyFee(BigDecimal.valueOf(250));
+        when(carRepository.findAllById(anyIterable()))
+                .thenAnswer(invocation -> {
+                    carCatalogCache.onCarCatalogChanged(new CarCatalogChangedEvent(1L));
+                    return List.of(car);
+                })
+                .thenReturn(List.of(updated));
+        when(carRepository.findInventoriesByIdIn(anyCollection()))
+                .thenReturn(List.of(inventoryView(1L, 3)));
+        carCatalogCache.findById(1L);
+
+        // when
+        CarDto result = carCatalogCache.findById(1L);
+
+        // then
+        assertEquals("Model S Plaid", result.getModel());
+        verify(carRepository, times(2)).findAllById(anyIterable());
+    }
+
+    @Test
+    @DisplayName("Find by ID - Stock Changed While Loading - Does Not Cache Stale Inventory")
+    void findById_InventoryChangedDuringLoad_DoesNotCacheStaleInventory() {
+        // given
+        when(carRepository.findAllById(anyIterable())).thenReturn(List.of(car));
+        when(carRepository.findInventoriesByIdIn(anyCollection()))
+                .thenAnswer(invocation -> {
+                    carCatalogCache.onCarInventoryChanged(new CarInventoryChangedEvent(1L, -1));
+                    return List.of(inventoryView(1L, 3));
+                })
+                .thenReturn(List.of(inventoryView(1L, 2)));
+        carCatalogCache.findById(1L);
+
+        // when
+        CarDto result = carCatalogCache.findById(1L);
+
+        // then
+        assertEquals(2, result.getInventory());
+        verify(carRepository, times(2)).findInventoriesByIdIn(anyCollection());
+    }
+
+    @Test
+    @DisplayName("Find by ID - Unknown Car - Throws Exception")
+    void findById_UnknownCar_ThrowsException() {
+        // given
+        when(carRepository.findAllById(anyIterable())).thenReturn(List.of());
+
+        // when & then
+        assertThrows(EntityNotFoundException.class, () -> carCatalogCache.findById(42L));
+    }
+
+    private CarRepository.InventoryView inventoryView(Long id, int inventory) {
+        return new CarRepository.InventoryView() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public int getInventory() {
+                return inventory;
+            }
+        };
+    }
+}
@@ -0,0 +1,144 @@
+package com.loievroman.carsharingapp.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.loievroman.carsharingapp.event.CarCatalogChangedEvent;
+import com.loievroman.carsharingapp.exception.EntityNotFoundException;
+import com.loievroman.carsharingapp.model.CarType;
+import com.loievroman.carsharingapp.repository.CarRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.math.BigDecimal;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class CarFeeTableTest {
+
+    @Mock
+    private CarRepository carRepository;
+
+    private CarFeeTable carFeeTable;
+
+    @BeforeEach
+    void setUp() {
+        carFeeTable = new CarFeeTable(carRepository, new SimpleMeterRegistry());
+    }
+
+    @Test
+    @DisplayName("Find by car ID - After Refresh - Served Without Database")
+    void findByCarId_AfterRefresh_ServedFromMemory() {
+        // given
+        when(carRepository.findAllFees()).thenReturn(List.of(feeView(1L, "150.00")));
+        carFeeTable.refresh();
+
+        // when
+        CarFeeTable.Fee fee = carFeeTable.findByCarId(1L);
+
+        // then
+        assertEquals(new CarFeeTable.Fee(CarType.SUV, 15_000), fee);
+        verify(carRepository, never()).findFeesByIdIn(anyCollection());
+    }
+
+    @Test
+    @DisplayName("Find by car ID - Price Updated - Reloads Only That Car")
+    void findByCarId_AfterCatalogChanged_ReloadsFee() {
+        // given
+        when(carRepository.findFeesByIdIn(anyCollection()))
+                .thenReturn(List.of(feeView(1L, "150.00")))
+                .thenReturn(List.of(feeView(1L, "180.00")));
+        carFeeTable.findByCarId(1L);
+
+        // when
+        carFeeTable.onCarCatalogChanged(new CarCatalogChangedEvent(1L));
+        CarFeeTable.Fee fee = carFeeTable.findByCarId(1L);
+
+        // then
+        assertEquals(18_000, fee.dailyFeeCents());
+        verify(carRepository, times(2)).findFeesByIdIn(anyCollection());
+    }
+
+    @Test
+    @DisplayName("Refresh - Price Updated While Loading - Does Not Restore Old Price")
+    void refresh_CatalogChangedDuringLoad_KeepsEviction() {
+        // given
+        when(carRepository.findAllFees()).thenAnswer(invocation -> {
+            carFeeTable.onCarCatalogChanged(new CarCatalogChangedEvent(1L));
+            return List.of(feeView(1L, "150.00"), feeView(2L, "90.00"));
+        });
+        when(carRepository.findFeesByIdIn(List.of(1L))).thenReturn(List.of(feeView(1L, "180.00")));
+
+        // when
+        carFeeTable.refresh();
+
+        // then
+        assertEquals(18_000, carFeeTable.findByCarId(1L).dailyFeeCents());
+        assertEquals(9_000, carFeeTable.findByCarId(2L).dailyFeeCents());
+        verify(carRepository, never()).findFeesByIdIn(List.of(2L));
+    }
+
+    @Test
+    @DisplayName("Find by car ID - Price Updated While Loading - Loads Again On Next Lookup")
+    void findByCarId_CatalogChangedDuringLoad_DoesNotCacheOldPrice() {
+        // given
+        when(carRepository.findFeesByIdIn(anyCollection()))
+                .thenAnswer(invocation -> {
+                    carFeeTable.onCarCatalogChanged(new CarCatalogChangedEvent(1L));
+                    return List.of(feeView(1L, "150.00"));
+                })
+                .thenReturn(List.of(feeView(1L, "180.00")));
+        carFeeTable.findByCarId(1L);
+
+        // when
+        CarFeeTable.Fee fee = carFeeTable.findByCarId(1L);
+
+        // then
+        assertEquals(18_000, fee.dailyFeeCents());
+        verify(carRepository, times(2)).findFeesByIdIn(anyCollection());
+    }
+
+    @Test
+    @DisplayName("Refresh - Car Deleted Elsewhere - Drops Stale Entry")
+    void refresh_CarDeleted_DropsEntry() {
+        // given
+        when(carRepository.findAllFees()).thenReturn(List.of(feeView(1L, "150.00")))
+                .thenReturn(List.of());
+        when(carRepository.findFeesByIdIn(anyCollection())).thenReturn(List.of());
+        carFeeTable.refresh();
+
+        // when
+        carFeeTable.refresh();
+
+        // then
+        assertThrows(EntityNotFoundException.class, () -> carFeeTable.findByCarId(1L));
+    }
+
+    private CarRepository.FeeView feeView(Long id, String dailyFee) {
+        return new CarRepository.FeeView() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public CarType getType() {
+                return CarType.SUV;
+            }
+
+            @Override
+            public BigDecimal getDailyFee() {
+                return new BigDecimal(dailyFee);
+            }
+        };
+    }
+}
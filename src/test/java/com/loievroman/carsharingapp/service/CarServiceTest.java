@@ -2,16 +2,24 @@ package com.loievroman.carsharingapp.service;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 import com.loievroman.carsharingapp.dto.car.CarDto;
+import com.loievroman.carsharingapp.dto.car.CarQuoteDto;
 import com.loievroman.carsharingapp.dto.car.CreateCarRequestDto;
+import com.loievroman.carsharingapp.event.CarCatalogChangedEvent;
+import com.loievroman.carsharingapp.exception.InvalidRentalPeriodException;
 import com.loievroman.carsharingapp.mapper.CarMapper;
 import com.loievroman.carsharingapp.model.Car;
 import com.loievroman.carsharingapp.model.CarType;
+import com.loievroman.carsharingapp.pricing.PricingEngine;
+import com.loievroman.carsharingapp.pricing.PricingProperties;
 import com.loievroman.carsharingapp.repository.CarRepository;
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
 import org.junit.jupiter.api.DisplayName;
@@ -19,7 +27,9 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
@@ -34,6 +44,20 @@ class CarServiceTest {
     @Mock
     private CarMapper carMapper;
 
+    @Mock
+    private CarCatalogCache carCatalogCache;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private CarFeeTable carFeeTable;
+
+    @Spy
+    private PricingEngine pricingEngine = new PricingEngine(new PricingProperties(
+            new PricingProperties.Tariff(BigDecimal.ONE, BigDecimal.ZERO, BigDecimal.ZERO,
+                    BigDecimal.ZERO, new BigDecimal("1.5")), null));
+
     @InjectMocks
     private CarServiceImpl carService;
 
@@ -73,16 +97,13 @@ class CarServiceTest {
     @DisplayName("Get all cars")
     void findAll_ReturnsPageOfCarDtos() {
         // given
-        Car car = new Car();
-        car.setId(1L);
         CarDto carDto = new CarDto();
         carDto.setId(1L);
 
         Pageable pageable = PageRequest.of(0, 10);
-        Page<Car> carPage = new PageImpl<>(List.of(car), pageable, 1);
+        Page<CarDto> carPage = new PageImpl<>(List.of(carDto), pageable, 1);
 
-        when(carRepository.findAll(pageable)).thenReturn(carPage);
-        when(carMapper.toDto(car)).thenReturn(carDto);
+        when(carCatalogCache.findAll(pageable)).thenReturn(carPage);
 
         // when
         Page<CarDto> result = carService.findAll(pageable);
@@ -99,13 +120,10 @@ class CarServiceTest {
     @DisplayName("Get car by ID")
     void findById_ValidId_ReturnsCarDto() {
         // given
-        Car car = new Car();
-        car.setId(1L);
         CarDto carDto = new CarDto();
         carDto.setId(1L);
 
-        when(carRepository.findById(1L)).thenReturn(Optional.of(car));
-        when(carMapper.toDto(car)).thenReturn(carDto);
+        when(carCatalogCache.findById(1L)).thenReturn(carDto);
 
         // when
         CarDto result = carService.findById(1L);
@@ -157,5 +175,35 @@ class CarServiceTest {
 
         // then
         verify(carRepository).deleteById(1L);
+        verify(eventPublisher).publishEvent(new CarCatalogChangedEvent(1L));
+    }
+
+    @Test
+    @DisplayName("Quote - Valid Period - Prices From Fee Table")
+    void quote_ValidPeriod_ReturnsTotal() {
+        // given
+        LocalDate rentalDate = LocalDate.of(2024, 3, 4);
+        when(carFeeTable.findByCarId(1L))
+                .thenReturn(new CarFeeTable.Fee(CarType.SUV, 15_000));
+
+        // when
+        CarQuoteDto result = carService.quote(1L, rentalDate, rentalDate.plusDays(3));
+
+        // then
+        assertEquals(3, result.getDays());
+        assertEquals(new BigDecimal("150.00"), result.getDailyFee());
+        assertEquals(new BigDecimal("450.00"), result.getTotal());
+        verifyNoInteractions(carRepository);
+    }
+
+    @Test
+    @DisplayName("Quote - Return Before Rental Date - Throws Exception")
+    void quote_ReturnBeforeRental_ThrowsException() {
+        // given
+        LocalDate rentalDate = LocalDate.of(2024, 3, 4);
+
+        // when & then
+        assertThrows(InvalidRentalPeriodException.class,
+                () -> carService.quote(1L, rentalDate, rentalDate.minusDays(1)));
     }
 }
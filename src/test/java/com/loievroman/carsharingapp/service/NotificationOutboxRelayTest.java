@@ -0,0 +1,276 @@
+package com.loievroman.carsharingapp.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.loievroman.carsharingapp.config.NotificationExecutorConfig;
+import com.loievroman.carsharingapp.event.RentalCreatedEvent;
+import com.loievroman.carsharingapp.exception.TelegramNotificationException;
+import com.loievroman.carsharingapp.exception.TelegramRateLimitedException;
+import com.loievroman.carsharingapp.model.NotificationOutboxMessage;
+import com.loievroman.carsharingapp.repository.NotificationOutboxRepository;
+import com.loievroman.carsharingapp.telegram.TelegramSender;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@ExtendWith(MockitoExtension.class)
+class NotificationOutboxRelayTest {
+    private static final String CHAT_ID = "12345";
+
+    @Mock
+    private NotificationOutboxRepository outboxRepository;
+
+    @Mock
+    private TelegramSender telegramSender;
+
+    @Mock
+    private ExecutorService relayTrigger;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private SimpleMeterRegistry meterRegistry;
+    private NotificationOutboxRelay relay;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        relay = new NotificationOutboxRelay(outboxRepository, telegramSender, Runnable::run,
+                relayTrigger, transactionTemplate, meterRegistry, CHAT_ID, 3, 3,
+                Duration.ofSeconds(5), Duration.ofSeconds(30), Duration.ofMinutes(2),
+                Duration.ofDays(30), 2);
+    }
+
+    @Test
+    @DisplayName("Relay - Mixed Deliveries - Marks Delivered In Bulk And Backs Off Failures")
+    void relay_MixedDeliveries_MarksDeliveredAndBacksOff() {
+        // given
+        runTransactionsInline();
+        String first = "a".repeat(3000);
+        String second = "b".repeat(3000);
+        when(outboxRepository.claimDue(any(), eq(3)))
+                .thenReturn(List.of(message(1L, first, 0), message(2L, second, 1)));
+        doNothing().when(telegramSender).send(CHAT_ID, first);
+        doThrow(new TelegramNotificationException("Telegram is unavailable"))
+                .when(telegramSender).send(CHAT_ID, second);
+        when(outboxRepository.markDelivered(eq(List.of(1L)), any())).thenReturn(1);
+        when(outboxRepository.scheduleRetry(eq(2L), any())).thenReturn(1);
+        final ArgumentCaptor<LocalDateTime> nextAttempt =
+                ArgumentCaptor.forClass(LocalDateTime.class);
+        final LocalDateTime before = LocalDateTime.now();
+
+        // when
+        int relayed = relay.relay();
+
+        // then
+        assertEquals(2, relayed);
+        verify(outboxRepository).lease(eq(List.of(1L, 2L)), any());
+        verify(outboxRepository).scheduleRetry(eq(2L), nextAttempt.capture());
+        assertFalse(nextAttempt.getValue().isBefore(before.plusSeconds(10)));
+        verify(outboxRepository, never()).markFailed(anyCollection());
+        assertEquals(1, meterRegistry.counter("notification.outbox.messages",
+                "outcome", "delivered").count());
+        assertEquals(1, meterRegistry.counter("notification.outbox.messages",
+                "outcome", "retried").count());
+    }
+
+    @Test
+    @DisplayName("Relay - Last Attempt Fails - Marks Message Failed")
+    void relay_LastAttemptFails_MarksFailed() {
+        // given
+        runTransactionsInline();
+        when(outboxRepository.claimDue(any(), eq(3))).thenReturn(List.of(message(7L, "late", 2)));
+        doThrow(new TelegramNotificationException("Telegram is unavailable"))
+                .when(telegramSender).send(CHAT_ID, "late");
+        when(outboxRepository.markFailed(List.of(7L))).thenReturn(1);
+
+        // when
+        relay.relay();
+
+        // then
+        verify(outboxRepository).markFailed(List.of(7L));
+        verify(outboxRepository, never()).scheduleRetry(anyLong(), any());
+        verify(outboxRepository, never()).markDelivered(anyCollection(), any());
+    }
+
+    @Test
+    @DisplayName("Relay - Nothing Due - Delivers Nothing")
+    void relay_NothingDue_DeliversNothing() {
+        // given
+        runTransactionsInline();
+        when(outboxRepository.claimDue(any(), eq(3))).thenReturn(List.of());
+
+        // when
+        int relayed = relay.relay();
+
+        // then
+        assertEquals(0, relayed);
+        verify(outboxRepository, never()).lease(anyCollection(), any());
+        verify(telegramSender, never()).send(any(), any());
+    }
+
+    @Test
+    @DisplayName("Relay - Several Short Messages - Sends Them As One Telegram Message")
+    void relay_SeveralShortMessages_CoalescesIntoOneSend() {
+        // given
+        runTransactionsInline();
+        when(outboxRepository.claimDue(any(), eq(3)))
+                .thenReturn(List.of(message(1L, "first", 0), message(2L, "second", 0)));
+        when(outboxRepository.markDelivered(eq(List.of(1L, 2L)), any())).thenReturn(2);
+
+        // when
+        relay.relay();
+
+        // then
+        verify(telegramSender).send(CHAT_ID, "first\n\nsecond");
+        verify(outboxRepository).markDelivered(eq(List.of(1L, 2L)), any());
+    }
+
+    @Test
+    @DisplayName("Relay - Rate Limited - Defers Messages Without Spending An Attempt")
+    void relay_RateLimited_DefersMessages() {
+        // given
+        runTransactionsInline();
+        when(outboxRepository.claimDue(any(), eq(3))).thenReturn(List.of(message(4L, "busy", 2)));
+        doThrow(new TelegramRateLimitedException("Too Many Requests", Duration.ofSeconds(40)))
+                .when(telegramSender).send(CHAT_ID, "busy");
+        final ArgumentCaptor<LocalDateTime> nextAttempt =
+                ArgumentCaptor.forClass(LocalDateTime.class);
+        final LocalDateTime before = LocalDateTime.now();
+
+        // when
+        relay.relay();
+
+        // then
+        verify(outboxRepository).defer(eq(List.of(4L)), nextAttempt.capture());
+        assertFalse(nextAttempt.getValue().isBefore(before.plusSeconds(40)));
+        verify(outboxRepository, never()).markFailed(anyCollection());
+    }
+
+    @Test
+    @DisplayName("Relay - Executor Drops Send - Defers Messages Right Away And Counts Them")
+    void relay_ExecutorDropsSend_DefersMessagesRightAway() {
+        // given
+        relay = new NotificationOutboxRelay(outboxRepository, telegramSender,
+                task -> ((NotificationExecutorConfig.RejectableTask) task).reject(
+                        new RejectedExecutionException("dropped")),
+                relayTrigger, transactionTemplate, meterRegistry, CHAT_ID, 3, 3,
+                Duration.ofSeconds(5), Duration.ofSeconds(30), Duration.ofMinutes(2),
+                Duration.ofDays(30), 2);
+        runTransactionsInline();
+        when(outboxRepository.claimDue(any(), eq(3))).thenReturn(List.of(message(4L, "busy", 2)));
+        when(outboxRepository.defer(eq(List.of(4L)), any())).thenReturn(1);
+
+        // when
+        relay.relay();
+
+        // then
+        verify(telegramSender, never()).send(any(), any());
+        verify(outboxRepository, never()).scheduleRetry(any(), any());
+        assertEquals(1, meterRegistry.counter("notification.outbox.messages",
+                "outcome", "rejected").count());
+    }
+
+    @Test
+    @DisplayName("Purge Settled - Old Delivered And Failed Rows - Deletes Them In Bounded Chunks")
+    void purgeSettled_OldSettledRows_DeletesInChunks() {
+        // given
+        final ArgumentCaptor<LocalDateTime> cutoff = ArgumentCaptor.forClass(LocalDateTime.class);
+        final LocalDateTime before = LocalDateTime.now();
+        when(outboxRepository.deleteSettledBefore(any(), eq(2))).thenReturn(2, 0);
+
+        // when
+        int purged = relay.purgeSettled();
+
+        // then
+        assertEquals(2, purged);
+        verify(outboxRepository, times(2)).deleteSettledBefore(cutoff.capture(), eq(2));
+        assertFalse(cutoff.getValue().isAfter(LocalDateTime.now().minusDays(30)));
+        assertFalse(cutoff.getValue().isBefore(before.minusDays(30)));
+        assertEquals(2, meterRegistry.counter("notification.outbox.messages",
+                "outcome", "purged").count());
+    }
+
+    @Test
+    @DisplayName("On Notification Event - Committed Event - Relays Outbox Without Waiting For Poll")
+    void onNotificationEvent_Committed_RelaysOutbox() {
+        // given
+        runTransactionsInline();
+        when(outboxRepository.claimDue(any(), eq(3))).thenReturn(List.of());
+        final ArgumentCaptor<Runnable> trigger = ArgumentCaptor.forClass(Runnable.class);
+
+        // when
+        relay.onNotificationEvent(new RentalCreatedEvent(1L, "John", "Doe", "Tesla", "S",
+                LocalDate.now()));
+
+        // then
+        verify(relayTrigger).execute(trigger.capture());
+        trigger.getValue().run();
+        verify(outboxRepository).claimDue(any(), eq(3));
+    }
+
+    @Test
+    @DisplayName("Coalesce - Text Over Telegram Limit - Splits Into Several Deliveries")
+    void coalesce_TextOverLimit_SplitsDeliveries() {
+        // given
+        List<NotificationOutboxRelay.ClaimedMessage> messages = List.of(
+                new NotificationOutboxRelay.ClaimedMessage(1L, "a".repeat(2000), 1),
+                new NotificationOutboxRelay.ClaimedMessage(2L, "b".repeat(2000), 1),
+                new NotificationOutboxRelay.ClaimedMessage(3L, "c".repeat(2000), 1));
+
+        // when
+        List<NotificationOutboxRelay.Delivery> deliveries =
+                NotificationOutboxRelay.coalesce(messages);
+
+        // then
+        assertEquals(2, deliveries.size());
+        assertEquals(4002, deliveries.get(0).text().length());
+        assertEquals(List.of(messages.get(2)), deliveries.get(1).members());
+    }
+
+    @Test
+    @DisplayName("Backoff - Repeated Attempts - Doubles Up To The Cap")
+    void backoff_RepeatedAttempts_DoublesUpToCap() {
+        // when & then
+        assertEquals(Duration.ofSeconds(5), relay.backoff(1));
+        assertEquals(Duration.ofSeconds(20), relay.backoff(3));
+        assertEquals(Duration.ofSeconds(30), relay.backoff(10));
+    }
+
+    private void runTransactionsInline() {
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+    }
+
+    private NotificationOutboxMessage message(Long id, String text, int attempts) {
+        NotificationOutboxMessage message = new NotificationOutboxMessage();
+        message.setId(id);
+        message.setMessage(text);
+        message.setAttempts(attempts);
+        return message;
+    }
+}
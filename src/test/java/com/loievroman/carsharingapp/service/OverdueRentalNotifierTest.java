@@ -0,0 +1,157 @@
+package com.loievroman.carsharingapp.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.loievroman.carsharingapp.repository.RentalRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@ExtendWith(MockitoExtension.class)
+class OverdueRentalNotifierTest {
+
+    @Mock
+    private RentalRepository rentalRepository;
+
+    @Mock
+    private NotificationService notificationService;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    @DisplayName("Notify - Digest Mode Over Two Chunks - Sends Numbered Summary Pages")
+    void notifyOverdueRentals_DigestMode_SendsSummaryPages() {
+        // given
+        final OverdueRentalNotifier notifier = notifier(true);
+        runTransactionsInline();
+        List<RentalRepository.OverdueRentalView> firstChunk = overdue(1, 4);
+        List<RentalRepository.OverdueRentalView> secondChunk = overdue(5, 1);
+        when(rentalRepository.findOverdueRentals(any(), eq(0L), eq(Limit.of(4))))
+                .thenReturn(firstChunk);
+        when(rentalRepository.findOverdueRentals(any(), eq(4L), eq(Limit.of(4))))
+                .thenReturn(secondChunk);
+
+        // when
+        int notified = notifier.notifyOverdueRentals();
+
+        // then
+        assertEquals(5, notified);
+        verify(notificationService).sendOverdueRentalDigest(firstChunk.subList(0, 2), 1);
+        verify(notificationService).sendOverdueRentalDigest(firstChunk.subList(2, 4), 2);
+        verify(notificationService).sendOverdueRentalDigest(secondChunk, 3);
+        verify(notificationService, never()).sendOverdueRentalReminder(any());
+        assertEquals(3, meterRegistry.counter("rental.overdue.messages").count());
+        assertEquals(1, meterRegistry.timer("rental.overdue.runs").count());
+    }
+
+    @Test
+    @DisplayName("Notify - Individual Mode - Sends One Reminder Per Rental")
+    void notifyOverdueRentals_IndividualMode_SendsReminders() {
+        // given
+        final OverdueRentalNotifier notifier = notifier(false);
+        runTransactionsInline();
+        when(rentalRepository.findOverdueRentals(any(), eq(0L), eq(Limit.of(4))))
+                .thenReturn(overdue(1, 3));
+
+        // when
+        notifier.notifyOverdueRentals();
+
+        // then
+        verify(notificationService, times(3)).sendOverdueRentalReminder(any());
+        verify(notificationService, never()).sendOverdueRentalDigest(anyList(), anyInt());
+    }
+
+    @Test
+    @DisplayName("Notify - No Overdue Rentals - Sends All Clear Message")
+    void notifyOverdueRentals_NoneOverdue_SendsAllClear() {
+        // given
+        final OverdueRentalNotifier notifier = notifier(true);
+        when(rentalRepository.findOverdueRentals(any(), eq(0L), eq(Limit.of(4))))
+                .thenReturn(List.of());
+
+        // when
+        int notified = notifier.notifyOverdueRentals();
+
+        // then
+        assertEquals(0, notified);
+        verify(notificationService).sendNotification(OverdueRentalNotifier.NO_OVERDUE_RENTALS);
+    }
+
+    private OverdueRentalNotifier notifier(boolean digest) {
+        return new OverdueRentalNotifier(rentalRepository, notificationService,
+                transactionTemplate, meterRegistry, digest, 4, 2);
+    }
+
+    private void runTransactionsInline() {
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+    }
+
+    private List<RentalRepository.OverdueRentalView> overdue(long firstId, int count) {
+        List<RentalRepository.OverdueRentalView> rentals = new ArrayList<>();
+        for (long id = firstId; id < firstId + count; id++) {
+            rentals.add(overdueRental(id));
+        }
+        return rentals;
+    }
+
+    private RentalRepository.OverdueRentalView overdueRental(Long id) {
+        return new RentalRepository.OverdueRentalView() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public LocalDate getReturnDate() {
+                return LocalDate.now().minusDays(2);
+            }
+
+            @Override
+            public String getFirstName() {
+                return "John";
+            }
+
+            @Override
+            public String getLastName() {
+                return "Doe";
+            }
+
+            @Override
+            public String getBrand() {
+                return "Tesla";
+            }
+
+            @Override
+            public String getModel() {
+                return "S";
+            }
+        };
+    }
+}
@@ -0,0 +1,292 @@
+package com.loievroman.carsharingapp.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.loievroman.carsharingapp.dto.payment.ReconciliationReportDto;
+import com.loievroman.carsharingapp.event.PaymentConfirmedEvent;
+import com.loievroman.carsharingapp.event.PaymentSettledEvent;
+import com.loievroman.carsharingapp.model.Car;
+import com.loievroman.carsharingapp.model.Payment;
+import com.loievroman.carsharingapp.model.PaymentStatus;
+import com.loievroman.carsharingapp.model.PaymentType;
+import com.loievroman.carsharingapp.model.ReconciliationCursor;
+import com.loievroman.carsharingapp.model.Rental;
+import com.loievroman.carsharingapp.model.User;
+import com.loievroman.carsharingapp.payment.CheckoutSessionPage;
+import com.loievroman.carsharingapp.payment.CheckoutSessionSummary;
+import com.loievroman.carsharingapp.payment.PaymentGateway;
+import com.loievroman.carsharingapp.repository.CheckoutBatchRepository;
+import com.loievroman.carsharingapp.repository.PaymentRepository;
+import com.loievroman.carsharingapp.repository.ReconciliationCursorRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@ExtendWith(MockitoExtension.class)
+class PaymentReconcilerTest {
+    private static final long WINDOW_START = 1_700_000_000L;
+    private static final long WINDOW_END = 1_700_086_400L;
+
+    @Mock
+    private PaymentGateway paymentGateway;
+
+    @Mock
+    private PaymentRepository paymentRepository;
+
+    @Mock
+    private CheckoutBatchRepository checkoutBatchRepository;
+
+    @Mock
+    private ReconciliationCursorRepository cursorRepository;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private SimpleMeterRegistry meterRegistry;
+    private PaymentReconciler reconciler;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        reconciler = new PaymentReconciler(paymentGateway, paymentRepository,
+                checkoutBatchRepository, cursorRepository, transactionTemplate, eventPublisher,
+                meterRegistry, Duration.ofHours(25), Duration.ofDays(30), 3, 1);
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+    }
+
+    @Test
+    @DisplayName("Reconcile - Drifted Sessions - Corrects In Bulk And Completes Window")
+    void reconcile_DriftedSessions_CorrectsInBulk() {
+        // given
+        when(cursorRepository.findById(PaymentReconciler.CURSOR_NAME))
+                .thenReturn(Optional.empty());
+        when(paymentGateway.listCheckoutSessions(anyLong(), anyLong(), isNull(), eq(3)))
+                .thenReturn(new CheckoutSessionPage(List.of(
+                        session("cs_paid", "complete", "paid"),
+                        session("cs_expired", "expired", "unpaid"),
+                        session("cs_foreign", "complete", "paid")), false));
+        when(paymentRepository.findSessionStatusesBySessionIdIn(
+                List.of("cs_paid", "cs_expired", "cs_foreign")))
+                .thenReturn(List.of(payment(1L, "cs_paid", PaymentStatus.PENDING),
+                        payment(2L, "cs_expired", PaymentStatus.PENDING)));
+        when(paymentRepository.lockUnpaidIds(Set.of(1L))).thenReturn(List.of(1L));
+        when(paymentRepository.lockPendingIds(Set.of(2L))).thenReturn(List.of(2L));
+        when(paymentRepository.findAllWithRentalByIdIn(List.of(1L)))
+                .thenReturn(List.of(confirmedPayment(1L)));
+        final ArgumentCaptor<ReconciliationCursor> cursor =
+                ArgumentCaptor.forClass(ReconciliationCursor.class);
+
+        // when
+        ReconciliationReportDto report = reconciler.reconcile();
+
+        // then
+        assertTrue(report.windowCompleted());
+        assertEquals(3, report.scanned());
+        assertEquals(2, report.matched());
+        assertEquals(1, report.unknown());
+        assertEquals(1, report.correctedToPaid());
+        assertEquals(1, report.correctedToExpired());
+        verify(paymentRepository).markPaid(List.of(1L));
+        verify(paymentRepository).expirePending(List.of(2L));
+        verify(eventPublisher).publishEvent(PaymentConfirmedEvent.from(confirmedPayment(1L)));
+        verify(eventPublisher).publishEvent(new PaymentSettledEvent("cs_paid", PaymentStatus.PAID));
+        verify(eventPublisher).publishEvent(
+                new PaymentSettledEvent("cs_expired", PaymentStatus.EXPIRED));
+        verify(cursorRepository).save(cursor.capture());
+        assertNull(cursor.getValue().getStartingAfter());
+        assertEquals(report.windowEnd(), Instant.ofEpochSecond(cursor.getValue().getWindowStart()));
+        assertEquals(1, meterRegistry.counter("payment.reconciliation.sessions",
+                "outcome", "unknown").count());
+    }
+
+    @Test
+    @DisplayName("Reconcile - Interrupted Window - Resumes From Persisted Cursor")
+    void reconcile_InterruptedWindow_ResumesFromCursor() {
+        // given
+        ReconciliationCursor stored = new ReconciliationCursor();
+        stored.setName(PaymentReconciler.CURSOR_NAME);
+        stored.setWindowStart(WINDOW_START);
+        stored.setWindowEnd(WINDOW_END);
+        stored.setStartingAfter("cs_9");
+        when(cursorRepository.findById(PaymentReconciler.CURSOR_NAME))
+                .thenReturn(Optional.of(stored));
+        when(paymentGateway.listCheckoutSessions(WINDOW_START, WINDOW_END, "cs_9", 3))
+                .thenReturn(new CheckoutSessionPage(List.of(
+                        session("cs_8", "complete", "paid"),
+                        session("cs_7", "expired", "unpaid")), true));
+        when(paymentRepository.findSessionStatusesBySessionIdIn(List.of("cs_8", "cs_7")))
+                .thenReturn(List.of(payment(8L, "cs_8", PaymentStatus.PAID),
+                        payment(7L, "cs_7", PaymentStatus.EXPIRED)));
+
+        // when
+        ReconciliationReportDto report = reconciler.reconcile();
+
+        // then
+        assertFalse(report.windowCompleted());
+        assertEquals(1, report.pages());
+        assertEquals(0, report.correctedToPaid() + report.correctedToExpired());
+        verify(paymentRepository, never()).markPaid(anyCollection());
+        verify(paymentRepository, never()).expirePending(anyCollection());
+        verify(cursorRepository).save(stored);
+        assertEquals("cs_7", stored.getStartingAfter());
+        assertEquals(WINDOW_START, stored.getWindowStart());
+        assertEquals(report, reconciler.getLastReport().orElseThrow());
+    }
+
+    @Test
+    @DisplayName("Reconcile - Paid Batch Session - Marks Batch And Its Payments Paid")
+    void reconcile_PaidBatchSession_MarksBatchAndPaymentsPaid() {
+        // given
+        when(cursorRepository.findById(PaymentReconciler.CURSOR_NAME))
+                .thenReturn(Optional.empty());
+        when(paymentGateway.listCheckoutSessions(anyLong(), anyLong(), isNull(), eq(3)))
+                .thenReturn(new CheckoutSessionPage(
+                        List.of(session("cs_batch", "complete", "paid")), false));
+        when(paymentRepository.findSessionStatusesBySessionIdIn(List.of("cs_batch")))
+                .thenReturn(List.of());
+        when(checkoutBatchRepository.findSessionStatusesBySessionIdIn(List.of("cs_batch")))
+                .thenReturn(List.of(batch(4L, "cs_batch", PaymentStatus.PENDING)));
+        when(checkoutBatchRepository.lockUnpaidIds(Set.of(4L))).thenReturn(List.of(4L));
+        when(checkoutBatchRepository.findPaymentIdsByBatchIdIn(List.of(4L)))
+                .thenReturn(List.of(11L, 12L));
+        when(paymentRepository.lockUnpaidIds(List.of(11L, 12L))).thenReturn(List.of(11L));
+        when(paymentRepository.findAllWithRentalByIdIn(List.of(11L)))
+                .thenReturn(List.of(confirmedPayment(11L)));
+
+        // when
+        ReconciliationReportDto report = reconciler.reconcile();
+
+        // then
+        assertEquals(1, report.matched());
+        assertEquals(1, report.correctedToPaid());
+        verify(checkoutBatchRepository).markPaid(List.of(4L));
+        verify(paymentRepository).markPaid(List.of(11L));
+        verify(eventPublisher).publishEvent(PaymentConfirmedEvent.from(confirmedPayment(11L)));
+        verify(eventPublisher, never()).publishEvent(
+                PaymentConfirmedEvent.from(confirmedPayment(12L)));
+        verify(eventPublisher).publishEvent(
+                new PaymentSettledEvent("cs_batch", PaymentStatus.PAID));
+    }
+
+    @Test
+    @DisplayName("Reconcile - Settled Concurrently - Publishes Nothing For Untouched Rows")
+    void reconcile_SettledConcurrently_PublishesNothing() {
+        // given
+        when(cursorRepository.findById(PaymentReconciler.CURSOR_NAME))
+                .thenReturn(Optional.empty());
+        when(paymentGateway.listCheckoutSessions(anyLong(), anyLong(), isNull(), eq(3)))
+                .thenReturn(new CheckoutSessionPage(List.of(
+                        session("cs_paid", "complete", "paid"),
+                        session("cs_expired", "expired", "unpaid")), false));
+        when(paymentRepository.findSessionStatusesBySessionIdIn(List.of("cs_paid", "cs_expired")))
+                .thenReturn(List.of(payment(1L, "cs_paid", PaymentStatus.PENDING),
+                        payment(2L, "cs_expired", PaymentStatus.PENDING)));
+        when(paymentRepository.lockUnpaidIds(Set.of(1L))).thenReturn(List.of());
+        when(paymentRepository.lockPendingIds(Set.of(2L))).thenReturn(List.of());
+
+        // when
+        ReconciliationReportDto report = reconciler.reconcile();
+
+        // then
+        assertEquals(0, report.correctedToPaid());
+        assertEquals(0, report.correctedToExpired());
+        verify(paymentRepository, never()).markPaid(anyCollection());
+        verify(paymentRepository, never()).expirePending(anyCollection());
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    private Payment confirmedPayment(Long id) {
+        User user = new User();
+        user.setFirstName("John");
+        user.setLastName("Doe");
+        Car car = new Car();
+        car.setBrand("Tesla");
+        car.setModel("Model S");
+        Rental rental = new Rental();
+        rental.setId(10L + id);
+        rental.setUser(user);
+        rental.setCar(car);
+        Payment payment = new Payment();
+        payment.setId(id);
+        payment.setStatus(PaymentStatus.PAID);
+        payment.setType(PaymentType.PAYMENT);
+        payment.setAmountToPay(BigDecimal.TEN);
+        payment.setRental(rental);
+        return payment;
+    }
+
+    private CheckoutSessionSummary session(String id, String status, String paymentStatus) {
+        return new CheckoutSessionSummary(id, status, paymentStatus, WINDOW_START);
+    }
+
+    private PaymentRepository.SessionStatusView payment(Long id,
+                                                        String sessionId,
+                                                        PaymentStatus status) {
+        return new PaymentRepository.SessionStatusView() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public String getSessionId() {
+                return sessionId;
+            }
+
+            @Override
+            public PaymentStatus getStatus() {
+                return status;
+            }
+        };
+    }
+
+    private CheckoutBatchRepository.SessionStatusView batch(Long id,
+                                                            String sessionId,
+                                                            PaymentStatus status) {
+        return new CheckoutBatchRepository.SessionStatusView() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public String getSessionId() {
+                return sessionId;
+            }
+
+            @Override
+            public PaymentStatus getStatus() {
+                return status;
+            }
+        };
+    }
+}
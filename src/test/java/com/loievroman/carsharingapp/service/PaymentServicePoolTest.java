@@ -0,0 +1,152 @@
+package com.loievroman.carsharingapp.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.loievroman.carsharingapp.dto.payment.CreatePaymentRequestDto;
+import com.loievroman.carsharingapp.model.PaymentType;
+import com.stripe.Stripe;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import com.zaxxer.hikari.HikariDataSource;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.web.util.UriComponentsBuilder;
+
+@SpringBootTest(properties = {
+        "spring.datasource.hikari.maximum-pool-size=" + PaymentServicePoolTest.POOL_SIZE,
+        "spring.datasource.hikari.connection-timeout=1000"
+})
+@Sql(
+        scripts = {
+                "classpath:database/remove-all-data.sql",
+                "classpath:database/add-users-and-roles.sql",
+                "classpath:database/add-car.sql"
+        },
+        executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD
+)
+class PaymentServicePoolTest {
+    static final int POOL_SIZE = 2;
+    private static final int CHECKOUTS = 16;
+    private static final long STRIPE_LATENCY_MILLIS = 400;
+
+    @Autowired
+    private PaymentService paymentService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private HikariDataSource dataSource;
+
+    @MockitoBean
+    private NotificationService notificationService;
+
+    private HttpServer stripeStub;
+    private final AtomicInteger inFlightStripeCalls = new AtomicInteger();
+    private final AtomicInteger peakStripeCalls = new AtomicInteger();
+    private final AtomicInteger peakActiveConnections = new AtomicInteger();
+    private final AtomicInteger sessions = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() throws IOException {
+        stripeStub = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        stripeStub.setExecutor(Executors.newFixedThreadPool(CHECKOUTS));
+        stripeStub.createContext("/v1/checkout/sessions", this::slowCheckoutSession);
+        stripeStub.start();
+        Stripe.overrideApiBase("http://localhost:" + stripeStub.getAddress().getPort());
+
+        for (int i = 1; i <= CHECKOUTS; i++) {
+            jdbcTemplate.update("INSERT INTO rentals (id, rental_date, return_date, "
+                    + "actual_return_date, car_id, user_id, is_deleted) "
+                    + "VALUES (?, ?, ?, null, 1, 1, 0)",
+                    i, LocalDate.now().minusDays(3), LocalDate.now());
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        Stripe.overrideApiBase(Stripe.LIVE_API_BASE);
+        stripeStub.stop(0);
+    }
+
+    @Test
+    @DisplayName("Create payment session - Slow Stripe And Tiny Pool - No Connection Held Remotely")
+    void createPaymentSession_SlowStripe_PoolUsageStaysFlat() throws Exception {
+        // given
+        UriComponentsBuilder uriBuilder = UriComponentsBuilder.fromUriString("http://localhost");
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(CHECKOUTS);
+        List<Future<?>> futures = new ArrayList<>();
+
+        // when
+        for (long rentalId = 1; rentalId <= CHECKOUTS; rentalId++) {
+            CreatePaymentRequestDto requestDto = new CreatePaymentRequestDto();
+            requestDto.setRentalId(rentalId);
+            requestDto.setType(PaymentType.PAYMENT);
+            futures.add(executor.submit(() -> {
+                start.await();
+                return paymentService.createPaymentSession(requestDto, uriBuilder);
+            }));
+        }
+        long startedAt = System.nanoTime();
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(30, TimeUnit.SECONDS);
+        }
+        final long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt);
+        executor.shutdown();
+
+        // then
+        assertEquals(CHECKOUTS, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM payments WHERE session_id IS NOT NULL", Integer.class));
+        assertTrue(peakStripeCalls.get() > POOL_SIZE,
+                "Stripe calls should overlap beyond the pool size, peak was "
+                        + peakStripeCalls.get());
+        assertTrue(peakActiveConnections.get() <= POOL_SIZE);
+        assertTrue(elapsedMillis < CHECKOUTS / POOL_SIZE * STRIPE_LATENCY_MILLIS,
+                "Checkouts were serialized by the pool: " + elapsedMillis + " ms");
+    }
+
+    private void slowCheckoutSession(HttpExchange exchange) throws IOException {
+        peakStripeCalls.accumulateAndGet(inFlightStripeCalls.incrementAndGet(), Math::max);
+        peakActiveConnections.accumulateAndGet(
+                dataSource.getHikariPoolMXBean().getActiveConnections(), Math::max);
+        try {
+            Thread.sleep(STRIPE_LATENCY_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            inFlightStripeCalls.decrementAndGet();
+        }
+        int id = sessions.incrementAndGet();
+        byte[] body = ("{\"id\":\"cs_test_" + id + "\",\"object\":\"checkout.session\","
+                + "\"url\":\"https://checkout.stripe.test/" + id + "\"}")
+                .getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+}
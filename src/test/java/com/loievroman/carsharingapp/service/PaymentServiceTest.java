@@ -1,47 +1,72 @@
 package com.loievroman.carsharingapp.service;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.Mockito.mock;
-import static org.mockito.Mockito.mockStatic;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
+import com.loievroman.carsharingapp.dto.page.SliceDto;
+import com.loievroman.carsharingapp.dto.payment.BatchPaymentResponseDto;
+import com.loievroman.carsharingapp.dto.payment.CreateBatchPaymentRequestDto;
 import com.loievroman.carsharingapp.dto.payment.CreatePaymentRequestDto;
 import com.loievroman.carsharingapp.dto.payment.PaymentDto;
 import com.loievroman.carsharingapp.dto.payment.PaymentResponseDto;
 import com.loievroman.carsharingapp.dto.payment.PaymentStatusResponseDto;
+import com.loievroman.carsharingapp.exception.EntityNotFoundException;
 import com.loievroman.carsharingapp.exception.NoFineRequiredException;
 import com.loievroman.carsharingapp.exception.PaymentAlreadyPaidException;
+import com.loievroman.carsharingapp.exception.PaymentInProgressException;
 import com.loievroman.carsharingapp.mapper.PaymentMapper;
 import com.loievroman.carsharingapp.model.Car;
+import com.loievroman.carsharingapp.model.CarType;
+import com.loievroman.carsharingapp.model.CheckoutBatch;
 import com.loievroman.carsharingapp.model.Payment;
 import com.loievroman.carsharingapp.model.PaymentStatus;
 import com.loievroman.carsharingapp.model.PaymentType;
 import com.loievroman.carsharingapp.model.Rental;
 import com.loievroman.carsharingapp.model.User;
+import com.loievroman.carsharingapp.pagination.CountMode;
+import com.loievroman.carsharingapp.payment.CheckoutLineItem;
+import com.loievroman.carsharingapp.payment.CheckoutRequest;
+import com.loievroman.carsharingapp.payment.CheckoutSession;
+import com.loievroman.carsharingapp.payment.PaymentGateway;
+import com.loievroman.carsharingapp.pricing.MinorUnits;
+import com.loievroman.carsharingapp.pricing.PricingEngine;
+import com.loievroman.carsharingapp.pricing.PricingProperties;
+import com.loievroman.carsharingapp.repository.CheckoutBatchRepository;
 import com.loievroman.carsharingapp.repository.PaymentRepository;
 import com.loievroman.carsharingapp.repository.RentalRepository;
-import com.stripe.model.checkout.Session;
-import com.stripe.param.checkout.SessionCreateParams;
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
-import org.mockito.MockedStatic;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.util.UriComponentsBuilder;
 
 @ExtendWith(MockitoExtension.class)
@@ -54,7 +79,19 @@ class PaymentServiceTest {
     @Mock
     private PaymentMapper paymentMapper;
     @Mock
-    private NotificationService notificationService;
+    private ApproximateRowCounts approximateRowCounts;
+    @Mock
+    private TransactionTemplate transactionTemplate;
+    @Mock
+    private PaymentGateway paymentGateway;
+    @Mock
+    private PaymentStatusCache paymentStatusCache;
+    @Mock
+    private CheckoutBatchRepository checkoutBatchRepository;
+    @Spy
+    private PricingEngine pricingEngine = new PricingEngine(new PricingProperties(
+            new PricingProperties.Tariff(BigDecimal.ONE, BigDecimal.ZERO, BigDecimal.ZERO,
+                    BigDecimal.ZERO, new BigDecimal("1.5")), null));
 
     @InjectMocks
     private PaymentServiceImpl paymentService;
@@ -70,6 +107,7 @@ class PaymentServiceTest {
 
         Car car = new Car();
         car.setDailyFee(BigDecimal.valueOf(100.00));
+        car.setType(CarType.SEDAN);
         car.setBrand("Tesla");
         car.setModel("S");
 
@@ -83,36 +121,76 @@ class PaymentServiceTest {
         payment.setId(1L);
         payment.setStatus(PaymentStatus.PENDING);
         payment.setAmountToPay(BigDecimal.valueOf(500.00));
+        payment.setCreatedAt(LocalDateTime.now());
 
         payment.setType(PaymentType.PAYMENT);
         payment.setRental(rental);
 
-        Session sessionMock = mock(Session.class);
-        when(sessionMock.getId()).thenReturn("sess_123");
-        when(sessionMock.getUrl()).thenReturn("http://stripe.com/pay");
-
+        runTransactionsInline();
         when(paymentRepository.findByRentalIdAndType(rentalId, PaymentType.PAYMENT))
                 .thenReturn(Optional.empty());
         when(rentalRepository.findById(rentalId)).thenReturn(Optional.of(rental));
-        
         when(paymentRepository.save(any(Payment.class))).thenReturn(payment);
+        when(paymentRepository.attachSession(1L, "sess_123", "http://stripe.com/pay"))
+                .thenReturn(1);
+        when(paymentGateway.createCheckoutSession(any(CheckoutRequest.class)))
+                .thenReturn(new CheckoutSession("sess_123", "http://stripe.com/pay"));
 
         UriComponentsBuilder uriBuilder = UriComponentsBuilder.fromUriString("http://localhost");
 
-        try (MockedStatic<Session> mockedStaticSession = mockStatic(Session.class)) {
-            mockedStaticSession.when(() -> Session.create(any(SessionCreateParams.class)))
-                    .thenReturn(sessionMock);
+        // when
+        PaymentResponseDto result = paymentService.createPaymentSession(requestDto, uriBuilder);
+
+        // then
+        assertNotNull(result);
+        assertEquals("sess_123", result.getSessionId());
+        assertEquals("http://stripe.com/pay", result.getSessionUrl());
+        verify(paymentRepository).save(any(Payment.class));
+        verify(paymentRepository).attachSession(1L, "sess_123", "http://stripe.com/pay");
+        verify(transactionTemplate, times(2)).execute(any());
+    }
 
-            // when
-            PaymentResponseDto result = paymentService.createPaymentSession(requestDto, uriBuilder);
+    @Test
+    @DisplayName("Create Payment Session - Orphaned Intent - Retries With Same Idempotency Key")
+    void createPaymentSession_OrphanedIntent_ReusesIdempotencyKey() {
+        // given
+        CreatePaymentRequestDto requestDto = new CreatePaymentRequestDto();
+        requestDto.setRentalId(1L);
+        requestDto.setType(PaymentType.PAYMENT);
 
-            // then
-            assertNotNull(result);
-            assertEquals("sess_123", result.getSessionId());
-            assertEquals("http://stripe.com/pay", result.getSessionUrl());
-            verify(paymentRepository, org.mockito.Mockito.times(2))
-                    .save(any(Payment.class));
-        }
+        Car car = new Car();
+        car.setBrand("Tesla");
+        car.setModel("S");
+        Rental rental = new Rental();
+        rental.setCar(car);
+
+        Payment orphan = new Payment();
+        orphan.setId(7L);
+        orphan.setStatus(PaymentStatus.PENDING);
+        orphan.setType(PaymentType.PAYMENT);
+        orphan.setRental(rental);
+        orphan.setAmountToPay(BigDecimal.TEN);
+        orphan.setCreatedAt(LocalDateTime.of(2024, 1, 1, 10, 0));
+
+        runTransactionsInline();
+        when(paymentRepository.findByRentalIdAndType(1L, PaymentType.PAYMENT))
+                .thenReturn(Optional.of(orphan));
+        when(paymentRepository.attachSession(eq(7L), eq("sess_7"), any())).thenReturn(1);
+        ArgumentCaptor<CheckoutRequest> checkout = ArgumentCaptor.forClass(CheckoutRequest.class);
+        when(paymentGateway.createCheckoutSession(checkout.capture()))
+                .thenReturn(new CheckoutSession("sess_7", "http://stripe.com/pay/7"));
+
+        UriComponentsBuilder uriBuilder = UriComponentsBuilder.fromUriString("http://localhost");
+
+        // when
+        PaymentResponseDto result = paymentService.createPaymentSession(requestDto, uriBuilder);
+
+        // then
+        assertEquals("sess_7", result.getSessionId());
+        assertEquals("payment-session-7-1704103200000", checkout.getValue().idempotencyKey());
+        assertEquals(1000L, checkout.getValue().lineItems().get(0).amountInCents());
+        verify(paymentRepository, never()).save(any(Payment.class));
+        verify(rentalRepository, never()).findById(any());
     }
 
     @Test
@@ -125,6 +203,7 @@ class PaymentServiceTest {
 
         Payment existingPayment = new Payment();
         existingPayment.setStatus(PaymentStatus.PENDING);
+        existingPayment.setSessionId("old_session");
         existingPayment.setSessionUrl("old_url");
 
         PaymentResponseDto expectedResponse = new PaymentResponseDto();
@@ -135,6 +214,7 @@ class PaymentServiceTest {
         when(paymentMapper.toResponseDto(existingPayment)).thenReturn(expectedResponse);
 
         // when
+        runTransactionsInline();
         PaymentResponseDto result = paymentService
                 .createPaymentSession(requestDto, null);
 
@@ -157,6 +237,8 @@ class PaymentServiceTest {
         when(paymentRepository.findByRentalIdAndType(1L, PaymentType.PAYMENT))
                 .thenReturn(Optional.of(existingPayment));
 
+        runTransactionsInline();
+
         // when & then
         assertThrows(PaymentAlreadyPaidException.class,
                 () -> paymentService.createPaymentSession(requestDto, null));
@@ -172,6 +254,7 @@ class PaymentServiceTest {
 
         Car car = new Car();
         car.setDailyFee(BigDecimal.TEN);
+        car.setType(CarType.SEDAN);
 
         Rental rental = new Rental();
         rental.setId(1L);
@@ -183,52 +266,42 @@ class PaymentServiceTest {
                 .thenReturn(Optional.empty());
         when(rentalRepository.findById(1L)).thenReturn(Optional.of(rental));
 
+        runTransactionsInline();
+
         // when & then
         assertThrows(NoFineRequiredException.class,
                 () -> paymentService.createPaymentSession(requestDto, null));
     }
 
     @Test
-    @DisplayName("Handle Successful Payment - Stripe Paid - Updates DB")
-    void handleSuccessfulPayment_StripePaid_UpdatesDb() {
+    @DisplayName("Handle Successful Payment - Settled By Webhook - Returns Success Locally")
+    void handleSuccessfulPayment_SettledByWebhook_ReturnsSuccess() {
         // given
-        User user = new User();
-        user.setFirstName("John");
-        user.setLastName("Doe");
-
-        Car car = new Car();
-        car.setBrand("Test");
-        car.setModel("Car");
-
-        Rental rental = new Rental();
-        rental.setUser(user);
-        rental.setCar(car);
-
-        Payment payment = new Payment();
-        payment.setId(1L);
-        payment.setStatus(PaymentStatus.PENDING);
-        payment.setRental(rental);
-        payment.setType(PaymentType.PAYMENT);
-        payment.setAmountToPay(BigDecimal.TEN);
-
-        Session sessionMock = mock(Session.class);
-        when(sessionMock.getPaymentStatus()).thenReturn("paid");
-
         String sessionId = "sess_success";
+        when(paymentStatusCache.findStatusBySessionId(sessionId)).thenReturn(PaymentStatus.PAID);
 
-        when(paymentRepository.findBySessionId(sessionId)).thenReturn(Optional.of(payment));
+        // when
+        PaymentStatusResponseDto result = paymentService.handleSuccessfulPayment(sessionId);
+
+        // then
+        assertEquals("SUCCESS", result.getStatus());
+        verifyNoInteractions(paymentGateway);
+    }
 
-        try (MockedStatic<Session> mockedStaticSession = mockStatic(Session.class)) {
-            mockedStaticSession.when(() -> Session.retrieve(sessionId)).thenReturn(sessionMock);
+    @Test
+    @DisplayName("Handle Successful Payment - Webhook Not Yet Received - Returns Pending")
+    void handleSuccessfulPayment_NotSettledYet_ReturnsPending() {
+        // given
+        String sessionId = "sess_pending";
+        when(paymentStatusCache.findStatusBySessionId(sessionId))
+                .thenReturn(PaymentStatus.PENDING);
 
-            // when
-            PaymentStatusResponseDto result = paymentService.handleSuccessfulPayment(sessionId);
+        // when
+        PaymentStatusResponseDto result = paymentService.handleSuccessfulPayment(sessionId);
 
-            // then
-            assertEquals("SUCCESS", result.getStatus());
-            assertEquals(PaymentStatus.PAID, payment.getStatus());
-            verify(notificationService).sendPaymentConfirmedNotification(payment);
-        }
+        // then
+        assertEquals("PENDING", result.getStatus());
+        verify(paymentRepository, never()).save(any(Payment.class));
     }
 
     @Test
@@ -252,4 +325,186 @@ class PaymentServiceTest {
         assertEquals(1, result.getTotalElements());
         assertEquals(1L, result.getContent().get(0).getId());
     }
+
+    @Test
+    @DisplayName("Find all - Count Mode None - Skips Count Query")
+    void findAll_CountModeNone_SkipsCountQuery() {
+        // given
+        Pageable pageable = PageRequest.of(0, 1);
+        Payment payment = new Payment();
+        PaymentDto paymentDto = new PaymentDto();
+        when(paymentRepository.findSliceBy(pageable))
+                .thenReturn(new SliceImpl<>(List.of(payment), pageable, true));
+        when(paymentMapper.toDto(payment)).thenReturn(paymentDto);
+
+        // when
+        SliceDto<PaymentDto> result = paymentService.findAll(pageable, CountMode.NONE);
+
+        // then
+        assertTrue(result.isHasNext());
+        assertNull(result.getTotalElements());
+        verify(approximateRowCounts, never()).payments(any());
+        verify(paymentRepository, never()).findAll(any(Pageable.class));
+    }
+
+    @Test
+    @DisplayName("Find By User ID - Count Mode Approximate - Uses Cached Estimate")
+    void findByUserId_CountModeApproximate_UsesCachedEstimate() {
+        // given
+        Long userId = 1L;
+        Pageable pageable = PageRequest.of(2, 1);
+        Payment payment = new Payment();
+        when(paymentRepository.findSliceByUserId(userId, pageable))
+                .thenReturn(new SliceImpl<>(List.of(payment), pageable, true));
+        when(paymentMapper.toDto(payment)).thenReturn(new PaymentDto());
+        when(approximateRowCounts.payments(userId)).thenReturn(40L);
+
+        // when
+        SliceDto<PaymentDto> result =
+                paymentService.findByUserId(userId, pageable, CountMode.APPROXIMATE);
+
+        // then
+        assertEquals(40L, result.getTotalElements());
+        assertTrue(result.isTotalApproximate());
+        verify(paymentRepository, never()).countByRentalUserId(anyLong());
+    }
+
+    @Test
+    @DisplayName("Find By User ID - Last Slice - Reports Exact Total Without Estimate")
+    void findByUserId_LastSlice_ReportsExactTotal() {
+        // given
+        Long userId = 1L;
+        Pageable pageable = PageRequest.of(1, 2);
+        Payment payment = new Payment();
+        when(paymentRepository.findSliceByUserId(userId, pageable))
+                .thenReturn(new SliceImpl<>(List.of(payment), pageable, false));
+        when(paymentMapper.toDto(payment)).thenReturn(new PaymentDto());
+
+        // when
+        SliceDto<PaymentDto> result =
+                paymentService.findByUserId(userId, pageable, CountMode.APPROXIMATE);
+
+        // then
+        assertEquals(3L, result.getTotalElements());
+        assertFalse(result.isTotalApproximate());
+        verify(approximateRowCounts, never()).payments(any());
+    }
+
+    @Test
+    @DisplayName("Create Batch Payment Session - Two Rentals - Opens One Session For Both")
+    void createBatchPaymentSession_TwoRentals_OpensOneSession() {
+        // given
+        final CreateBatchPaymentRequestDto requestDto = batchRequest(1L, 2L);
+        runTransactionsInline();
+        when(rentalRepository.findAllByIdIn(any()))
+                .thenReturn(List.of(rentalOf(1L, 5L), rentalOf(2L, 5L)));
+        when(paymentRepository.findAllForUpdateByRentalIdIn(any())).thenReturn(List.of());
+        when(paymentRepository.saveAll(any())).thenAnswer(invocation -> {
+            List<Payment> payments = invocation.getArgument(0);
+            long id = 11;
+            for (Payment payment : payments) {
+                payment.setId(id++);
+            }
+            return payments;
+        });
+        when(checkoutBatchRepository.save(any(CheckoutBatch.class))).thenAnswer(invocation -> {
+            CheckoutBatch batch = invocation.getArgument(0);
+            batch.setId(9L);
+            return batch;
+        });
+        ArgumentCaptor<CheckoutRequest> checkout = ArgumentCaptor.forClass(CheckoutRequest.class);
+        when(paymentGateway.createCheckoutSession(checkout.capture()))
+                .thenReturn(new CheckoutSession("cs_batch", "http://stripe.com/pay/batch"));
+        when(checkoutBatchRepository.attachSession(9L, "cs_batch", "http://stripe.com/pay/batch"))
+                .thenReturn(1);
+
+        // when
+        BatchPaymentResponseDto result = paymentService.createBatchPaymentSession(
+                5L, requestDto, UriComponentsBuilder.fromUriString("http://localhost"));
+
+        // then
+        assertEquals("cs_batch", result.getSessionId());
+        assertEquals(List.of(11L, 12L), result.getPaymentIds());
+        assertEquals(2, checkout.getValue().lineItems().size());
+        assertEquals(MinorUnits.toCents(result.getAmountToPay()),
+                checkout.getValue().lineItems().stream()
+                        .mapToLong(CheckoutLineItem::amountInCents)
+                        .sum());
+        assertTrue(checkout.getValue().idempotencyKey().startsWith("checkout-batch-9-"));
+        verify(paymentGateway, times(1)).createCheckoutSession(any());
+    }
+
+    @Test
+    @DisplayName("Create Batch Payment Session - Rental Of Another User - Throws Exception")
+    void createBatchPaymentSession_ForeignRental_ThrowsException() {
+        // given
+        CreateBatchPaymentRequestDto requestDto = batchRequest(1L, 2L);
+        runTransactionsInline();
+        when(rentalRepository.findAllByIdIn(any()))
+                .thenReturn(List.of(rentalOf(1L, 5L), rentalOf(2L, 6L)));
+
+        // when & then
+        assertThrows(EntityNotFoundException.class, () -> paymentService
+                .createBatchPaymentSession(5L, requestDto,
+                        UriComponentsBuilder.fromUriString("http://localhost")));
+        verifyNoInteractions(paymentGateway);
+    }
+
+    @Test
+    @DisplayName("Create Batch Payment Session - Charge In Open Session - Throws Exception")
+    void createBatchPaymentSession_ChargeInOpenSession_ThrowsException() {
+        // given
+        final CreateBatchPaymentRequestDto requestDto = batchRequest(1L);
+        Rental rental = rentalOf(1L, 5L);
+        Payment pending = new Payment();
+        pending.setId(11L);
+        pending.setStatus(PaymentStatus.PENDING);
+        pending.setType(PaymentType.PAYMENT);
+        pending.setRental(rental);
+        pending.setSessionId("cs_single");
+        runTransactionsInline();
+        when(rentalRepository.findAllByIdIn(any())).thenReturn(List.of(rental));
+        when(paymentRepository.findAllForUpdateByRentalIdIn(any())).thenReturn(List.of(pending));
+
+        // when & then
+        assertThrows(PaymentInProgressException.class, () -> paymentService
+                .createBatchPaymentSession(5L, requestDto,
+                        UriComponentsBuilder.fromUriString("http://localhost")));
+        verifyNoInteractions(paymentGateway);
+    }
+
+    private CreateBatchPaymentRequestDto batchRequest(Long... rentalIds) {
+        List<CreatePaymentRequestDto> items = new ArrayList<>();
+        for (Long rentalId : rentalIds) {
+            CreatePaymentRequestDto item = new CreatePaymentRequestDto();
+            item.setRentalId(rentalId);
+            item.setType(PaymentType.PAYMENT);
+            items.add(item);
+        }
+        CreateBatchPaymentRequestDto requestDto = new CreateBatchPaymentRequestDto();
+        requestDto.setItems(items);
+        return requestDto;
+    }
+
+    private Rental rentalOf(Long rentalId, Long userId) {
+        Car car = new Car();
+        car.setDailyFee(BigDecimal.valueOf(100));
+        car.setType(CarType.SEDAN);
+        car.setBrand("Tesla");
+        car.setModel("S");
+        User user = new User();
+        user.setId(userId);
+        Rental rental = new Rental();
+        rental.setId(rentalId);
+        rental.setCar(car);
+        rental.setUser(user);
+        rental.setRentalDate(LocalDate.now().minusDays(3));
+        rental.setReturnDate(LocalDate.now());
+        return rental;
+    }
+
+    private void runTransactionsInline() {
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+    }
 }
@@ -0,0 +1,146 @@
+package com.loievroman.carsharingapp.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.loievroman.carsharingapp.event.PaymentSettledEvent;
+import com.loievroman.carsharingapp.exception.EntityNotFoundException;
+import com.loievroman.carsharingapp.model.PaymentStatus;
+import com.loievroman.carsharingapp.repository.CheckoutBatchRepository;
+import com.loievroman.carsharingapp.repository.PaymentRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class PaymentStatusCacheTest {
+    private static final String SESSION_ID = "cs_1";
+
+    @Mock
+    private PaymentRepository paymentRepository;
+
+    @Mock
+    private CheckoutBatchRepository checkoutBatchRepository;
+
+    private SimpleMeterRegistry meterRegistry;
+    private PaymentStatusCache paymentStatusCache;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        paymentStatusCache = new PaymentStatusCache(paymentRepository, checkoutBatchRepository,
+                Duration.ofMinutes(10), 100, meterRegistry);
+    }
+
+    @Test
+    @DisplayName("Find status - Settled Payment - Served From Memory On Repeat")
+    void findStatusBySessionId_Settled_LoadsOnce() {
+        // given
+        when(paymentRepository.findStatusBySessionId(SESSION_ID))
+                .thenReturn(Optional.of(PaymentStatus.PAID));
+
+        // when
+        paymentStatusCache.findStatusBySessionId(SESSION_ID);
+        PaymentStatus repeat = paymentStatusCache.findStatusBySessionId(SESSION_ID);
+
+        // then
+        assertEquals(PaymentStatus.PAID, repeat);
+        verify(paymentRepository, times(1)).findStatusBySessionId(SESSION_ID);
+    }
+
+    @Test
+    @DisplayName("Find status - Pending Payment - Not Cached")
+    void findStatusBySessionId_Pending_LoadsEveryTime() {
+        // given
+        when(paymentRepository.findStatusBySessionId(SESSION_ID))
+                .thenReturn(Optional.of(PaymentStatus.PENDING));
+
+        // when
+        paymentStatusCache.findStatusBySessionId(SESSION_ID);
+        paymentStatusCache.findStatusBySessionId(SESSION_ID);
+
+        // then
+        verify(paymentRepository, times(2)).findStatusBySessionId(SESSION_ID);
+    }
+
+    @Test
+    @DisplayName("Find status - Concurrent Callbacks - Share One Lookup")
+    void findStatusBySessionId_ConcurrentCallbacks_Coalesced() throws Exception {
+        // given
+        CountDownLatch lookupStarted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(paymentRepository.findStatusBySessionId(SESSION_ID)).thenAnswer(invocation -> {
+            lookupStarted.countDown();
+            release.await();
+            return Optional.of(PaymentStatus.PENDING);
+        });
+        ExecutorService callers = Executors.newFixedThreadPool(4);
+
+        try {
+            // when
+            List<Future<PaymentStatus>> results = new ArrayList<>();
+            results.add(callers.submit(
+                    () -> paymentStatusCache.findStatusBySessionId(SESSION_ID)));
+            lookupStarted.await(2, TimeUnit.SECONDS);
+            for (int i = 0; i < 3; i++) {
+                results.add(callers.submit(
+                        () -> paymentStatusCache.findStatusBySessionId(SESSION_ID)));
+            }
+            while (meterRegistry.counter("payment.status-cache.coalesced").count() < 3) {
+                Thread.onSpinWait();
+            }
+            release.countDown();
+
+            // then
+            for (Future<PaymentStatus> result : results) {
+                assertEquals(PaymentStatus.PENDING, result.get(2, TimeUnit.SECONDS));
+            }
+            verify(paymentRepository, times(1)).findStatusBySessionId(SESSION_ID);
+        } finally {
+            callers.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("On payment settled - Webhook Settles Session - Next Callback Skips Database")
+    void onPaymentSettled_WebhookSettled_WarmsCache() {
+        // given
+        paymentStatusCache.onPaymentSettled(
+                new PaymentSettledEvent(SESSION_ID, PaymentStatus.PAID));
+
+        // when
+        PaymentStatus status = paymentStatusCache.findStatusBySessionId(SESSION_ID);
+
+        // then
+        assertEquals(PaymentStatus.PAID, status);
+        verify(paymentRepository, never()).findStatusBySessionId(SESSION_ID);
+    }
+
+    @Test
+    @DisplayName("Find status - Unknown Session - Throws Exception")
+    void findStatusBySessionId_UnknownSession_ThrowsException() {
+        // given
+        when(paymentRepository.findStatusBySessionId(SESSION_ID)).thenReturn(Optional.empty());
+
+        // when & then
+        assertThrows(EntityNotFoundException.class,
+                () -> paymentStatusCache.findStatusBySessionId(SESSION_ID));
+    }
+}
@@ -0,0 +1,225 @@
+package com.loievroman.carsharingapp.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.loievroman.carsharingapp.event.PaymentSettledEvent;
+import com.loievroman.carsharingapp.exception.PaymentGatewayUnavailableException;
+import com.loievroman.carsharingapp.model.PaymentStatus;
+import com.loievroman.carsharingapp.payment.PaymentGateway;
+import com.loievroman.carsharingapp.repository.CheckoutBatchRepository;
+import com.loievroman.carsharingapp.repository.PaymentRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@ExtendWith(MockitoExtension.class)
+class PendingPaymentSweeperTest {
+
+    @Mock
+    private PaymentRepository paymentRepository;
+
+    @Mock
+    private CheckoutBatchRepository checkoutBatchRepository;
+
+    @Mock
+    private PaymentGateway paymentGateway;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private SimpleMeterRegistry meterRegistry;
+    private ExecutorService workers;
+    private PendingPaymentSweeper sweeper;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        workers = Executors.newFixedThreadPool(2);
+        sweeper = new PendingPaymentSweeper(paymentRepository, checkoutBatchRepository,
+                paymentGateway, transactionTemplate, eventPublisher, workers, meterRegistry,
+                Duration.ofHours(24), 2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        workers.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("Sweep - Two Chunks - Walks By Id And Expires Each Chunk In One Update")
+    void sweep_TwoChunks_ExpiresConfirmedSessionsPerChunk() {
+        // given
+        runTransactionsInline();
+        when(paymentRepository.findStalePendingSessions(any(), eq(0L), eq(Limit.of(2))))
+                .thenReturn(List.of(pending(1L, "cs_1"), pending(2L, "cs_2")));
+        when(paymentRepository.findStalePendingSessions(any(), eq(2L), eq(Limit.of(2))))
+                .thenReturn(List.of(pending(5L, "cs_5")));
+        when(paymentGateway.expireCheckoutSession("cs_1")).thenReturn(true);
+        when(paymentGateway.expireCheckoutSession("cs_2")).thenReturn(false);
+        when(paymentGateway.expireCheckoutSession("cs_5")).thenReturn(true);
+        when(paymentRepository.lockPendingIds(Set.of(1L))).thenReturn(List.of(1L));
+        when(paymentRepository.lockPendingIds(Set.of(5L))).thenReturn(List.of(5L));
+
+        // when
+        int expired = sweeper.sweep();
+
+        // then
+        assertEquals(2, expired);
+        verify(paymentRepository).expirePending(List.of(1L));
+        verify(paymentRepository).expirePending(List.of(5L));
+        verify(eventPublisher).publishEvent(
+                new PaymentSettledEvent("cs_5", PaymentStatus.EXPIRED));
+        assertEquals(3, meterRegistry.counter("payment.sweeper.sessions",
+                "outcome", "scanned").count());
+        assertEquals(1, meterRegistry.counter("payment.sweeper.sessions",
+                "outcome", "not-expirable").count());
+    }
+
+    @Test
+    @DisplayName("Sweep - Whole Chunk Expired - Issues One Guarded Update For The Chunk")
+    void sweep_WholeChunkExpired_UpdatesOncePerChunk() {
+        // given
+        runTransactionsInline();
+        when(paymentRepository.findStalePendingSessions(any(), eq(0L), eq(Limit.of(2))))
+                .thenReturn(List.of(pending(1L, "cs_1"), pending(2L, "cs_2")));
+        when(paymentRepository.findStalePendingSessions(any(), eq(2L), eq(Limit.of(2))))
+                .thenReturn(List.of());
+        when(paymentGateway.expireCheckoutSession(anyString())).thenReturn(true);
+        when(paymentRepository.lockPendingIds(Set.of(1L, 2L))).thenReturn(List.of(1L, 2L));
+
+        // when
+        sweeper.sweep();
+
+        // then
+        verify(paymentRepository, times(1)).lockPendingIds(anyCollection());
+        verify(paymentRepository, times(1)).expirePending(anyCollection());
+        verify(paymentRepository).expirePending(List.of(1L, 2L));
+        verify(transactionTemplate, times(1)).execute(any());
+    }
+
+    @Test
+    @DisplayName("Sweep - Settled Concurrently - Does Not Publish Expired")
+    void sweep_SettledConcurrently_DoesNotPublishExpired() {
+        // given
+        runTransactionsInline();
+        when(paymentRepository.findStalePendingSessions(any(), eq(0L), eq(Limit.of(2))))
+                .thenReturn(List.of(pending(1L, "cs_1"), pending(2L, "cs_2")));
+        when(paymentRepository.findStalePendingSessions(any(), eq(2L), eq(Limit.of(2))))
+                .thenReturn(List.of());
+        when(paymentGateway.expireCheckoutSession("cs_1")).thenReturn(true);
+        when(paymentGateway.expireCheckoutSession("cs_2")).thenReturn(true);
+        when(paymentRepository.lockPendingIds(Set.of(1L, 2L))).thenReturn(List.of(2L));
+
+        // when
+        int expired = sweeper.sweep();
+
+        // then
+        assertEquals(1, expired);
+        verify(paymentRepository).expirePending(List.of(2L));
+        verify(eventPublisher, never()).publishEvent(
+                new PaymentSettledEvent("cs_1", PaymentStatus.EXPIRED));
+        verify(eventPublisher).publishEvent(
+                new PaymentSettledEvent("cs_2", PaymentStatus.EXPIRED));
+    }
+
+    @Test
+    @DisplayName("Sweep - Stale Batch Session - Expires Session And Batch")
+    void sweep_StaleBatchSession_ExpiresBatch() {
+        // given
+        runTransactionsInline();
+        when(checkoutBatchRepository.findStalePendingSessions(any(), eq(0L), eq(Limit.of(2))))
+                .thenReturn(List.of(pending(9L, "cs_batch")));
+        when(paymentGateway.expireCheckoutSession("cs_batch")).thenReturn(true);
+        when(checkoutBatchRepository.lockPendingIds(Set.of(9L))).thenReturn(List.of(9L));
+
+        // when
+        int expired = sweeper.sweep();
+
+        // then
+        assertEquals(1, expired);
+        verify(checkoutBatchRepository).expirePending(List.of(9L));
+        verify(paymentRepository, never()).expirePending(anyCollection());
+        verify(eventPublisher).publishEvent(
+                new PaymentSettledEvent("cs_batch", PaymentStatus.EXPIRED));
+    }
+
+    @Test
+    @DisplayName("Sweep - Batch Session Still Payable - Leaves Batch Pending")
+    void sweep_BatchSessionStillPayable_LeavesBatchPending() {
+        // given
+        when(checkoutBatchRepository.findStalePendingSessions(any(), eq(0L), eq(Limit.of(2))))
+                .thenReturn(List.of(pending(9L, "cs_batch")));
+        when(paymentGateway.expireCheckoutSession("cs_batch")).thenReturn(false);
+
+        // when
+        int expired = sweeper.sweep();
+
+        // then
+        assertEquals(0, expired);
+        verify(checkoutBatchRepository, never()).expirePending(anyCollection());
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    @DisplayName("Sweep - Gateway Unavailable - Leaves Rows Pending For Next Run")
+    void sweep_GatewayUnavailable_LeavesRowsPending() {
+        // given
+        when(paymentRepository.findStalePendingSessions(any(), eq(0L), eq(Limit.of(2))))
+                .thenReturn(List.of(pending(1L, "cs_1")));
+        when(paymentGateway.expireCheckoutSession("cs_1")).thenThrow(
+                new PaymentGatewayUnavailableException("unavailable", Duration.ofSeconds(30)));
+
+        // when
+        int expired = sweeper.sweep();
+
+        // then
+        assertEquals(0, expired);
+        verify(paymentRepository, never()).expirePending(anyCollection());
+        assertEquals(1, meterRegistry.counter("payment.sweeper.sessions",
+                "outcome", "failed").count());
+    }
+
+    private void runTransactionsInline() {
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+    }
+
+    private PaymentRepository.PendingSessionView pending(Long id, String sessionId) {
+        return new PaymentRepository.PendingSessionView() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public String getSessionId() {
+                return sessionId;
+            }
+        };
+    }
+}
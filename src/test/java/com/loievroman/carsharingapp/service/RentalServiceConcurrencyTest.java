@@ -0,0 +1,94 @@
+package com.loievroman.carsharingapp.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.loievroman.carsharingapp.dto.rental.CreateRentalRequestDto;
+import com.loievroman.carsharingapp.exception.NoAvailableCarsException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.context.jdbc.Sql;
+
+@SpringBootTest
+@Sql(
+        scripts = {
+                "classpath:database/remove-all-data.sql",
+                "classpath:database/add-rental.sql"
+        },
+        executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD
+)
+class RentalServiceConcurrencyTest {
+    private static final long CAR_ID = 1L;
+    private static final long CUSTOMER_ID = 1L;
+    private static final int INITIAL_INVENTORY = 10;
+    private static final int BOOKINGS = 300;
+    private static final int THREADS = 64;
+
+    @Autowired
+    private RentalService rentalService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @MockitoBean
+    private NotificationService notificationService;
+
+    @Test
+    @DisplayName("Create rental - Hundreds Of Parallel Bookings For One Car - Never Oversells")
+    void createRental_ParallelBookingsForOneCar_NeverOversells() throws Exception {
+        // given
+        CreateRentalRequestDto requestDto = new CreateRentalRequestDto();
+        requestDto.setCarId(CAR_ID);
+        requestDto.setReturnDate(LocalDate.now().plusDays(3));
+        final Integer rentalsBefore = countRentals();
+
+        AtomicInteger booked = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> futures = new ArrayList<>();
+
+        // when
+        for (int i = 0; i < BOOKINGS; i++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                try {
+                    rentalService.createRental(requestDto, CUSTOMER_ID);
+                    booked.incrementAndGet();
+                } catch (NoAvailableCarsException e) {
+                    rejected.incrementAndGet();
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(60, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        // then
+        assertEquals(INITIAL_INVENTORY, booked.get());
+        assertEquals(BOOKINGS - INITIAL_INVENTORY, rejected.get());
+        assertEquals(0, jdbcTemplate.queryForObject(
+                "SELECT inventory FROM cars WHERE id = ?", Integer.class, CAR_ID));
+        assertEquals(rentalsBefore + INITIAL_INVENTORY, countRentals());
+    }
+
+    private Integer countRentals() {
+        return jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM rentals WHERE car_id = ?", Integer.class, CAR_ID);
+    }
+}
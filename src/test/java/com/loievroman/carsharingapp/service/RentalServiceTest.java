@@ -2,17 +2,28 @@ package com.loievroman.carsharingapp.service;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 import com.loievroman.carsharingapp.dto.rental.CreateRentalRequestDto;
 import com.loievroman.carsharingapp.dto.rental.RentalDto;
+import com.loievroman.carsharingapp.event.RentalCreatedEvent;
+import com.loievroman.carsharingapp.event.RentalReturnedEvent;
+import com.loievroman.carsharingapp.exception.EntityNotFoundException;
+import com.loievroman.carsharingapp.exception.NoAvailableCarsException;
+import com.loievroman.carsharingapp.exception.RentalAlreadyReturnedException;
 import com.loievroman.carsharingapp.mapper.RentalMapper;
 import com.loievroman.carsharingapp.model.Car;
 import com.loievroman.carsharingapp.model.Rental;
 import com.loievroman.carsharingapp.model.User;
 import com.loievroman.carsharingapp.repository.CarRepository;
 import com.loievroman.carsharingapp.repository.RentalRepository;
+import com.loievroman.carsharingapp.repository.UserRepository;
 import java.time.LocalDate;
 import java.util.Optional;
 import org.junit.jupiter.api.DisplayName;
@@ -21,6 +32,9 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
 
 @ExtendWith(MockitoExtension.class)
 class RentalServiceTest {
@@ -31,11 +45,20 @@ class RentalServiceTest {
     @Mock
     private CarRepository carRepository;
 
+    @Mock
+    private UserRepository userRepository;
+
     @Mock
     private RentalMapper rentalMapper;
 
     @Mock
-    private NotificationService notificationService;
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private ReservationLedger reservationLedger;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
 
     @InjectMocks
     private RentalServiceImpl rentalService;
@@ -50,28 +73,100 @@ class RentalServiceTest {
 
         User user = new User();
         user.setId(1L);
+        user.setFirstName("John");
+        user.setLastName("Doe");
 
         Car car = new Car();
         car.setId(1L);
+        car.setBrand("Tesla");
+        car.setModel("Model S");
         car.setInventory(1);
 
         Rental rental = new Rental();
         rental.setId(1L);
+        rental.setUser(user);
+        rental.setCar(car);
+        rental.setReturnDate(requestDto.getReturnDate());
 
         RentalDto rentalDto = new RentalDto();
         rentalDto.setId(1L);
 
-        when(carRepository.findById(1L)).thenReturn(Optional.of(car));
+        runTransactionsInline();
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+        when(carRepository.decrementInventory(1L)).thenReturn(1);
+        when(carRepository.getReferenceById(1L)).thenReturn(car);
         when(rentalRepository.save(any(Rental.class))).thenReturn(rental);
         when(rentalMapper.toDto(rental)).thenReturn(rentalDto);
 
         // when
-        RentalDto result = rentalService.createRental(requestDto, user);
+        RentalDto result = rentalService.createRental(requestDto, user.getId());
 
         // then
         assertNotNull(result);
         assertEquals(rentalDto.getId(), result.getId());
-        assertEquals(0, car.getInventory());
+        verify(carRepository, never()).save(any(Car.class));
+        verify(eventPublisher).publishEvent(new RentalCreatedEvent(1L, "John", "Doe",
+                "Tesla", "Model S", requestDto.getReturnDate()));
+    }
+
+    @Test
+    @DisplayName("Create a rental - Sold Out Car - Throws Exception Without Saving")
+    void createRental_SoldOutCar_ThrowsNoAvailableCarsException() {
+        // given
+        CreateRentalRequestDto requestDto = new CreateRentalRequestDto();
+        requestDto.setCarId(1L);
+
+        User user = new User();
+        user.setId(1L);
+
+        runTransactionsInline();
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+        when(carRepository.decrementInventory(1L)).thenReturn(0);
+        when(carRepository.existsById(1L)).thenReturn(true);
+
+        // when & then
+        assertThrows(NoAvailableCarsException.class,
+                () -> rentalService.createRental(requestDto, user.getId()));
+        verify(rentalRepository, never()).save(any(Rental.class));
+    }
+
+    @Test
+    @DisplayName("Create a rental - Ledger Enabled And Car Sold Out - Rejects Before Transaction")
+    void createRental_LedgerRejects_NeverOpensTransaction() {
+        // given
+        CreateRentalRequestDto requestDto = new CreateRentalRequestDto();
+        requestDto.setCarId(1L);
+
+        when(reservationLedger.isEnabled()).thenReturn(true);
+        when(reservationLedger.tryReserve(1L)).thenReturn(false);
+
+        // when & then
+        assertThrows(NoAvailableCarsException.class,
+                () -> rentalService.createRental(requestDto, 1L));
+        verifyNoInteractions(transactionTemplate, carRepository);
+    }
+
+    @Test
+    @DisplayName("Create a rental - Ledger Admits But Database Rejects - Releases Reservation")
+    void createRental_LedgerAdmitsDatabaseRejects_ReleasesReservation() {
+        // given
+        CreateRentalRequestDto requestDto = new CreateRentalRequestDto();
+        requestDto.setCarId(1L);
+
+        User user = new User();
+        user.setId(1L);
+
+        runTransactionsInline();
+        when(reservationLedger.isEnabled()).thenReturn(true);
+        when(reservationLedger.tryReserve(1L)).thenReturn(true);
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+        when(carRepository.decrementInventory(1L)).thenReturn(0);
+        when(carRepository.existsById(1L)).thenReturn(true);
+
+        // when & then
+        assertThrows(NoAvailableCarsException.class,
+                () -> rentalService.createRental(requestDto, 1L));
+        verify(reservationLedger).complete(1L, false);
     }
 
     @Test
@@ -92,8 +187,8 @@ class RentalServiceTest {
         RentalDto rentalDto = new RentalDto();
         rentalDto.setActualReturnDate(LocalDate.now());
 
+        when(rentalRepository.markReturned(eq(1L), any())).thenReturn(1);
         when(rentalRepository.findById(1L)).thenReturn(Optional.of(rental));
-        when(rentalRepository.save(rental)).thenReturn(rental);
         when(rentalMapper.toDto(rental)).thenReturn(rentalDto);
 
         // when
@@ -101,6 +196,37 @@ class RentalServiceTest {
 
         // then
         assertNotNull(result.getActualReturnDate());
-        assertEquals(1, car.getInventory());
+        verify(carRepository).incrementInventory(1L);
+        verify(eventPublisher).publishEvent(RentalReturnedEvent.from(rental));
+    }
+
+    @Test
+    @DisplayName("Return rental - Already Returned Concurrently - Throws Without Restocking")
+    void returnRental_AlreadyReturned_ThrowsWithoutRestocking() {
+        // given
+        when(rentalRepository.markReturned(eq(1L), any())).thenReturn(0);
+        when(rentalRepository.existsById(1L)).thenReturn(true);
+
+        // when & then
+        assertThrows(RentalAlreadyReturnedException.class, () -> rentalService.returnRental(1L));
+        verify(carRepository, never()).incrementInventory(any());
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    @DisplayName("Return rental - Unknown Rental - Throws Exception")
+    void returnRental_UnknownRental_ThrowsEntityNotFoundException() {
+        // given
+        when(rentalRepository.markReturned(eq(42L), any())).thenReturn(0);
+        when(rentalRepository.existsById(42L)).thenReturn(false);
+
+        // when & then
+        assertThrows(EntityNotFoundException.class, () -> rentalService.returnRental(42L));
+        verify(carRepository, never()).incrementInventory(any());
+    }
+
+    private void runTransactionsInline() {
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
     }
 }
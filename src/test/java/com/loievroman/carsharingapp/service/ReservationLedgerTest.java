@@ -0,0 +1,116 @@
+package com.loievroman.carsharingapp.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.loievroman.carsharingapp.event.CarInventoryChangedEvent;
+import com.loievroman.carsharingapp.repository.CarRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class ReservationLedgerTest {
+    private static final Long CAR_ID = 1L;
+
+    @Mock
+    private CarRepository carRepository;
+
+    private SimpleMeterRegistry meterRegistry;
+    private ReservationLedger reservationLedger;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        reservationLedger = new ReservationLedger(carRepository, meterRegistry, true);
+    }
+
+    @Test
+    @DisplayName("Try reserve - More Requests Than Inventory - Admits Only Inventory")
+    void tryReserve_MoreRequestsThanInventory_AdmitsOnlyInventory() {
+        // given
+        stockInDatabase(2);
+
+        // when
+        boolean first = reservationLedger.tryReserve(CAR_ID);
+        boolean second = reservationLedger.tryReserve(CAR_ID);
+        boolean third = reservationLedger.tryReserve(CAR_ID);
+
+        // then
+        assertTrue(first);
+        assertTrue(second);
+        assertFalse(third);
+        verify(carRepository, times(1)).findInventoriesByIdIn(anyCollection());
+        assertEquals(1, meterRegistry.counter("rental.ledger.rejected", "car", "1").count());
+    }
+
+    @Test
+    @DisplayName("Complete - Failed Booking - Returns Unit To Ledger")
+    void complete_FailedBooking_ReturnsUnit() {
+        // given
+        stockInDatabase(1);
+        reservationLedger.tryReserve(CAR_ID);
+
+        // when
+        reservationLedger.complete(CAR_ID, false);
+
+        // then
+        assertTrue(reservationLedger.tryReserve(CAR_ID));
+    }
+
+    @Test
+    @DisplayName("On inventory changed - Car Returned - Admits Again")
+    void onCarInventoryChanged_CarReturned_AdmitsAgain() {
+        // given
+        stockInDatabase(1);
+        reservationLedger.tryReserve(CAR_ID);
+        reservationLedger.complete(CAR_ID, true);
+
+        // when
+        reservationLedger.onCarInventoryChanged(new CarInventoryChangedEvent(CAR_ID, 1));
+
+        // then
+        assertTrue(reservationLedger.tryReserve(CAR_ID));
+    }
+
+    @Test
+    @DisplayName("Reconcile - Database Has Fewer Units - Subtracts In-Flight Reservations")
+    void reconcile_DatabaseChanged_KeepsInFlightReservations() {
+        // given
+        stockInDatabase(3);
+        reservationLedger.tryReserve(CAR_ID);
+        stockInDatabase(2);
+
+        // when
+        reservationLedger.reconcile();
+
+        // then
+        assertTrue(reservationLedger.tryReserve(CAR_ID));
+        assertFalse(reservationLedger.tryReserve(CAR_ID));
+    }
+
+    private void stockInDatabase(int inventory) {
+        when(carRepository.findInventoriesByIdIn(anyCollection()))
+                .thenReturn(List.of(new CarRepository.InventoryView() {
+                    @Override
+                    public Long getId() {
+                        return CAR_ID;
+                    }
+
+                    @Override
+                    public int getInventory() {
+                        return inventory;
+                    }
+                }));
+    }
+}
@@ -0,0 +1,186 @@
+package com.loievroman.carsharingapp.service;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.loievroman.carsharingapp.event.PaymentConfirmedEvent;
+import com.loievroman.carsharingapp.event.PaymentSettledEvent;
+import com.loievroman.carsharingapp.model.Car;
+import com.loievroman.carsharingapp.model.CheckoutBatch;
+import com.loievroman.carsharingapp.model.Payment;
+import com.loievroman.carsharingapp.model.PaymentStatus;
+import com.loievroman.carsharingapp.model.PaymentType;
+import com.loievroman.carsharingapp.model.Rental;
+import com.loievroman.carsharingapp.model.StripeEvent;
+import com.loievroman.carsharingapp.model.StripeEventStatus;
+import com.loievroman.carsharingapp.model.User;
+import com.loievroman.carsharingapp.repository.CheckoutBatchRepository;
+import com.loievroman.carsharingapp.repository.PaymentRepository;
+import com.loievroman.carsharingapp.repository.StripeEventRepository;
+import java.math.BigDecimal;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Optional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+@ExtendWith(MockitoExtension.class)
+class StripeEventProcessorTest {
+    private static final String EVENT_ID = "evt_1";
+    private static final String SESSION_ID = "cs_1";
+
+    @Mock
+    private StripeEventRepository stripeEventRepository;
+
+    @Mock
+    private PaymentRepository paymentRepository;
+
+    @Mock
+    private CheckoutBatchRepository checkoutBatchRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @InjectMocks
+    private StripeEventProcessor stripeEventProcessor;
+
+    private Payment payment;
+
+    @BeforeEach
+    void setUp() {
+        payment = payment(1L);
+        payment.setSessionId(SESSION_ID);
+    }
+
+    @Test
+    @DisplayName("Process - Completed And Paid - Marks Payment Paid And Notifies")
+    void process_CompletedAndPaid_MarksPaymentPaid() {
+        // given
+        receivedEvent(StripeEventProcessor.SESSION_COMPLETED, "paid");
+        when(paymentRepository.findBySessionId(SESSION_ID)).thenReturn(Optional.of(payment));
+        when(stripeEventRepository.markProcessed(any(), any())).thenReturn(1);
+        when(paymentRepository.updateStatus(1L, PaymentStatus.PENDING, PaymentStatus.PAID))
+                .thenReturn(1);
+
+        // when
+        stripeEventProcessor.process(EVENT_ID);
+
+        // then
+        verify(eventPublisher).publishEvent(new PaymentConfirmedEvent(1L, PaymentType.PAYMENT,
+                BigDecimal.TEN, 11L, "John", "Doe", "Tesla", "Model S"));
+        verify(eventPublisher).publishEvent(
+                new PaymentSettledEvent(SESSION_ID, PaymentStatus.PAID));
+    }
+
+    @Test
+    @DisplayName("Process - Already Claimed By Another Worker - Does Not Settle Twice")
+    void process_AlreadyClaimed_DoesNotSettleTwice() {
+        // given
+        receivedEvent(StripeEventProcessor.SESSION_COMPLETED, "paid");
+        when(paymentRepository.findBySessionId(SESSION_ID)).thenReturn(Optional.of(payment));
+        when(stripeEventRepository.markProcessed(any(), any())).thenReturn(0);
+
+        // when
+        stripeEventProcessor.process(EVENT_ID);
+
+        // then
+        verify(paymentRepository, never()).updateStatus(anyLong(), any(), any());
+        verify(eventPublisher, never()).publishEvent(any(PaymentConfirmedEvent.class));
+    }
+
+    @Test
+    @DisplayName("Process - Session Expired - Marks Pending Payment Expired")
+    void process_SessionExpired_MarksPaymentExpired() {
+        // given
+        receivedEvent(StripeEventProcessor.SESSION_EXPIRED, "unpaid");
+        when(paymentRepository.findBySessionId(SESSION_ID)).thenReturn(Optional.of(payment));
+        when(stripeEventRepository.markProcessed(any(), any())).thenReturn(1);
+
+        // when
+        stripeEventProcessor.process(EVENT_ID);
+
+        // then
+        verify(paymentRepository).updateStatus(1L, PaymentStatus.PENDING, PaymentStatus.EXPIRED);
+        verify(eventPublisher, never()).publishEvent(any(PaymentConfirmedEvent.class));
+    }
+
+    @Test
+    @DisplayName("Process - Unknown Session - Leaves Event Received For Retry")
+    void process_UnknownSession_LeavesEventForRetry() {
+        // given
+        receivedEvent(StripeEventProcessor.SESSION_COMPLETED, "paid");
+        when(paymentRepository.findBySessionId(SESSION_ID)).thenReturn(Optional.empty());
+
+        // when
+        stripeEventProcessor.process(EVENT_ID);
+
+        // then
+        verify(stripeEventRepository, never()).markProcessed(any(), any());
+    }
+
+    @Test
+    @DisplayName("Process - Batch Session Paid - Settles Every Payment Of The Batch")
+    void process_BatchSessionPaid_SettlesEveryPayment() {
+        // given
+        Payment second = payment(2L);
+        CheckoutBatch batch = new CheckoutBatch();
+        batch.setId(9L);
+        batch.setSessionId(SESSION_ID);
+        batch.setPayments(new LinkedHashSet<>(List.of(payment, second)));
+        receivedEvent(StripeEventProcessor.SESSION_COMPLETED, "paid");
+        when(paymentRepository.findBySessionId(SESSION_ID)).thenReturn(Optional.empty());
+        when(checkoutBatchRepository.findBySessionId(SESSION_ID)).thenReturn(Optional.of(batch));
+        when(stripeEventRepository.markProcessed(any(), any())).thenReturn(1);
+        when(checkoutBatchRepository.updateStatus(9L, PaymentStatus.PENDING, PaymentStatus.PAID))
+                .thenReturn(1);
+
+        // when
+        stripeEventProcessor.process(EVENT_ID);
+
+        // then
+        verify(paymentRepository).markPaid(List.of(1L, 2L));
+        verify(eventPublisher).publishEvent(PaymentConfirmedEvent.from(second));
+        verify(eventPublisher).publishEvent(
+                new PaymentSettledEvent(SESSION_ID, PaymentStatus.PAID));
+        verify(paymentRepository, never()).updateStatus(anyLong(), any(), any());
+    }
+
+    private Payment payment(Long id) {
+        User user = new User();
+        user.setFirstName("John");
+        user.setLastName("Doe");
+        Car car = new Car();
+        car.setBrand("Tesla");
+        car.setModel("Model S");
+        Rental rental = new Rental();
+        rental.setId(10L + id);
+        rental.setUser(user);
+        rental.setCar(car);
+        Payment payment = new Payment();
+        payment.setId(id);
+        payment.setStatus(PaymentStatus.PENDING);
+        payment.setType(PaymentType.PAYMENT);
+        payment.setAmountToPay(BigDecimal.TEN);
+        payment.setRental(rental);
+        return payment;
+    }
+
+    private void receivedEvent(String type, String sessionPaymentStatus) {
+        StripeEvent event = new StripeEvent();
+        event.setId(EVENT_ID);
+        event.setType(type);
+        event.setSessionId(SESSION_ID);
+        event.setSessionPaymentStatus(sessionPaymentStatus);
+        event.setStatus(StripeEventStatus.RECEIVED);
+        when(stripeEventRepository.findById(EVENT_ID)).thenReturn(Optional.of(event));
+    }
+}
@@ -0,0 +1,158 @@
+package com.loievroman.carsharingapp.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.loievroman.carsharingapp.exception.InvalidWebhookException;
+import com.loievroman.carsharingapp.repository.StripeEventRepository;
+import com.stripe.Stripe;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class StripeWebhookServiceTest {
+    private static final String SECRET = "whsec_test";
+    private static final String PAYLOAD = """
+            {"id":"evt_1","object":"event","api_version":"%s",\
+            "type":"checkout.session.completed",\
+            "data":{"object":{"id":"cs_1","object":"checkout.session","payment_status":"paid"}}}
+            """.formatted(Stripe.API_VERSION);
+
+    @Mock
+    private StripeEventRepository stripeEventRepository;
+
+    @Mock
+    private StripeEventProcessor stripeEventProcessor;
+
+    @Mock
+    private ExecutorService workers;
+
+    private SimpleMeterRegistry meterRegistry;
+    private StripeWebhookServiceImpl stripeWebhookService;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        stripeWebhookService = new StripeWebhookServiceImpl(stripeEventRepository,
+                stripeEventProcessor, workers, meterRegistry, SECRET,
+                Duration.ofMinutes(1), Duration.ofDays(3), Duration.ofDays(30), 2);
+    }
+
+    @Test
+    @DisplayName("Purge Processed - Several Full Chunks - Deletes Chunk By Chunk Until Short One")
+    void purgeProcessed_SeveralFullChunks_DeletesUntilShortChunk() {
+        // given
+        when(stripeEventRepository.deleteProcessedBefore(any(), eq(2))).thenReturn(2, 2, 1);
+
+        // when
+        int purged = stripeWebhookService.purgeProcessed();
+
+        // then
+        assertEquals(5, purged);
+        verify(stripeEventRepository, times(3)).deleteProcessedBefore(any(), eq(2));
+        assertEquals(5, meterRegistry.counter("stripe.webhook.purged").count());
+    }
+
+    @Test
+    @DisplayName("Purge Processed - Backlog Larger Than A Run - Stops After Bounded Chunks")
+    void purgeProcessed_LargeBacklog_StopsAfterBoundedChunks() {
+        // given
+        when(stripeEventRepository.deleteProcessedBefore(any(), eq(2))).thenReturn(2);
+
+        // when
+        int purged = stripeWebhookService.purgeProcessed();
+
+        // then
+        assertEquals(40, purged);
+        verify(stripeEventRepository, times(20)).deleteProcessedBefore(any(), eq(2));
+    }
+
+    @Test
+    @DisplayName("Receive - New Signed Event - Stores It And Settles On Worker")
+    void receive_NewSignedEvent_StoresAndDispatches() throws Exception {
+        // given
+        when(stripeEventRepository.insertIfAbsent(eq("evt_1"), eq("checkout.session.completed"),
+                eq("cs_1"), eq("paid"), eq(PAYLOAD), any())).thenReturn(1);
+        doAnswer(invocation -> {
+            invocation.<Runnable>getArgument(0).run();
+            return null;
+        }).when(workers).execute(any());
+
+        // when
+        stripeWebhookService.receive(PAYLOAD, sign(PAYLOAD));
+
+        // then
+        verify(stripeEventProcessor).process("evt_1");
+    }
+
+    @Test
+    @DisplayName("Receive - Duplicate Delivery - Does Not Dispatch Again")
+    void receive_DuplicateDelivery_DoesNotDispatch() throws Exception {
+        // given
+        when(stripeEventRepository.insertIfAbsent(anyString(), anyString(), anyString(),
+                anyString(), anyString(), any())).thenReturn(0);
+
+        // when
+        stripeWebhookService.receive(PAYLOAD, sign(PAYLOAD));
+
+        // then
+        verify(workers, never()).execute(any());
+    }
+
+    @Test
+    @DisplayName("Receive - Worker Pool Full - Acknowledges And Leaves Event For Retry")
+    void receive_WorkerPoolFull_LeavesEventForRetry() throws Exception {
+        // given
+        when(stripeEventRepository.insertIfAbsent(anyString(), anyString(), anyString(),
+                anyString(), anyString(), any())).thenReturn(1);
+        doThrow(new RejectedExecutionException()).when(workers).execute(any());
+
+        // when
+        stripeWebhookService.receive(PAYLOAD, sign(PAYLOAD));
+
+        // then
+        assertEquals(1, meterRegistry.counter("stripe.webhook.rejected").count());
+        verify(stripeEventProcessor, never()).process(anyString());
+    }
+
+    @Test
+    @DisplayName("Receive - Invalid Signature - Throws Exception Without Storing")
+    void receive_InvalidSignature_ThrowsException() {
+        // when & then
+        assertThrows(InvalidWebhookException.class,
+                () -> stripeWebhookService.receive(PAYLOAD, "t=1,v1=deadbeef"));
+        verify(stripeEventRepository, never()).insertIfAbsent(anyString(), anyString(),
+                anyString(), anyString(), anyString(), any());
+    }
+
+    private String sign(String payload) throws Exception {
+        long timestamp = Instant.now().getEpochSecond();
+        Mac mac = Mac.getInstance("HmacSHA256");
+        mac.init(new SecretKeySpec(SECRET.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+        byte[] digest = mac.doFinal((timestamp + "." + payload)
+                .getBytes(StandardCharsets.UTF_8));
+        return "t=" + timestamp + ",v1=" + HexFormat.of().formatHex(digest);
+    }
+}
@@ -4,6 +4,8 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import com.loievroman.carsharingapp.dto.user.UserProfileResponseDto;
@@ -11,6 +13,7 @@ import com.loievroman.carsharingapp.dto.user.UserProfileUpdateRequestDto;
 import com.loievroman.carsharingapp.dto.user.UserRegistrationRequestDto;
 import com.loievroman.carsharingapp.dto.user.UserResponseDto;
 import com.loievroman.carsharingapp.dto.user.UserRoleUpdateRequestDto;
+import com.loievroman.carsharingapp.event.UserAccountChangedEvent;
 import com.loievroman.carsharingapp.exception.EntityNotFoundException;
 import com.loievroman.carsharingapp.exception.RegistrationException;
 import com.loievroman.carsharingapp.mapper.UserMapper;
@@ -27,6 +30,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
 @ExtendWith(MockitoExtension.class)
@@ -44,6 +48,9 @@ class UserServiceTest {
     @Mock
     private PasswordEncoder passwordEncoder;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private UserServiceImpl userService;
 
@@ -131,6 +138,8 @@ class UserServiceTest {
         // Then
         assertNotNull(actualResponse);
         assertEquals(expectedResponse.getId(), actualResponse.getId());
+        verify(eventPublisher).publishEvent(
+                new UserAccountChangedEvent(user.getId(), Set.of(user.getEmail())));
     }
 
     @Test
@@ -156,10 +165,11 @@ class UserServiceTest {
         expectedResponse.setId(user.getId());
         expectedResponse.setEmail(user.getEmail());
 
+        when(userRepository.findById(user.getId())).thenReturn(Optional.of(user));
         when(userMapper.toProfileDto(user)).thenReturn(expectedResponse);
 
         // When
-        UserProfileResponseDto actualResponse = userService.getMyProfile(user);
+        UserProfileResponseDto actualResponse = userService.getMyProfile(user.getId());
 
         // Then
         assertNotNull(actualResponse);
@@ -183,10 +193,69 @@ class UserServiceTest {
         when(userMapper.toProfileDto(any(User.class))).thenReturn(expectedResponse);
 
         // When
-        UserProfileResponseDto actualResponse = userService.updateMyProfile(user, requestDto);
+        UserProfileResponseDto actualResponse =
+                userService.updateMyProfile(user.getId(), requestDto);
 
         // Then
         assertNotNull(actualResponse);
         assertEquals(expectedResponse.getFirstName(), actualResponse.getFirstName());
     }
+
+    @Test
+    @DisplayName("updateMyProfile_OnlyNameChanged_KeepsTokensAndCachedPrincipal")
+    void updateMyProfile_OnlyNameChanged_DoesNotPublishAccountChange() {
+        // Given
+        UserProfileUpdateRequestDto requestDto = new UserProfileUpdateRequestDto();
+        requestDto.setFirstName("Jane");
+        requestDto.setEmail(user.getEmail());
+
+        when(userRepository.findById(user.getId())).thenReturn(Optional.of(user));
+        when(userRepository.save(any(User.class))).thenReturn(user);
+
+        // When
+        userService.updateMyProfile(user.getId(), requestDto);
+
+        // Then
+        assertEquals(0, user.getTokenVersion());
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    @DisplayName("updateMyProfile_EmailChanged_BumpsTokenVersionAndEvictsBothEmails")
+    void updateMyProfile_EmailChanged_PublishesAccountChange() {
+        // Given
+        UserProfileUpdateRequestDto requestDto = new UserProfileUpdateRequestDto();
+        requestDto.setEmail("new@example.com");
+
+        when(userRepository.findById(user.getId())).thenReturn(Optional.of(user));
+        when(userRepository.save(any(User.class))).thenReturn(user);
+
+        // When
+        userService.updateMyProfile(user.getId(), requestDto);
+
+        // Then
+        assertEquals(1, user.getTokenVersion());
+        verify(eventPublisher).publishEvent(new UserAccountChangedEvent(user.getId(),
+                Set.of("test@example.com", "new@example.com")));
+    }
+
+    @Test
+    @DisplayName("updateRoles_SameRoles_KeepsTokensAndCachedPrincipal")
+    void updateRoles_SameRoles_DoesNotPublishAccountChange() {
+        // Given
+        UserRoleUpdateRequestDto requestDto = new UserRoleUpdateRequestDto();
+        requestDto.setRoles(Set.of(Role.RoleName.CUSTOMER));
+
+        when(userRepository.findById(user.getId())).thenReturn(Optional.of(user));
+        when(roleRepository.findByName(Role.RoleName.CUSTOMER))
+                .thenReturn(Optional.of(customerRole));
+        when(userRepository.save(any(User.class))).thenReturn(user);
+
+        // When
+        userService.updateRoles(user.getId(), requestDto);
+
+        // Then
+        assertEquals(0, user.getTokenVersion());
+        verify(eventPublisher, never()).publishEvent(any());
+    }
 }
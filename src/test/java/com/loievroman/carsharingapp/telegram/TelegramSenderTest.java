@@ -0,0 +1,93 @@
+package com.loievroman.carsharingapp.telegram;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import com.loievroman.carsharingapp.exception.TelegramRateLimitedException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class TelegramSenderTest {
+    private static final String CHAT_ID = "12345";
+
+    private final AtomicLong clock = new AtomicLong();
+
+    @Mock
+    private CarSharingBot carSharingBot;
+
+    private SimpleMeterRegistry meterRegistry;
+    private TelegramSender sender;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        sender = new TelegramSender(carSharingBot, meterRegistry, 30, Duration.ofSeconds(1),
+                2, Duration.ofMinutes(1), Duration.ZERO, clock::get);
+    }
+
+    @Test
+    @DisplayName("Send - Chat Bucket Exhausted - Defers Until A Token Refills")
+    void send_ChatBucketExhausted_Defers() {
+        // given
+        sender.send(CHAT_ID, "first");
+        sender.send(CHAT_ID, "second");
+
+        // when
+        TelegramRateLimitedException exception = assertThrows(TelegramRateLimitedException.class,
+                () -> sender.send(CHAT_ID, "third"));
+
+        // then
+        assertEquals(30, exception.getRetryAfter().toSeconds());
+        verify(carSharingBot, times(2)).sendMessage(eq(CHAT_ID), anyString());
+        assertEquals(1, meterRegistry.counter("telegram.messages", "outcome", "deferred").count());
+    }
+
+    @Test
+    @DisplayName("Send - Bucket Refilled - Sends Again")
+    void send_BucketRefilled_SendsAgain() {
+        // given
+        sender.send(CHAT_ID, "first");
+        sender.send(CHAT_ID, "second");
+        clock.addAndGet(Duration.ofSeconds(30).toNanos());
+
+        // when
+        sender.send(CHAT_ID, "third");
+
+        // then
+        verify(carSharingBot).sendMessage(CHAT_ID, "third");
+        assertEquals(3, meterRegistry.counter("telegram.messages", "outcome", "sent").count());
+    }
+
+    @Test
+    @DisplayName("Send - Telegram Answers 429 - Pauses The Chat For Retry After")
+    void send_TooManyRequests_PausesChat() {
+        // given
+        doThrow(new TelegramRateLimitedException("Too Many Requests", Duration.ofSeconds(45)))
+                .when(carSharingBot).sendMessage(CHAT_ID, "first");
+        assertThrows(TelegramRateLimitedException.class, () -> sender.send(CHAT_ID, "first"));
+        clock.addAndGet(Duration.ofSeconds(40).toNanos());
+
+        // when
+        TelegramRateLimitedException exception = assertThrows(TelegramRateLimitedException.class,
+                () -> sender.send(CHAT_ID, "second"));
+
+        // then
+        assertEquals(5, exception.getRetryAfter().toSeconds());
+        sender.send("67890", "other chat");
+        verify(carSharingBot).sendMessage("67890", "other chat");
+        assertEquals(1, meterRegistry.counter("telegram.messages", "outcome", "throttled").count());
+    }
+}
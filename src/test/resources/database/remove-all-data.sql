@@ -1,5 +1,10 @@
 SET FOREIGN_KEY_CHECKS = 0;
 
+TRUNCATE TABLE notification_outbox;
+TRUNCATE TABLE reconciliation_cursors;
+TRUNCATE TABLE checkout_batch_payments;
+TRUNCATE TABLE checkout_batches;
+TRUNCATE TABLE stripe_events;
 TRUNCATE TABLE payments;
 TRUNCATE TABLE rentals;
 TRUNCATE TABLE users_roles;